@@ -199,6 +199,46 @@ public interface BeanContext {
      */
     void addObserver(BeanContextLifecycleObserver observer);
 
+    /**
+     * Registers a bean context observer which is notified only of the events of the given lifecycle for the given bean.
+     * Unlike an observer registered with {@link #addObserver(BeanContextLifecycleObserver)}, it costs nothing when
+     * other beans change.
+     * <p/>
+     * The default implementation registers a filtering wrapper with {@link #addObserver(BeanContextLifecycleObserver)}
+     * which does not save anything. Bean contexts should index the observer instead.
+     *
+     * @param beanId        The bean to observe.
+     * @param beanLifecycle The lifecycle to observe.
+     * @param observer      The actual BeanObserver instance.
+     */
+    default void addObserver(BeanId beanId, BeanLifecycle beanLifecycle, BeanContextLifecycleObserver observer) {
+        addObserver(new BeanLifecycleObserverFilter(beanId, beanLifecycle, observer));
+    }
+
+    /**
+     * Unregisters a bean observer registered with {@link #addObserver(BeanId, BeanLifecycle, BeanContextLifecycleObserver)}.
+     *
+     * @param beanId        The observed bean.
+     * @param beanLifecycle The observed lifecycle.
+     * @param observer      The actual BeanObserver instance.
+     */
+    default void removeObserver(BeanId beanId, BeanLifecycle beanLifecycle, BeanContextLifecycleObserver observer) {
+        removeObserver(new BeanLifecycleObserverFilter(beanId, beanLifecycle, observer));
+    }
+
+    /**
+     * Whether any observer would be notified of the given lifecycle event of the given bean. Callers can check this
+     * before creating an event for {@link #notifyObservers(BeanContextLifecycleEvent)}. The default implementation
+     * cannot tell and returns true.
+     *
+     * @param beanId        The bean.
+     * @param beanLifecycle The lifecycle.
+     * @return True if the event has at least one observer, otherwise false.
+     */
+    default boolean hasObservers(BeanId beanId, BeanLifecycle beanLifecycle) {
+        return true;
+    }
+
     /**
      * Notify all observers of a specific bean lifecycle event.
      *
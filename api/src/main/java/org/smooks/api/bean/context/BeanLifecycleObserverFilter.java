@@ -0,0 +1,93 @@
+/*-
+ * ========================LICENSE_START=================================
+ * API
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.api.bean.context;
+
+import org.smooks.api.bean.lifecycle.BeanContextLifecycleEvent;
+import org.smooks.api.bean.lifecycle.BeanContextLifecycleObserver;
+import org.smooks.api.bean.lifecycle.BeanLifecycle;
+import org.smooks.api.bean.repository.BeanId;
+
+import java.util.Objects;
+
+/**
+ * Passes on to an observer only the events of one lifecycle of one bean. Backs the default implementation of
+ * {@link BeanContext#addObserver(BeanId, BeanLifecycle, BeanContextLifecycleObserver)} for bean contexts which do not
+ * index their observers. Two filters are equal when they wrap the same observer for the same bean and lifecycle so that
+ * an equal filter can be used to remove a registered one.
+ */
+final class BeanLifecycleObserverFilter implements BeanContextLifecycleObserver {
+
+    private final BeanId beanId;
+    private final BeanLifecycle beanLifecycle;
+    private final BeanContextLifecycleObserver observer;
+
+    BeanLifecycleObserverFilter(final BeanId beanId, final BeanLifecycle beanLifecycle, final BeanContextLifecycleObserver observer) {
+        this.beanId = beanId;
+        this.beanLifecycle = beanLifecycle;
+        this.observer = observer;
+    }
+
+    @Override
+    public void onBeanLifecycleEvent(final BeanContextLifecycleEvent event) {
+        if (event.getLifecycle() == beanLifecycle && beanId.equals(event.getBeanId())) {
+            observer.onBeanLifecycleEvent(event);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BeanLifecycleObserverFilter)) {
+            return false;
+        }
+        final BeanLifecycleObserverFilter that = (BeanLifecycleObserverFilter) o;
+        return beanId.equals(that.beanId) && beanLifecycle == that.beanLifecycle && observer == that.observer;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(beanId, beanLifecycle, System.identityHashCode(observer));
+    }
+}
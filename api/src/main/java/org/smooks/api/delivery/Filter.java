@@ -66,6 +66,10 @@ public interface Filter extends Closeable {
 
     String MAINTAIN_ELEMENT_STACK = "maintain.element.stack";
 
+    String LAZY_ELEMENT_STACK = "lazy.element.stack";
+
+    String PASSTHROUGH_SERIALIZATION = "passthrough.serialization";
+
     String MAX_NODE_DEPTH = "max.node.depth";
 
     String REVERSE_VISIT_ORDER_ON_VISIT_AFTER = "reverse.visit.order.on.visit.after";
@@ -74,6 +78,12 @@ public interface Filter extends Closeable {
 
     String READER_POOL_SIZE = "reader.pool.size";
 
+    String FLUSH_POLICY = "flush.policy";
+
+    String FLUSH_THRESHOLD = "flush.threshold";
+
+    String SLOTTED_MEMENTO_CARETAKER = "slotted.memento.caretaker";
+
     /**
      * Filter the content in the supplied {@link javax.xml.transform.Source} instance, outputing the result
      * to the supplied {@link javax.xml.transform.Result} instance.
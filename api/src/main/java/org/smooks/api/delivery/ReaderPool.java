@@ -66,6 +66,15 @@ public interface ReaderPool {
      */
     void returnXMLReader(XMLReader xmlReader);
 
+    /**
+     * Notifies this reader pool that the borrower created a new {@link XMLReader} because {@link #borrowXMLReader()}
+     * returned null. The reader is returned to this pool as usual once the borrower is done with it.
+     *
+     * @param xmlReader XMLReader instance created by the borrower
+     */
+    default void onXMLReaderCreated(XMLReader xmlReader) {
+    }
+
     /**
      * Returns implementation-specific {@link Properties}.
      *
@@ -52,6 +52,14 @@ public interface InstrumentationResource {
 
     Boolean getIncludeHostName();
 
+    /**
+     * @return minimum time (in milliseconds) between two notifications of a managed visitor, 0 for a notification on
+     * every visit. Defaults to 0 (no sampling) for implementations that do not override it.
+     */
+    default Long getNotificationInterval() {
+        return 0L;
+    }
+
     InstrumentationAgent getInstrumentationAgent();
 
 }
@@ -90,6 +90,14 @@ public interface MementoCaretaker {
      */
     void forget(Fragment<?> fragment);
 
+    /**
+     * Removes all saved <code>Memento</code>s. Does nothing by default. Implementations used by a recycled
+     * execution context should override it.
+     */
+    default void clear() {
+
+    }
+
     /**
      * Invokes a {@link Consumer} with a restored <code>Memento</code> and then saves the <code>Memento</code>.
      * This method offers a convenient way to aggregate and save data instead of writing:
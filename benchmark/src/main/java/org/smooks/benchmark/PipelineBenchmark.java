@@ -0,0 +1,133 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Benchmark
+ * %%
+ * Copyright (C) 2020 - 2021 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.StreamFilterType;
+import org.smooks.api.ExecutionContext;
+import org.smooks.io.NullWriter;
+import org.smooks.io.payload.JavaResult;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the pipelines built from resources: nested <code>core:smooks</code>, <code>core:delegate-reader</code>, and
+ * binding records to a {@link JavaResult}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"FLAT_RECORDS", "NAMESPACE_HEAVY"})
+    private SyntheticDocument document;
+
+    @Param({"10", "1000"})
+    private int recordCount;
+
+    private Smooks nestedSmooks;
+    private Smooks delegateReaderSmooks;
+    private Smooks javaResultSmooks;
+    private String input;
+
+    @Setup
+    public void setUp() throws IOException, SAXException {
+        nestedSmooks = new Smooks(PipelineBenchmark.class.getResourceAsStream("/nested-smooks-config.xml"));
+        delegateReaderSmooks = new Smooks(PipelineBenchmark.class.getResourceAsStream("/delegate-reader-config.xml"));
+        javaResultSmooks = new Smooks();
+        javaResultSmooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX_NG).setMaxNodeDepth(2));
+        javaResultSmooks.addVisitor(new RecordBindingVisitor(), "record");
+        input = document.generate(recordCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        nestedSmooks.close();
+        delegateReaderSmooks.close();
+        javaResultSmooks.close();
+    }
+
+    @Benchmark
+    public ExecutionContext nestedSmooks() {
+        return filterSource(nestedSmooks);
+    }
+
+    @Benchmark
+    public ExecutionContext delegateReader() {
+        return filterSource(delegateReaderSmooks);
+    }
+
+    @Benchmark
+    public JavaResult javaResult() {
+        final JavaResult javaResult = new JavaResult();
+        javaResultSmooks.filterSource(javaResultSmooks.createExecutionContext(), new StreamSource(new StringReader(input)), javaResult);
+        return javaResult;
+    }
+
+    private ExecutionContext filterSource(Smooks smooks) {
+        final ExecutionContext executionContext = smooks.createExecutionContext();
+        smooks.filterSource(executionContext, new StreamSource(new StringReader(input)), new StreamResult(new NullWriter()));
+        return executionContext;
+    }
+}
@@ -0,0 +1,136 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Benchmark
+ * %%
+ * Copyright (C) 2020 - 2021 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import java.util.Random;
+
+/**
+ * Deterministic generators of synthetic benchmark documents.
+ * <p>
+ * Every document is a <code>records</code> element holding <code>record</code> elements so that the same selectors
+ * apply whatever the shape. The same shape and record count always give the same document.
+ */
+public enum SyntheticDocument {
+
+    FLAT_RECORDS {
+        @Override
+        protected void appendRecord(StringBuilder document, int index, Random random) {
+            document.append("<record id=\"").append(index).append("\">");
+            document.append("<name>").append(word(random)).append(' ').append(word(random)).append("</name>");
+            document.append("<amount>").append(random.nextInt(100_000)).append('.').append(random.nextInt(100)).append("</amount>");
+            document.append("<date>2020-").append(1 + random.nextInt(12)).append('-').append(1 + random.nextInt(28)).append("</date>");
+            document.append("</record>");
+        }
+    },
+    DEEP_NESTING {
+        @Override
+        protected void appendRecord(StringBuilder document, int index, Random random) {
+            document.append("<record id=\"").append(index).append("\">");
+            for (int depth = 0; depth < NESTING_DEPTH; depth++) {
+                document.append("<level depth=\"").append(depth).append("\">");
+            }
+            document.append("<name>").append(word(random)).append("</name>");
+            for (int depth = 0; depth < NESTING_DEPTH; depth++) {
+                document.append("</level>");
+            }
+            document.append("</record>");
+        }
+    },
+    ATTRIBUTE_HEAVY {
+        @Override
+        protected void appendRecord(StringBuilder document, int index, Random random) {
+            document.append("<record id=\"").append(index).append('"');
+            for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+                document.append(" attribute").append(i).append("=\"").append(word(random)).append('"');
+            }
+            document.append("><name>").append(word(random)).append("</name></record>");
+        }
+    },
+    TEXT_HEAVY {
+        @Override
+        protected void appendRecord(StringBuilder document, int index, Random random) {
+            document.append("<record id=\"").append(index).append("\"><name>").append(word(random)).append("</name><description>");
+            for (int i = 0; i < TEXT_WORD_COUNT; i++) {
+                document.append(word(random)).append(i % 16 == 15 ? " &amp; " : " ");
+            }
+            document.append("</description></record>");
+        }
+    },
+    NAMESPACE_HEAVY {
+        @Override
+        protected void appendRecord(StringBuilder document, int index, Random random) {
+            document.append("<record id=\"").append(index).append('"');
+            for (int i = 0; i < NAMESPACE_COUNT; i++) {
+                document.append(" xmlns:ns").append(i).append("=\"urn:smooks:benchmark:ns").append(i).append('"');
+            }
+            document.append("><name>").append(word(random)).append("</name>");
+            for (int i = 0; i < NAMESPACE_COUNT; i++) {
+                document.append("<ns").append(i).append(":field ns").append(i).append(":code=\"").append(random.nextInt(1000)).append("\">");
+                document.append(word(random)).append("</ns").append(i).append(":field>");
+            }
+            document.append("</record>");
+        }
+    };
+
+    private static final int NESTING_DEPTH = 32;
+    private static final int ATTRIBUTE_COUNT = 20;
+    private static final int TEXT_WORD_COUNT = 200;
+    private static final int NAMESPACE_COUNT = 8;
+    private static final long SEED = 0x5EED;
+    private static final String[] WORDS = {"lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "magna"};
+
+    public String generate(int recordCount) {
+        final Random random = new Random(SEED);
+        final StringBuilder document = new StringBuilder("<records>");
+        for (int i = 0; i < recordCount; i++) {
+            appendRecord(document, i, random);
+        }
+        return document.append("</records>").toString();
+    }
+
+    protected abstract void appendRecord(StringBuilder document, int index, Random random);
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
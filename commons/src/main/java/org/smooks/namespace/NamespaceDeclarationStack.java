@@ -48,16 +48,34 @@ import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 
 import javax.xml.XMLConstants;
-import java.util.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EmptyStackException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This class is responsible for managing namespace declarations.
+ * <p/>
+ * The declarations of all open elements are held in flat prefix and URI arrays, with the index of the first
+ * declaration of each element marking where the element's declarations start. A small open addressing index counts
+ * the declarations of each prefix so that finding out whether a prefix is in scope does not scan the stack.
  *
  * @author zubairov
  */
 public class NamespaceDeclarationStack {
-    private final Stack<Map<String, String>> namespaceStack = new Stack<Map<String, String>>();
-    private final Stack<XMLReader> readerStack = new Stack<XMLReader>();
+    private final Deque<XMLReader> readerStack = new ArrayDeque<>();
+
+    private String[] prefixes = new String[16];
+    private String[] uris = new String[16];
+    private int declarationCount;
+    private int[] elementMarks = new int[16];
+    private int elementDepth;
+
+    private String[] prefixIndexKeys = new String[16];
+    private int[] prefixIndexCounts = new int[16];
+    private int prefixIndexSize;
 
     public NamespaceDeclarationStack() {
     }
@@ -76,17 +94,20 @@ public class NamespaceDeclarationStack {
      * @throws SAXException if an error is encountered when attempting to push
      *                      the element to the stack.
      */
-    @SuppressWarnings({"unchecked", "UnusedReturnValue"})
+    @SuppressWarnings("UnusedReturnValue")
     public Attributes pushNamespaces(String qName, String namespace, Attributes attributes) throws SAXException {
+        if (elementDepth == elementMarks.length) {
+            elementMarks = Arrays.copyOf(elementMarks, elementMarks.length * 2);
+        }
+        final int elementMark = declarationCount;
+        elementMarks[elementDepth++] = elementMark;
+
         if (attributes == null || attributes.getLength() == 0) {
             if (namespace == null || XMLConstants.NULL_NS_URI.equals(namespace)) {
-                namespaceStack.push(Collections.EMPTY_MAP);
                 return attributes;
             }
         }
 
-        Map<String, String> nsToURI = Collections.EMPTY_MAP;
-
         // Gather namespace declarations from the attributes
         if (attributes != null) {
             for (int i = 0; i < attributes.getLength(); i++) {
@@ -94,52 +115,33 @@ public class NamespaceDeclarationStack {
 
                 if (attrNS != null && attrNS.equals(XMLConstants.XMLNS_ATTRIBUTE_NS_URI)) {
                     // Add prefix to the list of declared namespaces
-                    if (nsToURI == Collections.EMPTY_MAP) {
-                        nsToURI = new LinkedHashMap<String, String>();
-                    }
-
                     String localName = attributes.getLocalName(i);
                     if (localName.equals(XMLConstants.XMLNS_ATTRIBUTE)) {
-                        nsToURI.put(XMLConstants.DEFAULT_NS_PREFIX, attributes.getValue(i));
+                        declare(XMLConstants.DEFAULT_NS_PREFIX, attributes.getValue(i), elementMark);
                     } else {
-                        nsToURI.put(localName, attributes.getValue(i));
+                        declare(localName, attributes.getValue(i), elementMark);
                     }
                 }
             }
         }
 
         if (!XMLConstants.NULL_NS_URI.equals(namespace)) {
-            String[] qNameTokens = qName.split(":");
-            String prefix;
-
-            if (qNameTokens.length == 1) {
-                prefix = XMLConstants.DEFAULT_NS_PREFIX;
-            } else {
-                prefix = qNameTokens[0];
-            }
-
-            if (!prefixAlreadyDeclared(prefix) && !nsToURI.containsKey(prefix)) {
-                if (nsToURI == Collections.EMPTY_MAP) {
-                    nsToURI = new LinkedHashMap<String, String>();
-                }
-                nsToURI.put(prefix, namespace);
+            String prefix = getPrefixOf(qName);
+            if (getPrefixCount(prefix) == 0) {
+                declare(prefix, namespace, elementMark);
             }
         }
 
-        if (!nsToURI.isEmpty() && !readerStack.isEmpty()) {
-            Set<Map.Entry<String, String>> namespaces = nsToURI.entrySet();
-
+        if (declarationCount > elementMark && !readerStack.isEmpty()) {
             // Now call start prefixes if namespaces are not empty
             ContentHandler contentHandler = readerStack.peek().getContentHandler();
             if (contentHandler != null) {
-                for (Map.Entry<String, String> ns : namespaces) {
-                    contentHandler.startPrefixMapping(ns.getKey(), ns.getValue());
+                for (int i = elementMark; i < declarationCount; i++) {
+                    contentHandler.startPrefixMapping(prefixes[i], uris[i]);
                 }
             }
         }
 
-        namespaceStack.push(nsToURI);
-
         return attributes;
     }
 
@@ -151,18 +153,26 @@ public class NamespaceDeclarationStack {
      *                      element out of the stack.
      */
     public void popNamespaces() throws SAXException {
-        Map<String, String> namespaces = namespaceStack.pop();
-
-        if (!namespaces.isEmpty() && !readerStack.isEmpty()) {
-            Set<String> nsPrefixes = namespaces.keySet();
+        if (elementDepth == 0) {
+            throw new EmptyStackException();
+        }
+        final int elementMark = elementMarks[--elementDepth];
 
+        if (declarationCount > elementMark && !readerStack.isEmpty()) {
             ContentHandler contentHandler = readerStack.peek().getContentHandler();
             if (contentHandler != null) {
-                for (String prefix : nsPrefixes) {
-                    contentHandler.endPrefixMapping(prefix);
+                for (int i = elementMark; i < declarationCount; i++) {
+                    contentHandler.endPrefixMapping(prefixes[i]);
                 }
             }
         }
+
+        for (int i = elementMark; i < declarationCount; i++) {
+            prefixIndexCounts[findPrefixSlot(prefixes[i])]--;
+            prefixes[i] = null;
+            uris[i] = null;
+        }
+        declarationCount = elementMark;
     }
 
     /**
@@ -185,19 +195,14 @@ public class NamespaceDeclarationStack {
     }
 
     public String getPrefix(String uri) {
-        int stackDepth = namespaceStack.size();
-
-        for (int i = stackDepth - 1; i >= 0; i--) {
-            Map<String, String> nsMap = namespaceStack.get(i);
-
-            if (!nsMap.isEmpty()) {
-                Set<Map.Entry<String, String>> nsEntries = nsMap.entrySet();
-                for (Map.Entry<String, String> nsEntry : nsEntries) {
-                    if (nsEntry.getValue().equals(uri)) {
-                        return nsEntry.getKey();
-                    }
+        int elementEnd = declarationCount;
+        for (int depth = elementDepth - 1; depth >= 0; depth--) {
+            for (int i = elementMarks[depth]; i < elementEnd; i++) {
+                if (uris[i] != null && uris[i].equals(uri)) {
+                    return prefixes[i];
                 }
             }
+            elementEnd = elementMarks[depth];
         }
 
         return null;
@@ -205,33 +210,95 @@ public class NamespaceDeclarationStack {
 
     public Map<String, String> getActiveNamespaces() {
         Map<String, String> activeNamespaces = new HashMap<String, String>();
-        int stackDepth = namespaceStack.size();
 
-        for (int i = stackDepth - 1; i >= 0; i--) {
-            Map<String, String> nsMap = namespaceStack.get(i);
+        // the outermost declaration of a prefix takes precedence
+        for (int i = 0; i < declarationCount; i++) {
+            activeNamespaces.putIfAbsent(prefixes[i], uris[i]);
+        }
 
-            if (!nsMap.isEmpty()) {
-                activeNamespaces.putAll(nsMap);
+        return activeNamespaces;
+    }
+
+    /**
+     * Declares a prefix on the current element. A prefix declared twice on the same element keeps its first position
+     * but takes the URI of its last declaration.
+     */
+    private void declare(String prefix, String uri, int elementMark) {
+        for (int i = elementMark; i < declarationCount; i++) {
+            if (prefixes[i].equals(prefix)) {
+                uris[i] = uri;
+                return;
             }
         }
 
-        return activeNamespaces;
+        if (declarationCount == prefixes.length) {
+            prefixes = Arrays.copyOf(prefixes, prefixes.length * 2);
+            uris = Arrays.copyOf(uris, uris.length * 2);
+        }
+        prefixes[declarationCount] = prefix;
+        uris[declarationCount] = uri;
+        declarationCount++;
+
+        int slot = findPrefixSlot(prefix);
+        if (prefixIndexKeys[slot] == null) {
+            if ((prefixIndexSize + 1) * 2 > prefixIndexKeys.length) {
+                resizePrefixIndex();
+                slot = findPrefixSlot(prefix);
+            }
+            prefixIndexKeys[slot] = prefix;
+            prefixIndexSize++;
+        }
+        prefixIndexCounts[slot]++;
     }
 
     /**
-     * Checks if a namespace with a given prefix is already declared higher in
-     * the stack.
-     *
-     * @param prefix The prefix to check.
-     * @return {@literal true} if a namespace with the specified prefix is
-     * already declared within the stack.
+     * Gets the number of open declarations of a prefix. Prefixes stay in the index once declared, so their slots are
+     * never vacated and a lookup stops at the first empty slot.
      */
-    private boolean prefixAlreadyDeclared(String prefix) {
-        for (Map<String, String> set : namespaceStack) {
-            if (set.containsKey(prefix)) {
-                return true;
+    private int getPrefixCount(String prefix) {
+        final int slot = findPrefixSlot(prefix);
+        return prefixIndexKeys[slot] == null ? 0 : prefixIndexCounts[slot];
+    }
+
+    private int findPrefixSlot(String prefix) {
+        final int mask = prefixIndexKeys.length - 1;
+        final int hash = prefix.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (prefixIndexKeys[slot] != null && prefixIndexKeys[slot] != prefix && !prefixIndexKeys[slot].equals(prefix)) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void resizePrefixIndex() {
+        final String[] keys = prefixIndexKeys;
+        final int[] counts = prefixIndexCounts;
+        prefixIndexKeys = new String[keys.length * 2];
+        prefixIndexCounts = new int[keys.length * 2];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                final int slot = findPrefixSlot(keys[i]);
+                prefixIndexKeys[slot] = keys[i];
+                prefixIndexCounts[slot] = counts[i];
             }
         }
-        return false;
+    }
+
+    /**
+     * Gets the prefix of an element QName the way splitting it on colons would, where a name whose colons are only
+     * trailing has no prefix.
+     */
+    private static String getPrefixOf(String qName) {
+        final int colonIndex = qName.indexOf(':');
+        if (colonIndex != -1) {
+            for (int i = colonIndex + 1; i < qName.length(); i++) {
+                if (qName.charAt(i) != ':') {
+                    return qName.substring(0, colonIndex);
+                }
+            }
+        }
+
+        return XMLConstants.DEFAULT_NS_PREFIX;
     }
 }
@@ -69,7 +69,9 @@ import javax.xml.xpath.XPathFactory;
 import java.io.*;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * XMl utility methods.
@@ -107,6 +109,8 @@ public final class XmlUtils {
     private static final String COMMENT_END = "-->";
     private static final String CDATA_START = "<![CDATA[";
     private static final String CDATA_END = "]]>";
+    private static final int MAX_INTERNED_NAMESPACE_URIS = 1024;
+    private static final Map<String, String> INTERNED_NAMESPACE_URIS = new ConcurrentHashMap<>();
 
     private XmlUtils() {
 
@@ -721,46 +725,112 @@ public final class XmlUtils {
                 || nodeType == Node.TEXT_NODE;
     }
 
+    /**
+     * Writes the supplied characters to the writer, escaping the characters which cannot appear as-is in XML text.
+     * Runs of characters needing no escaping are written in bulk.
+     */
     public static void encodeTextValue(char[] characters, int offset, int length, Writer writer) throws IOException {
+        int runStart = offset;
         for (int i = offset; i < offset + length; i++) {
-            char c = characters[i];
-            switch (c) {
-                case '<':
-                    writer.write(LT, 0, LT.length);
-                    break;
-                case '>':
-                    writer.write(GT, 0, GT.length);
-                    break;
-                case '&':
-                    writer.write(AMP, 0, AMP.length);
-                    break;
-                default:
-                    writer.write(c);
+            final char[] entity = getTextEntity(characters[i]);
+            if (entity != null) {
+                if (i > runStart) {
+                    writer.write(characters, runStart, i - runStart);
+                }
+                writer.write(entity, 0, entity.length);
+                runStart = i + 1;
+            }
+        }
+        if (offset + length > runStart) {
+            writer.write(characters, runStart, offset + length - runStart);
+        }
+    }
+
+    /**
+     * Same as {@link #encodeTextValue(char[], int, int, Writer)} but reads from a {@link CharSequence}, sparing the
+     * caller a copy of a <code>String</code> into a <code>char[]</code>.
+     */
+    public static void encodeTextValue(CharSequence characters, Writer writer) throws IOException {
+        int runStart = 0;
+        for (int i = 0; i < characters.length(); i++) {
+            final char[] entity = getTextEntity(characters.charAt(i));
+            if (entity != null) {
+                writeRun(characters, runStart, i, writer);
+                writer.write(entity, 0, entity.length);
+                runStart = i + 1;
             }
         }
+        writeRun(characters, runStart, characters.length(), writer);
     }
 
+    /**
+     * Writes the supplied characters to the writer, escaping the characters which cannot appear as-is in an XML
+     * attribute value. Runs of characters needing no escaping are written in bulk.
+     */
     public static void encodeAttributeValue(char[] characters, int offset, int length, Writer writer) throws IOException {
+        int runStart = offset;
         for (int i = offset; i < offset + length; i++) {
-            char c = characters[i];
-            switch (c) {
-                case '<':
-                    writer.write(LT, 0, LT.length);
-                    break;
-                case '>':
-                    writer.write(GT, 0, GT.length);
-                    break;
-                case '&':
-                    writer.write(AMP, 0, AMP.length);
-                    break;
-                case '\'':
-                    writer.write(APOS, 0, APOS.length);
-                    break;
-                case '\"':
-                    writer.write(QUOT, 0, QUOT.length);
-                    break;
-                default:
-                    writer.write(c);
+            final char[] entity = getAttributeEntity(characters[i]);
+            if (entity != null) {
+                if (i > runStart) {
+                    writer.write(characters, runStart, i - runStart);
+                }
+                writer.write(entity, 0, entity.length);
+                runStart = i + 1;
+            }
+        }
+        if (offset + length > runStart) {
+            writer.write(characters, runStart, offset + length - runStart);
+        }
+    }
+
+    /**
+     * Same as {@link #encodeAttributeValue(char[], int, int, Writer)} but reads from a {@link CharSequence}, sparing
+     * the caller a copy of a <code>String</code> into a <code>char[]</code>.
+     */
+    public static void encodeAttributeValue(CharSequence characters, Writer writer) throws IOException {
+        int runStart = 0;
+        for (int i = 0; i < characters.length(); i++) {
+            final char[] entity = getAttributeEntity(characters.charAt(i));
+            if (entity != null) {
+                writeRun(characters, runStart, i, writer);
+                writer.write(entity, 0, entity.length);
+                runStart = i + 1;
+            }
+        }
+        writeRun(characters, runStart, characters.length(), writer);
+    }
+
+    private static char[] getTextEntity(char c) {
+        switch (c) {
+            case '<':
+                return LT;
+            case '>':
+                return GT;
+            case '&':
+                return AMP;
+            default:
+                return null;
+        }
+    }
+
+    private static char[] getAttributeEntity(char c) {
+        switch (c) {
+            case '\'':
+                return APOS;
+            case '\"':
+                return QUOT;
+            default:
+                return getTextEntity(c);
+        }
+    }
+
+    private static void writeRun(CharSequence characters, int start, int end, Writer writer) throws IOException {
+        if (start < end) {
+            if (characters instanceof String) {
+                writer.write((String) characters, start, end - start);
+            } else {
+                writer.append(characters, start, end);
             }
         }
     }
@@ -831,11 +901,11 @@ public final class XmlUtils {
                 String prefix = qName.substring(0, colonIndex);
                 String qNameLocalName = qName.substring(colonIndex + 1);
 
-                return new QName(namespaceURI.intern(), qNameLocalName, prefix);
+                return new QName(internNamespaceURI(namespaceURI), qNameLocalName, prefix);
             } else if (localName != null && !localName.isEmpty()) {
-                return new QName(namespaceURI, localName);
+                return new QName(internNamespaceURI(namespaceURI), localName);
             } else if (qName != null && !qName.isEmpty()) {
-                return new QName(namespaceURI, qName);
+                return new QName(internNamespaceURI(namespaceURI), qName);
             } else {
                 throwInvalidNameException(namespaceURI, localName, qName);
             }
@@ -848,6 +918,25 @@ public final class XmlUtils {
         return null;
     }
 
+    /**
+     * Interns a namespace URI. A document repeats a handful of namespace URIs on most of its elements, so the URIs
+     * interned so far are looked up in a map rather than in the JVM's string table.
+     */
+    private static String internNamespaceURI(String namespaceURI) {
+        if (namespaceURI.isEmpty()) {
+            return XMLConstants.NULL_NS_URI;
+        }
+        String internedNamespaceURI = INTERNED_NAMESPACE_URIS.get(namespaceURI);
+        if (internedNamespaceURI == null) {
+            internedNamespaceURI = namespaceURI.intern();
+            if (INTERNED_NAMESPACE_URIS.size() < MAX_INTERNED_NAMESPACE_URIS) {
+                INTERNED_NAMESPACE_URIS.put(internedNamespaceURI, internedNamespaceURI);
+            }
+        }
+
+        return internedNamespaceURI;
+    }
+
     private static void throwInvalidNameException(String namespaceURI, String localName, String qName) {
         throw new IllegalArgumentException("Invalid QName: namespaceURI='" + namespaceURI + "', localName='" + localName + "', qName='" + qName + "'.");
     }
@@ -52,13 +52,24 @@ import org.xml.sax.SAXException;
 
 import javax.xml.XMLConstants;
 import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
 
 /**
  * XSD DOM Validator.
@@ -68,11 +79,16 @@ import java.util.List;
  * classpath.  It uses the namespace path (URI.getPath()), prepending it with "/META-INF"
  * to perform a classpath resource lookup for the XSD i.e. the XSDs must be provided on
  * the classpath below the "META-INF" package.
+ * <p/>
+ * The {@link Schema} compiled for a set of namespaces is cached process-wide, per
+ * {@link ClassLoader}, and reused by every validator resolving the same namespaces.
  *
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
 public class XsdDOMValidator extends XsdValidator {
 
+    private static final Map<ClassLoader, Map<Set<String>, Schema>> SCHEMA_CACHE = new WeakHashMap<>();
+
     private final Document document;
     private URI defaultNamespace;
     private final List<URI> namespaces = new ArrayList<>();
@@ -93,96 +109,6 @@ public class XsdDOMValidator extends XsdValidator {
 
         // Get the full namespace list...
         namespaces.addAll(collectNamespaces(document.getDocumentElement()));
-
-        this.setSchemaSourceResolver((type, namespaceURI, publicId, systemId, baseURI) -> new LSInput() {
-            @Override
-            public Reader getCharacterStream() {
-                return null;
-            }
-
-            @Override
-            public void setCharacterStream(Reader characterStream) {
-
-            }
-
-            @Override
-            public InputStream getByteStream() {
-                return null;
-            }
-
-            @Override
-            public void setByteStream(InputStream byteStream) {
-
-            }
-
-            @Override
-            public String getStringData() {
-                if (namespaceURI != null) {
-                    try {
-                        return getNamespaceSource(new URI(namespaceURI));
-                    } catch (URISyntaxException e) {
-                        throw new SmooksException(e.getMessage(), e);
-                    }
-                } else {
-                    return null;
-                }
-            }
-
-            @Override
-            public void setStringData(String stringData) {
-
-            }
-
-            @Override
-            public String getSystemId() {
-                return null;
-            }
-
-            @Override
-            public void setSystemId(String systemId) {
-
-            }
-
-            @Override
-            public String getPublicId() {
-                return null;
-            }
-
-            @Override
-            public void setPublicId(String publicId) {
-
-            }
-
-            @Override
-            public String getBaseURI() {
-                return null;
-            }
-
-            @Override
-            public void setBaseURI(String baseURI) {
-
-            }
-
-            @Override
-            public String getEncoding() {
-                return null;
-            }
-
-            @Override
-            public void setEncoding(String encoding) {
-
-            }
-
-            @Override
-            public boolean getCertifiedText() {
-                return false;
-            }
-
-            @Override
-            public void setCertifiedText(boolean certifiedText) {
-
-            }
-        });
     }
 
     public URI getDefaultNamespace() {
@@ -200,9 +126,21 @@ public class XsdDOMValidator extends XsdValidator {
      * @throws IOException  Error reading the XSD Sources.
      */
     public void validate() throws SAXException, IOException {
+        if (getSchema() == null) {
+            setSchema(getNamespacesSchema());
+        }
         validate(new DOMSource(document));
     }
 
+    /**
+     * Clear the process-wide cache of compiled namespace schemas.
+     */
+    public static void clearSchemaCache() {
+        synchronized (SCHEMA_CACHE) {
+            SCHEMA_CACHE.clear();
+        }
+    }
+
     /**
      * Get the default namespace associated with the supplied element.
      *
@@ -224,6 +162,79 @@ public class XsdDOMValidator extends XsdValidator {
         return null;
     }
 
+    private Schema getNamespacesSchema() throws SAXException {
+        Set<String> namespaceKey = new TreeSet<>();
+        for (URI namespace : namespaces) {
+            namespaceKey.add(namespace.toString());
+        }
+        namespaceKey = Collections.unmodifiableSet(namespaceKey);
+
+        if (isSchemaFactoryInstalled()) {
+            return compileSchema(namespaceKey);
+        }
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = getClass().getClassLoader();
+        }
+
+        Schema schema;
+        synchronized (SCHEMA_CACHE) {
+            schema = SCHEMA_CACHE.getOrDefault(classLoader, Collections.emptyMap()).get(namespaceKey);
+        }
+        if (schema == null) {
+            // Compiled outside the lock. Racing threads may compile the same schema but only the first one is kept...
+            Schema compiledSchema = compileSchema(namespaceKey);
+            synchronized (SCHEMA_CACHE) {
+                schema = SCHEMA_CACHE.computeIfAbsent(classLoader, k -> new HashMap<>()).putIfAbsent(namespaceKey, compiledSchema);
+            }
+            if (schema == null) {
+                schema = compiledSchema;
+            }
+        }
+
+        return schema;
+    }
+
+    private Schema compileSchema(Set<String> namespaceKey) throws SAXException {
+        Map<String, String> namespaceSources = new LinkedHashMap<>();
+        StringBuilder importingSchema = new StringBuilder("<xs:schema xmlns:xs=\"").append(XMLConstants.W3C_XML_SCHEMA_NS_URI).append("\">");
+
+        for (String namespace : namespaceKey) {
+            String namespaceSource;
+            try {
+                namespaceSource = getNamespaceSource(new URI(namespace));
+            } catch (URISyntaxException e) {
+                throw new SmooksException(e.getMessage(), e);
+            }
+            if (namespaceSource != null) {
+                namespaceSources.put(namespace, namespaceSource);
+                importingSchema.append("<xs:import namespace=\"").append(namespace.replace("&", "&amp;")).append("\"/>");
+            }
+        }
+        importingSchema.append("</xs:schema>");
+
+        // Every namespace XSD, including those imported by other XSDs, is resolved through its namespace...
+        SchemaFactory schemaFactory = newSchemaFactory();
+        schemaFactory.setResourceResolver((type, namespaceURI, publicId, systemId, baseURI) -> {
+            if (namespaceURI == null) {
+                return null;
+            }
+            String namespaceSource = namespaceSources.get(namespaceURI);
+            if (namespaceSource == null) {
+                try {
+                    namespaceSource = getNamespaceSource(new URI(namespaceURI));
+                } catch (URISyntaxException e) {
+                    throw new SmooksException(e.getMessage(), e);
+                }
+            }
+
+            return namespaceSource != null ? new NamespaceSourceInput(namespaceURI, namespaceSource) : null;
+        });
+
+        return schemaFactory.newSchema(new StreamSource(new StringReader(importingSchema.toString())));
+    }
+
     private List<URI> collectNamespaces(Element element) throws SAXException {
         List<URI> namespaceSources = new ArrayList<>();
         NamedNodeMap attributes = element.getAttributes();
@@ -256,7 +267,7 @@ public class XsdDOMValidator extends XsdValidator {
     }
 
     private String getNamespaceSource(URI namespace) {
-        if (namespace.getPath().length() > 0) {
+        if (namespace.getPath() != null && namespace.getPath().length() > 0) {
             String resourcePath = "/META-INF" + namespace.getPath();
             InputStream xsdStream = ClassUtils.getResourceAsStream(resourcePath, getClass());
 
@@ -273,4 +284,95 @@ public class XsdDOMValidator extends XsdValidator {
             return null;
         }
     }
+
+    private static class NamespaceSourceInput implements LSInput {
+
+        private final String namespace;
+        private final String stringData;
+
+        private NamespaceSourceInput(String namespace, String stringData) {
+            this.namespace = namespace;
+            this.stringData = stringData;
+        }
+
+        @Override
+        public Reader getCharacterStream() {
+            return null;
+        }
+
+        @Override
+        public void setCharacterStream(Reader characterStream) {
+
+        }
+
+        @Override
+        public InputStream getByteStream() {
+            return null;
+        }
+
+        @Override
+        public void setByteStream(InputStream byteStream) {
+
+        }
+
+        @Override
+        public String getStringData() {
+            return stringData;
+        }
+
+        @Override
+        public void setStringData(String stringData) {
+
+        }
+
+        @Override
+        public String getSystemId() {
+            return namespace;
+        }
+
+        @Override
+        public void setSystemId(String systemId) {
+
+        }
+
+        @Override
+        public String getPublicId() {
+            return null;
+        }
+
+        @Override
+        public void setPublicId(String publicId) {
+
+        }
+
+        @Override
+        public String getBaseURI() {
+            return null;
+        }
+
+        @Override
+        public void setBaseURI(String baseURI) {
+
+        }
+
+        @Override
+        public String getEncoding() {
+            return null;
+        }
+
+        @Override
+        public void setEncoding(String encoding) {
+
+        }
+
+        @Override
+        public boolean getCertifiedText() {
+            return false;
+        }
+
+        @Override
+        public void setCertifiedText(boolean certifiedText) {
+
+        }
+    }
 }
@@ -135,13 +135,33 @@ public class XsdValidator {
         validator.validate(source);
     }
 
+    /**
+     * Set an already compiled {@link Schema}.
+     *
+     * @param schema The compiled schema.
+     */
+    protected void setSchema(Schema schema) {
+        assertSchemaNotInitialized();
+
+        AssertArgument.isNotNull(schema, "schema");
+        this.schema = schema;
+    }
+
+    protected Schema getSchema() {
+        return schema;
+    }
+
+    protected boolean isSchemaFactoryInstalled() {
+        return installedSchemaFactory != null;
+    }
+
     private void assertSchemaNotInitialized() {
         if (this.schema != null) {
             throw new IllegalStateException("Schema already initialised.");
         }
     }
 
-    private SchemaFactory newSchemaFactory() {
+    protected SchemaFactory newSchemaFactory() {
         if (installedSchemaFactory != null) {
             return installedSchemaFactory;
         } else {
@@ -51,8 +51,10 @@ import javax.xml.XMLConstants;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 
 public class NamespaceDeclarationStackTestCase {
@@ -123,6 +125,47 @@ public class NamespaceDeclarationStackTestCase {
         assertEquals("[start:b:nsb, start:a:nsa, end:b, end:a]", handler.history.toString());
     }
 
+    @Test
+    public void testRedeclaredPrefix() throws Exception {
+        AttributesImpl attrs = new AttributesImpl();
+        attrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "a", "xmlns:a", "CDATA", "nsa2");
+        attrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns", "xmlns", "CDATA", "nsd");
+        MockContentHandler handler = new MockContentHandler();
+        NamespaceDeclarationStack nds = new NamespaceDeclarationStack();
+        nds.pushReader(new MockXMLReader(handler));
+        nds.pushNamespaces("a:element", "nsa", null);
+        nds.pushNamespaces("a:element", "nsa2", attrs);
+        assertEquals("a", nds.getPrefix("nsa2"));
+        assertEquals("a", nds.getPrefix("nsa"));
+        assertEquals("", nds.getPrefix("nsd"));
+        assertEquals("{=nsd, a=nsa}", new TreeMap<>(nds.getActiveNamespaces()).toString());
+        nds.popNamespaces();
+        assertNull(nds.getPrefix("nsd"));
+        nds.pushNamespaces("element", "nsd", null);
+        nds.popNamespaces();
+        nds.popNamespaces();
+        assertEquals("[start:a:nsa, start:a:nsa2, start::nsd, end:a, end:, start::nsd, end:, end:a]", handler.history.toString());
+    }
+
+    @Test
+    public void testManyPrefixes() throws Exception {
+        MockContentHandler handler = new MockContentHandler();
+        NamespaceDeclarationStack nds = new NamespaceDeclarationStack();
+        nds.pushReader(new MockXMLReader(handler));
+        for (int i = 0; i < 100; i++) {
+            nds.pushNamespaces("p" + i + ":element", "ns" + i, null);
+            nds.pushNamespaces("p" + i + ":element", "ns" + i, null);
+        }
+        assertEquals("p42", nds.getPrefix("ns42"));
+        assertEquals(100, nds.getActiveNamespaces().size());
+        for (int i = 0; i < 200; i++) {
+            nds.popNamespaces();
+        }
+        assertEquals(200, handler.history.size());
+        assertEquals("end:p0", handler.history.get(199));
+        assertNull(nds.getPrefix("ns0"));
+    }
+
     private class MockXMLReader implements XMLReader {
 
         private ContentHandler contentHandler;
@@ -59,6 +59,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -691,4 +692,41 @@ public class XmlUtilTestCase {
 
         return stringBuf.toString();
     }
+
+    @Test
+    public void testEncodeTextValue() throws IOException {
+        StringWriter charArrayWriter = new StringWriter();
+        char[] characters = "x<a> & \"b\"<".toCharArray();
+        XmlUtils.encodeTextValue(characters, 1, characters.length - 1, charArrayWriter);
+        assertEquals("&lt;a&gt; &amp; \"b\"&lt;", charArrayWriter.toString());
+
+        StringWriter stringWriter = new StringWriter();
+        XmlUtils.encodeTextValue("<a> & \"b\"<", stringWriter);
+        assertEquals("&lt;a&gt; &amp; \"b\"&lt;", stringWriter.toString());
+
+        StringWriter charSequenceWriter = new StringWriter();
+        XmlUtils.encodeTextValue(new StringBuilder("plain text"), charSequenceWriter);
+        assertEquals("plain text", charSequenceWriter.toString());
+    }
+
+    @Test
+    public void testEncodeAttributeValue() throws IOException {
+        StringWriter charArrayWriter = new StringWriter();
+        char[] characters = "'a' < \"b\" & c".toCharArray();
+        XmlUtils.encodeAttributeValue(characters, 0, characters.length, charArrayWriter);
+        assertEquals("&apos;a&apos; &lt; &quot;b&quot; &amp; c", charArrayWriter.toString());
+
+        StringWriter charSequenceWriter = new StringWriter();
+        XmlUtils.encodeAttributeValue(new StringBuilder("'a' < \"b\" & c"), charSequenceWriter);
+        assertEquals("&apos;a&apos; &lt; &quot;b&quot; &amp; c", charSequenceWriter.toString());
+    }
+
+    @Test
+    public void testToQNameInternsNamespaceURI() {
+        String namespaceURI = new StringBuilder("urn:").append('a').toString();
+
+        assertSame(namespaceURI.intern(), XmlUtils.toQName(namespaceURI, "b", "a:b").getNamespaceURI());
+        assertSame(namespaceURI.intern(), XmlUtils.toQName(new String(namespaceURI), "b", "b").getNamespaceURI());
+        assertEquals("a", XmlUtils.toQName(namespaceURI, "b", "a:b").getPrefix());
+    }
 }
@@ -76,6 +76,16 @@ public class XsdDOMValidatorTestCase {
         validator.validate();
     }
 
+    @Test
+    public void test_validation_schema_cached() throws IOException, SAXException, ParserConfigurationException {
+        XsdDOMValidator validatorA = new XsdDOMValidator(XmlUtils.parseStream(getClass().getResourceAsStream("xsdDomValidator-test-01.xml")));
+        XsdDOMValidator validatorB = new XsdDOMValidator(XmlUtils.parseStream(getClass().getResourceAsStream("xsdDomValidator-test-01.xml")));
+
+        validatorA.validate();
+        validatorB.validate();
+        assertSame(validatorA.getSchema(), validatorB.getSchema());
+    }
+
     @Test
     public void test_validation_invaliddoc() throws IOException, SAXException, ParserConfigurationException {
         Document document = XmlUtils.parseStream(getClass().getResourceAsStream("xsdDomValidator-test-02.xml"));
@@ -44,6 +44,7 @@ package org.smooks;
 
 import org.smooks.api.delivery.Filter;
 import org.smooks.engine.resource.config.ParameterAccessor;
+import org.smooks.io.FlushPolicy;
 
 /**
  * Smooks filter settings for programmatic configuration of the {@link Smooks} instance.
@@ -60,10 +61,15 @@ public class FilterSettings {
     private boolean defaultSerializationOn = true;
     private boolean terminateOnException = true;
     private boolean maintainElementStack = true;
+    private boolean lazyElementStack = false;
+    private boolean passthroughSerialization = false;
     private boolean closeSource = true;
     private boolean closeResult = true;
     private int readerPoolSize;
+    private FlushPolicy flushPolicy = FlushPolicy.ELEMENT;
+    private int flushThreshold = 8192;
     private int maxNodeDepth = 1;
+    private boolean slottedMementoCaretaker;
 
     public FilterSettings() {
     }
@@ -111,6 +117,18 @@ public class FilterSettings {
         return this;
     }
 
+    public FilterSettings setLazyElementStack(boolean lazyElementStack) {
+        assertNonStaticDecl();
+        this.lazyElementStack = lazyElementStack;
+        return this;
+    }
+
+    public FilterSettings setPassthroughSerialization(boolean passthroughSerialization) {
+        assertNonStaticDecl();
+        this.passthroughSerialization = passthroughSerialization;
+        return this;
+    }
+
     public FilterSettings setCloseSource(boolean closeSource) {
         assertNonStaticDecl();
         this.closeSource = closeSource;
@@ -129,12 +147,30 @@ public class FilterSettings {
         return this;
     }
 
+    public FilterSettings setFlushPolicy(FlushPolicy flushPolicy) {
+        assertNonStaticDecl();
+        this.flushPolicy = flushPolicy;
+        return this;
+    }
+
+    public FilterSettings setFlushThreshold(int flushThreshold) {
+        assertNonStaticDecl();
+        this.flushThreshold = flushThreshold;
+        return this;
+    }
+
     public FilterSettings setMaxNodeDepth(final int maxNodeDepth) {
         assertNonStaticDecl();
         this.maxNodeDepth = maxNodeDepth;
         return this;
     }
 
+    public FilterSettings setSlottedMementoCaretaker(boolean slottedMementoCaretaker) {
+        assertNonStaticDecl();
+        this.slottedMementoCaretaker = slottedMementoCaretaker;
+        return this;
+    }
+
     protected void applySettings(Smooks smooks) {
         // Remove the old params...
         ParameterAccessor.removeParameter(Filter.STREAM_FILTER_TYPE, smooks);
@@ -142,10 +178,15 @@ public class FilterSettings {
         ParameterAccessor.removeParameter(Filter.DEFAULT_SERIALIZATION_ON, smooks);
         ParameterAccessor.removeParameter(Filter.TERMINATE_ON_VISITOR_EXCEPTION, smooks);
         ParameterAccessor.removeParameter(Filter.MAINTAIN_ELEMENT_STACK, smooks);
+        ParameterAccessor.removeParameter(Filter.LAZY_ELEMENT_STACK, smooks);
+        ParameterAccessor.removeParameter(Filter.PASSTHROUGH_SERIALIZATION, smooks);
         ParameterAccessor.removeParameter(Filter.CLOSE_SOURCE, smooks);
         ParameterAccessor.removeParameter(Filter.CLOSE_RESULT, smooks);
         ParameterAccessor.removeParameter(Filter.READER_POOL_SIZE, smooks);
+        ParameterAccessor.removeParameter(Filter.FLUSH_POLICY, smooks);
+        ParameterAccessor.removeParameter(Filter.FLUSH_THRESHOLD, smooks);
         ParameterAccessor.removeParameter(Filter.MAX_NODE_DEPTH, smooks);
+        ParameterAccessor.removeParameter(Filter.SLOTTED_MEMENTO_CARETAKER, smooks);
 
         // Set the params...
         ParameterAccessor.setParameter(Filter.STREAM_FILTER_TYPE, filterType.toString(), smooks);
@@ -153,10 +194,15 @@ public class FilterSettings {
         ParameterAccessor.setParameter(Filter.DEFAULT_SERIALIZATION_ON, Boolean.toString(defaultSerializationOn), smooks);
         ParameterAccessor.setParameter(Filter.TERMINATE_ON_VISITOR_EXCEPTION, Boolean.toString(terminateOnException), smooks);
         ParameterAccessor.setParameter(Filter.MAINTAIN_ELEMENT_STACK, Boolean.toString(maintainElementStack), smooks);
+        ParameterAccessor.setParameter(Filter.LAZY_ELEMENT_STACK, Boolean.toString(lazyElementStack), smooks);
+        ParameterAccessor.setParameter(Filter.PASSTHROUGH_SERIALIZATION, Boolean.toString(passthroughSerialization), smooks);
         ParameterAccessor.setParameter(Filter.CLOSE_SOURCE, Boolean.toString(closeSource), smooks);
         ParameterAccessor.setParameter(Filter.CLOSE_RESULT, Boolean.toString(closeResult), smooks);
         ParameterAccessor.setParameter(Filter.READER_POOL_SIZE, Integer.toString(readerPoolSize), smooks);
+        ParameterAccessor.setParameter(Filter.FLUSH_POLICY, flushPolicy.toString(), smooks);
+        ParameterAccessor.setParameter(Filter.FLUSH_THRESHOLD, Integer.toString(flushThreshold), smooks);
         ParameterAccessor.setParameter(Filter.MAX_NODE_DEPTH, Integer.toString(maxNodeDepth), smooks);
+        ParameterAccessor.setParameter(Filter.SLOTTED_MEMENTO_CARETAKER, Boolean.toString(slottedMementoCaretaker), smooks);
     }
 
     private void assertNonStaticDecl() {
@@ -52,6 +52,7 @@ import org.smooks.api.SmooksException;
 import org.smooks.api.TypedMap;
 import org.smooks.api.bean.context.BeanContext;
 import org.smooks.api.bean.lifecycle.BeanContextLifecycleObserver;
+import org.smooks.api.bean.lifecycle.BeanLifecycle;
 import org.smooks.api.delivery.ContentDeliveryConfig;
 import org.smooks.api.delivery.ContentHandler;
 import org.smooks.api.delivery.ContentHandlerBinding;
@@ -85,6 +86,7 @@ import org.smooks.io.payload.Exports;
 import org.smooks.io.payload.FilterResult;
 import org.smooks.io.payload.FilterSource;
 import org.smooks.io.payload.JavaResult;
+import org.smooks.io.payload.StreamingJavaResult;
 import org.smooks.resource.URIResourceLocator;
 import org.smooks.support.SmooksUtil;
 import org.smooks.support.URIUtil;
@@ -102,7 +104,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Smooks executor class.
@@ -158,6 +164,18 @@ public class Smooks implements Closeable {
      */
     private volatile boolean isConfigurable = true;
 
+    /**
+     * Bound on the number of released execution contexts pooled per target profile.
+     */
+    private static final int MAX_RELEASED_EXECUTION_CONTEXTS = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * Released execution contexts, keyed by target profile. Drained on {@link #close()}.
+     */
+    private final Map<String, Queue<DefaultExecutionContext>> releasedExecutionContexts = new ConcurrentHashMap<>();
+
+    private volatile boolean isClosed;
+
     /**
      * Public Default Constructor.
      * <p/>
@@ -458,6 +476,88 @@ public class Smooks implements Closeable {
         }
     }
 
+    /**
+     * Acquire a recycled {@link ExecutionContext} for the default profile.
+     *
+     * @return Execution context instance.
+     * @see #acquireExecutionContext(String)
+     */
+    public ExecutionContext acquireExecutionContext() {
+        return acquireExecutionContext(Profile.DEFAULT_PROFILE);
+    }
+
+    /**
+     * Acquire an {@link ExecutionContext} previously {@link #releaseExecutionContext(ExecutionContext) released} to
+     * this Smooks instance, or create one if there is none for the target profile.
+     * <p/>
+     * Recycling avoids reallocating the execution context structures for every message in small message workloads.
+     * The acquired context must be used for a single {@link #filterSource(ExecutionContext, Source, Result...)} call
+     * and then released. Once this instance is {@link #close() closed} no pooled context is handed out.
+     *
+     * @param targetProfile The target profile ({@link ProfileSet base profile}) on behalf of whom the filtering/serialisation
+     *                      filter is to be executed.
+     * @return Execution context instance.
+     * @throws UnknownProfileMemberException Unknown target profile.
+     */
+    public ExecutionContext acquireExecutionContext(String targetProfile) throws UnknownProfileMemberException {
+        if (!isClosed) {
+            Queue<DefaultExecutionContext> executionContexts = releasedExecutionContexts.get(targetProfile);
+            DefaultExecutionContext executionContext = executionContexts != null ? executionContexts.poll() : null;
+            if (executionContext != null) {
+                return executionContext;
+            }
+        }
+        return createExecutionContext(targetProfile);
+    }
+
+    /**
+     * Release an {@link ExecutionContext} so that it can be {@link #acquireExecutionContext(String) acquired} again.
+     * <p/>
+     * The context is {@link DefaultExecutionContext#reset() reset} on release. The caller must not use it, or anything
+     * it read from it, afterwards. Contexts that were not created by this Smooks instance are ignored, as are contexts
+     * released once the pool for their target profile is full or this instance is {@link #close() closed}.
+     *
+     * @param executionContext The execution context to release.
+     */
+    public void releaseExecutionContext(ExecutionContext executionContext) {
+        if (executionContext instanceof DefaultExecutionContext && executionContext.getApplicationContext() == applicationContext) {
+            DefaultExecutionContext defaultExecutionContext = (DefaultExecutionContext) executionContext;
+            defaultExecutionContext.reset();
+            if (!isClosed) {
+                releasedExecutionContexts.computeIfAbsent(defaultExecutionContext.getTargetProfiles().getBaseProfile(), k -> new ArrayBlockingQueue<>(MAX_RELEASED_EXECUTION_CONTEXTS)).offer(defaultExecutionContext);
+                if (isClosed) {
+                    // raced with close()...
+                    releasedExecutionContexts.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Prebuild the content delivery configuration, reader pool and filter of each target profile so that the first
+     * {@link #filterSource(ExecutionContext, Source, Result...) filterSource} call does not pay for it.
+     * <p/>
+     * Like {@link #createExecutionContext(String)}, this method makes the Smooks instance unconfigurable. Visitors
+     * must therefore be added before it is called.
+     *
+     * @param targetProfiles The target profiles ({@link ProfileSet base profiles}) to warm up. The
+     *                       {@link Profile#DEFAULT_PROFILE default profile} is warmed up when none are supplied.
+     * @throws UnknownProfileMemberException Unknown target profile.
+     */
+    public void warmUp(String... targetProfiles) throws UnknownProfileMemberException {
+        if (targetProfiles == null || targetProfiles.length == 0) {
+            targetProfiles = new String[]{Profile.DEFAULT_PROFILE};
+        }
+        for (String targetProfile : targetProfiles) {
+            ExecutionContext executionContext = createExecutionContext(targetProfile);
+            try (Filter filter = executionContext.getContentDeliveryRuntime().getContentDeliveryConfig().newFilter(executionContext)) {
+                LOGGER.debug("Warmed up {} for target profile [{}]", filter.getClass().getSimpleName(), targetProfile);
+            } catch (IOException e) {
+                throw new SmooksException(e);
+            }
+        }
+    }
+
     private synchronized void setNotConfigurable() {
         if (!isConfigurable) {
             return;
@@ -545,12 +645,24 @@ public class Smooks implements Closeable {
                 for (BeanContextLifecycleObserver observer : applicationContext.getBeanContextLifecycleObservers()) {
                     beanContext.addObserver(observer);
                 }
+                StreamingJavaResult streamingJavaResult = (StreamingJavaResult) FilterResult.getResult(executionContext, StreamingJavaResult.class);
+                if (streamingJavaResult != null) {
+                    addStreamingJavaResultObserver(streamingJavaResult, beanContext);
+                }
 
                 try {
                     contentDeliveryConfig.executeHandlerInit(executionContext);
                     filter.doFilter();
+                } catch (Throwable t) {
+                    // set before the post-execution handlers run so that they can tell the execution failed
+                    executionContext.setTerminationError(t);
+                    throw t;
                 } finally {
                     try {
+                        if (streamingJavaResult != null) {
+                            removeStreamingJavaResultObserver(streamingJavaResult, beanContext);
+                        }
+
                         // We want to make sure that all the beans from the BeanContext are available in the
                         // JavaResult, if one is supplied by the user...
                         JavaResult javaResult = (JavaResult) FilterResult.getResult(executionContext, JavaResult.class);
@@ -583,6 +695,27 @@ public class Smooks implements Closeable {
         }
     }
 
+    private void addStreamingJavaResultObserver(StreamingJavaResult streamingJavaResult, BeanContext beanContext) {
+        if (streamingJavaResult.getBeanIds().length == 0) {
+            beanContext.addObserver(streamingJavaResult);
+        } else {
+            // observe the streamed beans only so that other bean lifecycle events are not dispatched needlessly
+            for (String beanId : streamingJavaResult.getBeanIds()) {
+                beanContext.addObserver(applicationContext.getBeanIdStore().register(beanId), BeanLifecycle.END_FRAGMENT, streamingJavaResult);
+            }
+        }
+    }
+
+    private void removeStreamingJavaResultObserver(StreamingJavaResult streamingJavaResult, BeanContext beanContext) {
+        if (streamingJavaResult.getBeanIds().length == 0) {
+            beanContext.removeObserver(streamingJavaResult);
+        } else {
+            for (String beanId : streamingJavaResult.getBeanIds()) {
+                beanContext.removeObserver(applicationContext.getBeanIdStore().register(beanId), BeanLifecycle.END_FRAGMENT, streamingJavaResult);
+            }
+        }
+    }
+
     /**
      * Get the Smooks {@link ApplicationContext} associated with
      * this Smooks instance.
@@ -601,6 +734,8 @@ public class Smooks implements Closeable {
      */
     @Override
     public void close() {
+        isClosed = true;
+        releasedExecutionContexts.clear();
         applicationContext.getRegistry().close();
     }
 
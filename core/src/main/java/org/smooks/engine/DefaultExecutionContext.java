@@ -48,12 +48,15 @@ import org.smooks.api.profile.ProfileSet;
 import org.smooks.api.profile.UnknownProfileMemberException;
 import org.smooks.assertion.AssertArgument;
 import org.smooks.engine.memento.DefaultMementoCaretaker;
+import org.smooks.engine.memento.SlottedMementoCaretaker;
 import org.smooks.engine.resource.config.ParameterAccessor;
 import org.smooks.api.ApplicationContext;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.TypedKey;
 import org.smooks.api.delivery.ContentDeliveryRuntime;
 import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.delivery.Filter;
+import org.smooks.api.delivery.event.ExecutionEventListener;
 import org.smooks.api.resource.visitor.Visitor;
 import org.smooks.api.bean.context.BeanContext;
 import org.smooks.engine.bean.context.StandaloneBeanContextFactory;
@@ -75,6 +78,7 @@ public class DefaultExecutionContext implements ExecutionContext {
     private final ContentDeliveryRuntime contentDeliveryRuntime;
     private final MementoCaretaker mementoCaretaker;
     private final ApplicationContext applicationContext;
+    private final String defaultContentEncoding;
 
     private URI docSource;
     private String contentEncoding;
@@ -117,10 +121,35 @@ public class DefaultExecutionContext implements ExecutionContext {
 
         this.applicationContext = applicationContext;
         setContentEncoding(contentEncoding);
+        defaultContentEncoding = this.contentEncoding;
         targetProfileSet = applicationContext.getProfileStore().getProfileSet(targetProfile);
         contentDeliveryRuntime = applicationContext.getContentDeliveryRuntimeFactory().create(targetProfileSet, extendedContentHandlerBindings);
 
-        mementoCaretaker = new DefaultMementoCaretaker(this);
+        if (Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.SLOTTED_MEMENTO_CARETAKER, String.class, "false", contentDeliveryRuntime.getContentDeliveryConfig()))) {
+            mementoCaretaker = new SlottedMementoCaretaker();
+        } else {
+            mementoCaretaker = new DefaultMementoCaretaker(this);
+        }
+    }
+
+    /**
+     * Reset this execution context so that it can be reused for filtering another message.
+     * <p/>
+     * Attributes, mementos, execution event listeners, the bean context, the document source, the termination error
+     * and the content encoding are discarded. The content delivery runtime and the attribute and memento maps are kept
+     * for reuse. The caller must not hold on to anything it read from this context before the reset.
+     */
+    public void reset() {
+        mementoCaretaker.clear();
+        attributes.clear();
+        for (ExecutionEventListener executionEventListener : new ArrayList<>(contentDeliveryRuntime.getExecutionEventListeners())) {
+            contentDeliveryRuntime.removeExecutionEventListener(executionEventListener);
+        }
+        // the bean map may be a JavaResult or JavaSource map owned by the caller so it is dropped rather than cleared
+        beanContext = null;
+        docSource = null;
+        terminationError = null;
+        contentEncoding = defaultContentEncoding;
     }
 
     @Override
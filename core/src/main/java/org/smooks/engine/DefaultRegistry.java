@@ -63,6 +63,7 @@ import org.smooks.engine.injector.Scope;
 import org.smooks.engine.lifecycle.DefaultLifecycleManager;
 import org.smooks.engine.lifecycle.PostConstructLifecyclePhase;
 import org.smooks.engine.lifecycle.PreDestroyLifecyclePhase;
+import org.smooks.engine.lookup.InstanceLookup;
 import org.smooks.engine.lookup.LifecycleManagerLookup;
 import org.smooks.engine.lookup.ResourceConfigSeqLookup;
 import org.smooks.engine.lookup.ResourceConfigSeqsLookup;
@@ -74,6 +75,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
@@ -86,6 +88,7 @@ public class DefaultRegistry implements Registry {
     private static final Logger LOGGER = LoggerFactory.getLogger(Registry.class);
 
     private final Map<Object, Object> registry = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<Object, Object>> typeIndex = new ConcurrentHashMap<>();
     private final ClassLoader classLoader;
     private final ResourceConfigLoader resourceConfigLoader;
 
@@ -137,21 +140,75 @@ public class DefaultRegistry implements Registry {
         AssertArgument.isNotNull(key, "key");
         AssertArgument.isNotNull(value, "value");
 
-        if (registry.putIfAbsent(key, value) != null) {
-            throw new SmooksException(String.format("Duplicate registered object for object with key [%s]", key));
+        synchronized (typeIndex) {
+            if (registry.putIfAbsent(key, value) != null) {
+                throw new SmooksException(String.format("Duplicate registered object for object with key [%s]", key));
+            }
+            for (Map.Entry<Class<?>, Map<Object, Object>> typeIndexEntry : typeIndex.entrySet()) {
+                if (typeIndexEntry.getKey().isInstance(value)) {
+                    final Map<Object, Object> instances = new LinkedHashMap<>(typeIndexEntry.getValue());
+                    instances.put(key, value);
+                    typeIndexEntry.setValue(Collections.unmodifiableMap(instances));
+                }
+            }
         }
     }
 
     @Override
     public void deRegisterObject(Object key) {
-        registry.remove(key);
+        synchronized (typeIndex) {
+            final Object value = registry.remove(key);
+            if (value != null) {
+                for (Map.Entry<Class<?>, Map<Object, Object>> typeIndexEntry : typeIndex.entrySet()) {
+                    if (typeIndexEntry.getValue().containsKey(key)) {
+                        final Map<Object, Object> instances = new LinkedHashMap<>(typeIndexEntry.getValue());
+                        instances.remove(key);
+                        typeIndexEntry.setValue(Collections.unmodifiableMap(instances));
+                    }
+                }
+            }
+        }
     }
 
     @Override
     public <R> R lookup(Function<Map<Object, Object>, R> function) {
+        if (function.getClass() == InstanceLookup.class) {
+            return (R) lookupInstances(((InstanceLookup<?>) function).getType());
+        }
         return function.apply(Collections.unmodifiableMap(registry));
     }
 
+    /**
+     * Looks up the registered objects of a given type.
+     * <p>
+     * Results are served from a type index which is kept up-to-date as objects are registered and de-registered. The
+     * returned map is an immutable snapshot: it is safe to hold on to it for the duration of a filter execution.
+     *
+     * @param type type of the registered objects
+     * @param <T>  type of the registered objects
+     * @return snapshot of the registry entries whose values are instances of <code>type</code>
+     */
+    public <T> Map<Object, T> lookupInstances(Class<T> type) {
+        Map<Object, Object> instances = typeIndex.get(type);
+        if (instances == null) {
+            synchronized (typeIndex) {
+                instances = typeIndex.get(type);
+                if (instances == null) {
+                    instances = new LinkedHashMap<>();
+                    for (Map.Entry<Object, Object> registryEntry : registry.entrySet()) {
+                        if (type.isInstance(registryEntry.getValue())) {
+                            instances.put(registryEntry.getKey(), registryEntry.getValue());
+                        }
+                    }
+                    instances = Collections.unmodifiableMap(instances);
+                    typeIndex.put(type, instances);
+                }
+            }
+        }
+
+        return (Map<Object, T>) instances;
+    }
+
     @Override
     public <T> T lookup(Object key) {
         return (T) registry.get(key);
@@ -0,0 +1,101 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.bean.context;
+
+import org.smooks.api.bean.lifecycle.BeanContextLifecycleObserver;
+import org.smooks.api.bean.lifecycle.BeanLifecycle;
+
+import java.util.Arrays;
+
+/**
+ * Table of the {@link BeanContextLifecycleObserver}s interested in the lifecycle events of a particular bean, looked up
+ * by the bean's {@link org.smooks.api.bean.repository.BeanId} index and the {@link BeanLifecycle}. Each slot is replaced
+ * rather than modified so that an observer may be added or removed while the slot is being iterated.
+ */
+class BeanContextLifecycleObserverTable {
+
+    private static final BeanContextLifecycleObserver[] NO_OBSERVERS = new BeanContextLifecycleObserver[0];
+    private static final int LIFECYCLE_COUNT = BeanLifecycle.values().length;
+
+    private BeanContextLifecycleObserver[][] slots = new BeanContextLifecycleObserver[0][];
+    private int observerCount;
+
+    public void add(final int beanIdIndex, final BeanLifecycle beanLifecycle, final BeanContextLifecycleObserver observer) {
+        final int slot = beanIdIndex * LIFECYCLE_COUNT + beanLifecycle.ordinal();
+        if (slot >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(slot + 1, slots.length * 2));
+        }
+        final BeanContextLifecycleObserver[] observers = slots[slot] == null ? NO_OBSERVERS : slots[slot];
+        final BeanContextLifecycleObserver[] newObservers = Arrays.copyOf(observers, observers.length + 1);
+        newObservers[observers.length] = observer;
+        slots[slot] = newObservers;
+        observerCount++;
+    }
+
+    public void remove(final int beanIdIndex, final BeanLifecycle beanLifecycle, final BeanContextLifecycleObserver observer) {
+        final BeanContextLifecycleObserver[] observers = get(beanIdIndex, beanLifecycle);
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i].equals(observer)) {
+                final BeanContextLifecycleObserver[] newObservers = new BeanContextLifecycleObserver[observers.length - 1];
+                System.arraycopy(observers, 0, newObservers, 0, i);
+                System.arraycopy(observers, i + 1, newObservers, i, observers.length - i - 1);
+                slots[beanIdIndex * LIFECYCLE_COUNT + beanLifecycle.ordinal()] = newObservers.length == 0 ? null : newObservers;
+                observerCount--;
+                return;
+            }
+        }
+    }
+
+    public BeanContextLifecycleObserver[] get(final int beanIdIndex, final BeanLifecycle beanLifecycle) {
+        final int slot = beanIdIndex * LIFECYCLE_COUNT + beanLifecycle.ordinal();
+        if (slot >= slots.length || slots[slot] == null) {
+            return NO_OBSERVERS;
+        }
+
+        return slots[slot];
+    }
+
+    public boolean isEmpty() {
+        return observerCount == 0;
+    }
+}
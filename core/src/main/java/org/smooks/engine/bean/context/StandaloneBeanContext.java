@@ -77,6 +77,7 @@ public class StandaloneBeanContext implements BeanContext {
     private List<BeanContextLifecycleObserver> addObserversQueue = new ArrayList<BeanContextLifecycleObserver>();
     private List<BeanContextLifecycleObserver> removeObserversQueue = new ArrayList<BeanContextLifecycleObserver>();
     private List<BeanContextLifecycleEvent> notifyObserverEventQueue = new ArrayList<BeanContextLifecycleEvent>();
+    private BeanContextLifecycleObserverTable lifecycleObserverTable = new BeanContextLifecycleObserverTable();
 
     /**
      * Create the StandAloneBeanContext
@@ -110,6 +111,7 @@ public class StandaloneBeanContext implements BeanContext {
         this.addObserversQueue = parentContext.addObserversQueue;
         this.removeObserversQueue = parentContext.removeObserversQueue;
         this.notifyObserverEventQueue = parentContext.notifyObserverEventQueue;
+        this.lifecycleObserverTable = parentContext.lifecycleObserverTable;
     }
 
     @Override
@@ -126,8 +128,7 @@ public class StandaloneBeanContext implements BeanContext {
         // removal (removal by being overwritten)...
         Object currentInstance = getBean(beanId);
         if (currentInstance != null) {
-            notifyObservers(new DefaultBeanContextLifecycleEvent(executionContext,
-                    source, BeanLifecycle.REMOVE, beanId, currentInstance));
+            notifyObservers(source, BeanLifecycle.REMOVE, beanId, currentInstance);
         }
 
         // Check if the BeanIdList has new BeanIds and if so then
@@ -142,8 +143,7 @@ public class StandaloneBeanContext implements BeanContext {
         repoEntry.setValue(bean);
 
         // Add the bean to the context...
-        notifyObservers(new DefaultBeanContextLifecycleEvent(executionContext, source,
-                BeanLifecycle.ADD, beanId, bean));
+        notifyObservers(source, BeanLifecycle.ADD, beanId, bean);
     }
 
     @Override
@@ -264,8 +264,7 @@ public class StandaloneBeanContext implements BeanContext {
         if (entries.size() > index && entries.get(index).getValue() != null) {
             entries.get(index).setValue(bean);
 
-            notifyObservers(new DefaultBeanContextLifecycleEvent(executionContext,
-                    source, BeanLifecycle.CHANGE, beanId, bean));
+            notifyObservers(source, BeanLifecycle.CHANGE, beanId, bean);
         } else {
             throw new IllegalStateException("The bean '" + beanId
                     + "' can't be changed because it isn't in the repository.");
@@ -289,8 +288,7 @@ public class StandaloneBeanContext implements BeanContext {
         repositoryEntry.clean();
         repositoryEntry.setValue(null);
 
-        notifyObservers(new DefaultBeanContextLifecycleEvent(executionContext, source,
-                BeanLifecycle.REMOVE, beanId, getBean(beanId)));
+        notifyObservers(source, BeanLifecycle.REMOVE, beanId, getBean(beanId));
 
         return old;
     }
@@ -729,6 +727,36 @@ public class StandaloneBeanContext implements BeanContext {
         }
     }
 
+    @Override
+    public void addObserver(BeanId beanId, BeanLifecycle beanLifecycle, BeanContextLifecycleObserver observer) {
+        AssertArgument.isNotNull(beanId, "beanId");
+        AssertArgument.isNotNull(beanLifecycle, "beanLifecycle");
+        AssertArgument.isNotNull(observer, "observer");
+
+        lifecycleObserverTable.add(beanId.getIndex(), beanLifecycle, observer);
+    }
+
+    @Override
+    public void removeObserver(BeanId beanId, BeanLifecycle beanLifecycle, BeanContextLifecycleObserver observer) {
+        AssertArgument.isNotNull(beanId, "beanId");
+        AssertArgument.isNotNull(beanLifecycle, "beanLifecycle");
+
+        lifecycleObserverTable.remove(beanId.getIndex(), beanLifecycle, observer);
+    }
+
+    @Override
+    public boolean hasObservers(BeanId beanId, BeanLifecycle beanLifecycle) {
+        // while observers are being notified, events are queued for all the observers so they are never left out
+        return lifecycleObservers == null || !lifecycleObservers.isEmpty() || !addObserversQueue.isEmpty() ||
+                lifecycleObserverTable.get(beanId.getIndex(), beanLifecycle).length > 0;
+    }
+
+    private void notifyObservers(Fragment<?> source, BeanLifecycle beanLifecycle, BeanId beanId, Object bean) {
+        if (hasObservers(beanId, beanLifecycle)) {
+            notifyObservers(new DefaultBeanContextLifecycleEvent(executionContext, source, beanLifecycle, beanId, bean));
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -744,10 +772,14 @@ public class StandaloneBeanContext implements BeanContext {
             // Null the global List object reference while we're iterating it...
             lifecycleObservers = null;
             try {
-                int observerCount = localObserverListCopy.size();
                 for (BeanContextLifecycleObserver beanContextLifecycleObserver : localObserverListCopy) {
                     beanContextLifecycleObserver.onBeanLifecycleEvent(event);
                 }
+                if (!lifecycleObserverTable.isEmpty() && event.getBeanId() != null && event.getLifecycle() != null) {
+                    for (BeanContextLifecycleObserver beanContextLifecycleObserver : lifecycleObserverTable.get(event.getBeanId().getIndex(), event.getLifecycle())) {
+                        beanContextLifecycleObserver.onBeanLifecycleEvent(event);
+                    }
+                }
             } finally {
                 // Reinstate the global List ref so it can be used again...
                 lifecycleObservers = localObserverListCopy;
@@ -49,8 +49,12 @@ import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksException;
 import org.smooks.api.delivery.Filter;
 import org.smooks.engine.resource.config.ParameterAccessor;
+import org.smooks.io.FlushPolicy;
+import org.smooks.io.FragmentWriter;
 import org.smooks.io.NullReader;
 import org.smooks.io.NullWriter;
+import org.smooks.io.PooledBufferedWriter;
+import org.smooks.io.SAXWriter;
 import org.smooks.io.Stream;
 
 import javax.xml.transform.Result;
@@ -58,6 +62,8 @@ import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
+import java.io.FilterOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
@@ -76,6 +82,7 @@ import java.nio.charset.StandardCharsets;
 public abstract class AbstractFilter implements Filter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractFilter.class);
+    private static final int DEFAULT_FLUSH_THRESHOLD = 8192;
 
     /**
      * Set the default stream filter type on the supplied Smooks instance.
@@ -113,15 +120,30 @@ public abstract class AbstractFilter implements Filter {
     protected Writer getWriter(final Result result, final ExecutionContext executionContext) {
         if (result instanceof StreamResult) {
             StreamResult streamResult = (StreamResult) result;
+            final FlushPolicy flushPolicy = getFlushPolicy(executionContext);
+            final int flushThreshold = getFlushThreshold(executionContext);
             if (streamResult.getWriter() != null) {
-                return streamResult.getWriter();
+                // a nested filter's output is buffered by the outer filter while a SAXWriter is left unwrapped so
+                // that serializers can still forward events to it
+                if (flushPolicy == FlushPolicy.ELEMENT || streamResult.getWriter() instanceof FragmentWriter || streamResult.getWriter() instanceof SAXWriter) {
+                    return streamResult.getWriter();
+                } else {
+                    return new PooledBufferedWriter(streamResult.getWriter(), flushPolicy, flushThreshold);
+                }
             } else if (streamResult.getOutputStream() != null) {
                 try {
-                    if (executionContext != null) {
-                        return new OutputStreamWriter(streamResult.getOutputStream(), executionContext.getContentEncoding());
+                    // serialization writes in small pieces so they are gathered in a buffer before being encoded
+                    final Writer outputStreamWriter;
+                    if (flushPolicy == FlushPolicy.EXPLICIT) {
+                        // the encoder belongs to the filter so it still has to be flushed once the document ends
+                        outputStreamWriter = new OutputStreamWriter(new UnflushedOutputStream(streamResult.getOutputStream()), executionContext.getContentEncoding());
+                        return new PooledBufferedWriter(outputStreamWriter, FlushPolicy.DOCUMENT, flushThreshold);
+                    } else if (executionContext != null) {
+                        outputStreamWriter = new OutputStreamWriter(streamResult.getOutputStream(), executionContext.getContentEncoding());
                     } else {
-                        return new OutputStreamWriter(streamResult.getOutputStream(), StandardCharsets.UTF_8);
+                        outputStreamWriter = new OutputStreamWriter(streamResult.getOutputStream(), StandardCharsets.UTF_8);
                     }
+                    return new PooledBufferedWriter(outputStreamWriter, flushPolicy, flushThreshold);
                 } catch (UnsupportedEncodingException e) {
                     throw new SmooksException("Unable to encode output stream.", e);
                 }
@@ -140,6 +162,44 @@ public abstract class AbstractFilter implements Filter {
         }
     }
 
+    protected FlushPolicy getFlushPolicy(final ExecutionContext executionContext) {
+        if (executionContext == null) {
+            return FlushPolicy.ELEMENT;
+        }
+        return FlushPolicy.valueOf(ParameterAccessor.getParameterValue(FLUSH_POLICY, String.class, FlushPolicy.ELEMENT.toString(), executionContext.getContentDeliveryRuntime().getContentDeliveryConfig()));
+    }
+
+    protected int getFlushThreshold(final ExecutionContext executionContext) {
+        if (executionContext == null) {
+            return DEFAULT_FLUSH_THRESHOLD;
+        }
+        return Integer.parseInt(ParameterAccessor.getParameterValue(FLUSH_THRESHOLD, String.class, Integer.toString(DEFAULT_FLUSH_THRESHOLD), executionContext.getContentDeliveryRuntime().getContentDeliveryConfig()));
+    }
+
+    /**
+     * Flushes the result writer at the end of the document, as far as the flush policy allows.
+     *
+     * @param writer the result writer
+     * @throws IOException if the result writer cannot be flushed
+     */
+    protected void flush(final Writer writer) throws IOException {
+        if (writer instanceof PooledBufferedWriter) {
+            ((PooledBufferedWriter) writer).flushDocument();
+        } else {
+            writer.flush();
+        }
+    }
+
+    protected void release(Writer writer) {
+        if (writer instanceof PooledBufferedWriter) {
+            try {
+                ((PooledBufferedWriter) writer).release();
+            } catch (Throwable throwable) {
+                LOGGER.debug("Failed to write out buffered output.", throwable);
+            }
+        }
+    }
+
     protected void close(Source source) {
         if (source instanceof StreamSource) {
             StreamSource streamSource = (StreamSource) source;
@@ -186,4 +246,23 @@ public abstract class AbstractFilter implements Filter {
             }
         }
     }
+
+    /**
+     * Passes the bytes encoded for an output stream result on to the stream without ever flushing it.
+     */
+    private static class UnflushedOutputStream extends FilterOutputStream {
+
+        UnflushedOutputStream(final OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
 }
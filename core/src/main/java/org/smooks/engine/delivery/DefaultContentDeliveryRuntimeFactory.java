@@ -44,6 +44,7 @@ package org.smooks.engine.delivery;
 
 import org.smooks.api.Registry;
 import org.smooks.api.SmooksConfigException;
+import org.smooks.api.delivery.ContentDeliveryConfig;
 import org.smooks.api.delivery.ContentDeliveryConfigBuilder;
 import org.smooks.api.delivery.ContentDeliveryRuntime;
 import org.smooks.api.delivery.ContentDeliveryRuntimeFactory;
@@ -58,14 +59,12 @@ import org.smooks.engine.delivery.sax.ng.SaxNgFilterProvider;
 import org.smooks.engine.lookup.GlobalParamsLookup;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultContentDeliveryRuntimeFactory implements ContentDeliveryRuntimeFactory {
-    private final Map<ContentDeliveryConfigBuilder, ReaderPool> readerPools = new HashMap<>();
-    private final Map<String, ContentDeliveryConfigBuilder> contentDeliveryConfigBuilders = new HashMap<>();
+    private final Map<String, ContentDeliveryProfile> contentDeliveryProfiles = new ConcurrentHashMap<>();
     private final Registry registry;
     private final ReaderPoolFactory readerPoolFactory;
 
@@ -76,19 +75,28 @@ public class DefaultContentDeliveryRuntimeFactory implements ContentDeliveryRunt
 
     @Override
     public ContentDeliveryRuntime create(final ProfileSet profileSet, final List<ContentHandlerBinding<Visitor>> extendedContentHandlerBindings) {
-        ContentDeliveryConfigBuilder contentDeliveryConfigBuilder = contentDeliveryConfigBuilders.get(profileSet.getBaseProfile());
-        if (contentDeliveryConfigBuilder == null) {
+        ContentDeliveryProfile contentDeliveryProfile = contentDeliveryProfiles.get(profileSet.getBaseProfile());
+        if (contentDeliveryProfile == null) {
             synchronized (this) {
-                if (contentDeliveryConfigBuilders.get(profileSet.getBaseProfile()) == null) {
-                    contentDeliveryConfigBuilder = new DefaultContentDeliveryConfigBuilder(profileSet, registry, Arrays.asList(new SaxNgFilterProvider(), new DOMFilterProvider()));
+                contentDeliveryProfile = contentDeliveryProfiles.get(profileSet.getBaseProfile());
+                if (contentDeliveryProfile == null) {
+                    final ContentDeliveryConfigBuilder contentDeliveryConfigBuilder = new DefaultContentDeliveryConfigBuilder(profileSet, registry, Arrays.asList(new SaxNgFilterProvider(), new DOMFilterProvider()));
                     final int readerPoolSize = Integer.parseInt(registry.lookup(new GlobalParamsLookup(registry)).getParameterValue(Filter.READER_POOL_SIZE, String.class, "0"));
-                    readerPools.put(contentDeliveryConfigBuilder, readerPoolFactory.create(readerPoolSize));
-                    contentDeliveryConfigBuilders.put(profileSet.getBaseProfile(), contentDeliveryConfigBuilder);
-                } else {
-                    contentDeliveryConfigBuilder = contentDeliveryConfigBuilders.get(profileSet.getBaseProfile());
+                    contentDeliveryProfile = new ContentDeliveryProfile(readerPoolFactory.create(readerPoolSize), contentDeliveryConfigBuilder.build(extendedContentHandlerBindings));
+                    contentDeliveryProfiles.put(profileSet.getBaseProfile(), contentDeliveryProfile);
                 }
             }
         }
-        return new DefaultContentDeliveryRuntime(readerPools.get(contentDeliveryConfigBuilder), contentDeliveryConfigBuilder.build(extendedContentHandlerBindings));
+        return new DefaultContentDeliveryRuntime(contentDeliveryProfile.readerPool, contentDeliveryProfile.contentDeliveryConfig);
+    }
+
+    private static final class ContentDeliveryProfile {
+        private final ReaderPool readerPool;
+        private final ContentDeliveryConfig contentDeliveryConfig;
+
+        private ContentDeliveryProfile(ReaderPool readerPool, ContentDeliveryConfig contentDeliveryConfig) {
+            this.readerPool = readerPool;
+            this.contentDeliveryConfig = contentDeliveryConfig;
+        }
     }
 }
@@ -0,0 +1,255 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery;
+
+import jakarta.annotation.Resource;
+import org.smooks.api.delivery.ReaderPool;
+import org.xml.sax.XMLReader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of readers which grows on-demand up to a maximum size and evicts readers left idle for too long.
+ * <p>
+ * Each thread starts scanning the pool from its own home slot so that a thread usually gets back the reader it
+ * returned last, and threads seldom contend on the same slots. The scan then falls back to the rest of the pool.
+ * Hits, misses, reader creations reported by the borrowers, discards, and evictions are counted and reported through
+ * {@link #getProperties()}.
+ * <p>
+ * The pool is grow-only: its capacity is never reduced. Idle readers are evicted from their slots, on borrow as well as
+ * on return, which releases the readers but keeps the slots.
+ */
+@Resource(name = "ElasticReaderPool")
+public class ElasticReaderPool implements ReaderPool {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxReaderPoolSize;
+    private final long idleTimeoutNanos;
+    private final AtomicLong lastEvictionNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder creations = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile Slots slots;
+
+    /**
+     * @param maxReaderPoolSize maximum number of pooled readers or -1 for an unbounded pool
+     * @param idleTimeout       how long a pooled reader can stay idle before it is evicted
+     * @param timeUnit          unit of <code>idleTimeout</code>
+     */
+    public ElasticReaderPool(final int maxReaderPoolSize, final long idleTimeout, final TimeUnit timeUnit) {
+        this.maxReaderPoolSize = maxReaderPoolSize == -1 ? Integer.MAX_VALUE : Math.max(maxReaderPoolSize, 0);
+        this.idleTimeoutNanos = timeUnit.toNanos(idleTimeout);
+        this.slots = new Slots(Math.min(INITIAL_CAPACITY, this.maxReaderPoolSize));
+    }
+
+    @Override
+    public XMLReader borrowXMLReader() {
+        evictIdleReaders(System.nanoTime());
+
+        final Slots currentSlots = slots;
+        final int capacity = currentSlots.xmlReaders.length();
+        final int homeSlot = homeSlot(capacity);
+        for (int i = 0; i < capacity; i++) {
+            final int slot = (homeSlot + i) % capacity;
+            if (currentSlots.xmlReaders.get(slot) != null) {
+                final XMLReader xmlReader = currentSlots.xmlReaders.getAndSet(slot, null);
+                if (xmlReader != null) {
+                    hits.increment();
+                    return xmlReader;
+                }
+            }
+        }
+        misses.increment();
+
+        return null;
+    }
+
+    @Override
+    public void onXMLReaderCreated(final XMLReader xmlReader) {
+        creations.increment();
+    }
+
+    /**
+     * Returns an {@link XMLReader} instance to this pool.
+     *
+     * @param xmlReader The XMLReader instance to be returned. If the pool is full and cannot grow further, the instance
+     *                  is discarded.
+     */
+    @Override
+    public void returnXMLReader(final XMLReader xmlReader) {
+        final long now = System.nanoTime();
+        evictIdleReaders(now);
+
+        Slots currentSlots = slots;
+        while (true) {
+            final int slot = currentSlots.offer(xmlReader, homeSlot(currentSlots.xmlReaders.length()), now);
+            if (slot < 0) {
+                final Slots grownSlots = grow(currentSlots);
+                if (grownSlots == currentSlots) {
+                    discards.increment();
+                    return;
+                }
+                currentSlots = grownSlots;
+            } else if (slots == currentSlots || !currentSlots.xmlReaders.compareAndSet(slot, xmlReader, null)) {
+                // either the slots are still current or the reader was moved or borrowed from the replaced slots
+                return;
+            } else {
+                // the slots were replaced by grow() after it had moved this slot so the reader is offered again
+                currentSlots = slots;
+            }
+        }
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        final Slots currentSlots = slots;
+        final Map<String, String> properties = new HashMap<>(8);
+        properties.put("maxReadersSize", String.valueOf(maxReaderPoolSize));
+        properties.put("readerPoolSize", String.valueOf(currentSlots.xmlReaders.length()));
+        properties.put("pooledReaders", String.valueOf(currentSlots.size()));
+        properties.put("hits", String.valueOf(hits.sum()));
+        properties.put("misses", String.valueOf(misses.sum()));
+        properties.put("creations", String.valueOf(creations.sum()));
+        properties.put("discards", String.valueOf(discards.sum()));
+        properties.put("evictions", String.valueOf(evictions.sum()));
+
+        return properties;
+    }
+
+    public int getMaxReaderPoolSize() {
+        return maxReaderPoolSize;
+    }
+
+    protected int homeSlot(final int capacity) {
+        if (capacity == 0) {
+            return 0;
+        }
+        final long threadId = Thread.currentThread().getId();
+        return (int) ((threadId * 0x9E3779B97F4A7C15L) >>> 33) % capacity;
+    }
+
+    protected synchronized Slots grow(final Slots currentSlots) {
+        if (slots != currentSlots) {
+            return slots;
+        }
+        final int capacity = currentSlots.xmlReaders.length();
+        if (capacity >= maxReaderPoolSize) {
+            return currentSlots;
+        }
+
+        final Slots grownSlots = new Slots((int) Math.min((long) Math.max(capacity, 1) * 2, maxReaderPoolSize));
+        // published before the readers are moved so that a reader offered to the old slots after the move passed its
+        // slot is seen as stranded by the returning thread, which then offers it again
+        slots = grownSlots;
+        for (int i = 0; i < capacity; i++) {
+            // move rather than copy so that a reader cannot be borrowed from both the old and the new slots
+            final XMLReader xmlReader = currentSlots.xmlReaders.getAndSet(i, null);
+            if (xmlReader != null && grownSlots.offer(xmlReader, i, currentSlots.returnedAt.get(i)) < 0) {
+                discards.increment();
+            }
+        }
+
+        return grownSlots;
+    }
+
+    protected void evictIdleReaders(final long now) {
+        final long lastEviction = lastEvictionNanos.get();
+        if (now - lastEviction < idleTimeoutNanos || !lastEvictionNanos.compareAndSet(lastEviction, now)) {
+            return;
+        }
+
+        final Slots currentSlots = slots;
+        for (int i = 0; i < currentSlots.xmlReaders.length(); i++) {
+            final XMLReader xmlReader = currentSlots.xmlReaders.get(i);
+            if (xmlReader != null && now - currentSlots.returnedAt.get(i) >= idleTimeoutNanos && currentSlots.xmlReaders.compareAndSet(i, xmlReader, null)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    protected static final class Slots {
+        private final AtomicReferenceArray<XMLReader> xmlReaders;
+        private final AtomicLongArray returnedAt;
+
+        private Slots(final int capacity) {
+            xmlReaders = new AtomicReferenceArray<>(capacity);
+            returnedAt = new AtomicLongArray(capacity);
+        }
+
+        /**
+         * @return the slot the reader was put in or -1 if every slot is taken
+         */
+        private int offer(final XMLReader xmlReader, final int homeSlot, final long now) {
+            final int capacity = xmlReaders.length();
+            for (int i = 0; i < capacity; i++) {
+                final int slot = (homeSlot + i) % capacity;
+                if (xmlReaders.get(slot) == null) {
+                    returnedAt.set(slot, now);
+                    if (xmlReaders.compareAndSet(slot, null, xmlReader)) {
+                        return slot;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private int size() {
+            int size = 0;
+            for (int i = 0; i < xmlReaders.length(); i++) {
+                if (xmlReaders.get(i) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+}
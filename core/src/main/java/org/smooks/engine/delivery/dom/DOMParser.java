@@ -168,6 +168,7 @@ public class DOMParser extends AbstractParser {
                 }
                 if (domReader == null) {
                     domReader = createXMLReader();
+                    readerPool.onXMLReaderCreated(domReader);
                 }
 
                 if (domReader instanceof HierarchyChangeReader) {
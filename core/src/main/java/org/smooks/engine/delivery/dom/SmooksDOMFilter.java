@@ -308,9 +308,11 @@ public class SmooksDOMFilter extends AbstractFilter {
 
                 try {
                     serialize(resultNode, writer);
-                    writer.flush();
+                    flush(writer);
                 } catch (IOException e) {
                     LOGGER.debug("Error writing result to output stream.", e);
+                } finally {
+                    release(writer);
                 }
             } else if (result instanceof DOMResult) {
                 ((DOMResult) result).setNode(resultNode);
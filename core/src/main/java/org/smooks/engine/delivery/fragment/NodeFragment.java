@@ -43,7 +43,6 @@
 package org.smooks.engine.delivery.fragment;
 
 import org.jaxen.*;
-import org.jaxen.dom.DocumentNavigator;
 import org.jaxen.saxpath.SAXPathException;
 import org.smooks.api.SmooksException;
 import org.smooks.api.resource.config.xpath.SelectorPath;
@@ -58,12 +57,8 @@ import org.w3c.dom.Node;
 import org.w3c.dom.UserDataHandler;
 
 import javax.xml.XMLConstants;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Properties;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
 public class NodeFragment implements Fragment<Node> {
 
@@ -79,27 +74,10 @@ public class NodeFragment implements Fragment<Node> {
 
     private final Node node;
     private final boolean isReservationInheritable;
+    private boolean isReservationsInherited;
     private String id;
     private int hash;
 
-    protected static class Reservation {
-        private final Object token;
-        private final boolean inheritable;
-
-        Reservation(final Object token, final boolean inheritable) {
-            this.token = token;
-            this.inheritable = inheritable;
-        }
-
-        public Object getToken() {
-            return token;
-        }
-
-        public boolean isInheritable() {
-            return inheritable;
-        }
-    }
-
     public NodeFragment(final Node node) {
         this(node, false);
     }
@@ -108,19 +86,9 @@ public class NodeFragment implements Fragment<Node> {
         this.node = node;
         this.isReservationInheritable = isReservationInheritable;
 
-        Map<Long, Reservation> reservations = (Map<Long, Reservation>) node.getUserData(RESERVATIONS_USER_DATA_KEY);
-        if (reservations == null) {
-            reservations = new HashMap<>();
-            node.setUserData(RESERVATIONS_USER_DATA_KEY, reservations, COPY_USER_DATA_HANDLER);
-        }
-
-        Node parentNode = node.getParentNode();
-        while (parentNode != null) {
-            final Map<Long, Reservation> parentNodeReservations = (Map<Long, Reservation>) parentNode.getUserData(RESERVATIONS_USER_DATA_KEY);
-            if (parentNodeReservations != null && !parentNodeReservations.isEmpty()) {
-                reservations.putAll(parentNodeReservations.entrySet().stream().filter(e -> e.getValue().isInheritable()).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
-            }
-            parentNode = parentNode.getParentNode();
+        // created up front so that a copy of the node made with importNode or cloneNode shares its reservations
+        if (node.getUserData(RESERVATIONS_USER_DATA_KEY) == null) {
+            node.setUserData(RESERVATIONS_USER_DATA_KEY, new Reservations(), COPY_USER_DATA_HANDLER);
         }
     }
 
@@ -143,23 +111,54 @@ public class NodeFragment implements Fragment<Node> {
 
     @Override
     public boolean reserve(final long id, final Object token) {
-        return ((Map<Long, Reservation>) node.getUserData(RESERVATIONS_USER_DATA_KEY)).
-                computeIfAbsent(id, key -> new Reservation(token, isReservationInheritable)).
-                getToken().equals(token);
+        final Reservations reservations = getReservations();
+        final Object reservedToken = reservations.getToken(id);
+        if (reservedToken == null) {
+            reservations.put(id, token, isReservationInheritable);
+            return true;
+        } else {
+            return reservedToken.equals(token);
+        }
     }
 
     @Override
     public boolean release(final long id, final Object token) {
-        final Map<Long, Reservation> reservedTokens = (Map<Long, Reservation>) node.getUserData(RESERVATIONS_USER_DATA_KEY);
-        final Object reservedToken = reservedTokens.getOrDefault(id, new Reservation(token, isReservationInheritable)).getToken();
-        if (reservedToken.equals(token)) {
-            reservedTokens.remove(id);
+        final Reservations reservations = getReservations();
+        final Object reservedToken = reservations.getToken(id);
+        if (reservedToken == null || reservedToken.equals(token)) {
+            reservations.remove(id);
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Gets the node's reservations. The inheritable reservations of the node's ancestors are copied in the first time
+     * this fragment accesses them rather than when the fragment is constructed, since most fragments never make a
+     * reservation.
+     */
+    protected Reservations getReservations() {
+        Reservations reservations = (Reservations) node.getUserData(RESERVATIONS_USER_DATA_KEY);
+        if (reservations == null) {
+            reservations = new Reservations();
+            node.setUserData(RESERVATIONS_USER_DATA_KEY, reservations, COPY_USER_DATA_HANDLER);
+        }
+        if (!isReservationsInherited) {
+            Node parentNode = node.getParentNode();
+            while (parentNode != null) {
+                final Reservations parentNodeReservations = (Reservations) parentNode.getUserData(RESERVATIONS_USER_DATA_KEY);
+                if (parentNodeReservations != null && parentNodeReservations.size() > 0) {
+                    reservations.putInheritable(parentNodeReservations);
+                }
+                parentNode = parentNode.getParentNode();
+            }
+            isReservationsInherited = true;
+        }
+
+        return reservations;
+    }
+
     @Override
     public boolean isMatch(final SelectorPath selectorPath, final ExecutionContext executionContext) {
         if (!assertConditionTrue(executionContext, selectorPath)) {
@@ -203,12 +202,7 @@ public class NodeFragment implements Fragment<Node> {
     }
 
     protected boolean isPatternMatch(final Node node, final SelectorPath selectorPath) throws JaxenException {
-        final SimpleNamespaceContext simpleNamespaceContext = new SimpleNamespaceContext();
-        final Properties namespaces = selectorPath.getNamespaces();
-        for (String namespacePrefix : namespaces.stringPropertyNames()) {
-            simpleNamespaceContext.addNamespace(namespacePrefix, namespaces.getProperty(namespacePrefix));
-        }
-        final Context context = new Context(new ContextSupport(simpleNamespaceContext, XPathFunctionContext.getInstance(), new SimpleVariableContext(), DocumentNavigator.getInstance()));
+        final Context context = ((JaxenPatternSelectorPath) selectorPath).getContext();
         boolean isMatch = true;
         if (selectorPath instanceof IndexedSelectorPath &&
                 ((IndexedSelectorPath) selectorPath).getTargetSelectorStep() instanceof AttributeSelectorStep && node.getNodeType() == Node.ELEMENT_NODE) {
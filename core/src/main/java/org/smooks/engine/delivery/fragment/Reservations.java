@@ -0,0 +1,131 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.fragment;
+
+import java.util.Arrays;
+
+/**
+ * Reservations held on a node, stored as {@link NodeFragment} user data. Nodes rarely carry more than a couple of
+ * reservations so entries are kept in parallel arrays, allocated on the first reservation and looked up with a linear
+ * scan.
+ */
+public final class Reservations {
+
+    private static final long[] EMPTY_IDS = new long[0];
+    private static final Object[] EMPTY_TOKENS = new Object[0];
+    private static final boolean[] EMPTY_INHERITABLES = new boolean[0];
+
+    private long[] ids = EMPTY_IDS;
+    private Object[] tokens = EMPTY_TOKENS;
+    private boolean[] inheritables = EMPTY_INHERITABLES;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public Object getToken(final long id) {
+        final int index = indexOf(id);
+        return index < 0 ? null : tokens[index];
+    }
+
+    public void put(final long id, final Object token, final boolean inheritable) {
+        int index = indexOf(id);
+        if (index < 0) {
+            if (size == ids.length) {
+                final int capacity = Math.max(2, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                tokens = Arrays.copyOf(tokens, capacity);
+                inheritables = Arrays.copyOf(inheritables, capacity);
+            }
+            index = size++;
+        }
+        ids[index] = id;
+        tokens[index] = token;
+        inheritables[index] = inheritable;
+    }
+
+    public void remove(final long id) {
+        final int index = indexOf(id);
+        if (index >= 0) {
+            size--;
+            ids[index] = ids[size];
+            tokens[index] = tokens[size];
+            inheritables[index] = inheritables[size];
+            tokens[size] = null;
+        }
+    }
+
+    /**
+     * Copies the inheritable reservations of an ancestor into these reservations, replacing reservations with the
+     * same ID.
+     */
+    public void putInheritable(final Reservations ancestorReservations) {
+        for (int i = 0; i < ancestorReservations.size; i++) {
+            if (ancestorReservations.inheritables[i]) {
+                put(ancestorReservations.ids[i], ancestorReservations.tokens[i], true);
+            }
+        }
+    }
+
+    public Reservations copy() {
+        final Reservations copy = new Reservations();
+        if (size > 0) {
+            copy.ids = Arrays.copyOf(ids, size);
+            copy.tokens = Arrays.copyOf(tokens, size);
+            copy.inheritables = Arrays.copyOf(inheritables, size);
+            copy.size = size;
+        }
+
+        return copy;
+    }
+
+    private int indexOf(final long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -70,7 +70,7 @@ public class ExceptionInterceptor extends AbstractInterceptorVisitor implements
     protected String visitBeforeExceptionMessage;
     protected String visitAfterExceptionMessage;
     protected String visitChildTextExceptionMessage;
-    private String visitChildElementExceptionMessage;
+    protected String visitChildElementExceptionMessage;
 
     @PostConstruct
     public void postConstruct() {
@@ -109,7 +109,7 @@ public class ExceptionInterceptor extends AbstractInterceptorVisitor implements
         }
     }
 
-    private void processVisitorException(final Throwable t, final String exceptionMessage, final ExecutionContext executionContext, final Fragment<?> fragment, final VisitSequence visitSequence, final ContentHandlerBinding<Visitor> visitorBinding) {
+    protected void processVisitorException(final Throwable t, final String exceptionMessage, final ExecutionContext executionContext, final Fragment<?> fragment, final VisitSequence visitSequence, final ContentHandlerBinding<Visitor> visitorBinding) {
         for (ExecutionEventListener executionEventListener : executionContext.getContentDeliveryRuntime().getExecutionEventListeners()) {
             executionEventListener.onEvent(new VisitExecutionEvent<>(fragment, visitorBinding, visitSequence, executionContext, t));
         }
@@ -0,0 +1,180 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.interceptor;
+
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
+import org.smooks.engine.delivery.event.VisitSequence;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Element;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Takes the place of the {@link StaticProxyInterceptor} heading a chain made up of the system interceptors only.
+ * <p/>
+ * The chain is analysed once: visits are dispatched straight to the target visitor, or to the single interceptor
+ * which has work to do for the target, instead of hopping through every interceptor of the chain. The
+ * {@link ExceptionInterceptor} error handling is applied inline and the {@link ExecutionEventInterceptor} is only
+ * called into while execution event listeners are registered.
+ */
+public class FusedInterceptorVisitor extends StaticProxyInterceptor {
+
+    protected ExceptionInterceptor exceptionInterceptor;
+    protected StreamResultWriterInterceptor streamResultWriterInterceptor;
+    protected TextConsumerInterceptor textConsumerInterceptor;
+    protected ExecutionEventInterceptor executionEventInterceptor;
+    protected BeforeVisitor beforeVisitor;
+    protected AfterVisitor afterVisitor;
+    protected ChildrenVisitor childrenVisitor;
+
+    /**
+     * Whether a chain can be fused, i.e., it is made up of the system interceptors, in their default order, heading
+     * the target visitor.
+     *
+     * @param staticProxyInterceptor the head of the chain
+     * @return <code>true</code> if the chain can be fused
+     */
+    public static boolean isFusible(final StaticProxyInterceptor staticProxyInterceptor) {
+        final Class<?>[] chainClasses = {StaticProxyInterceptor.class, ExceptionInterceptor.class, StreamResultWriterInterceptor.class, TextConsumerInterceptor.class, ExecutionEventInterceptor.class};
+        Visitor visitor = staticProxyInterceptor;
+        for (Class<?> chainClass : chainClasses) {
+            if (visitor == null || visitor.getClass() != chainClass) {
+                return false;
+            }
+            visitor = ((InterceptorVisitor) visitor).getVisitorBinding().getContentHandler();
+        }
+
+        return !(visitor instanceof InterceptorVisitor);
+    }
+
+    @PostConstruct
+    public void postConstruct() {
+        exceptionInterceptor = (ExceptionInterceptor) visitorBinding.getContentHandler();
+        streamResultWriterInterceptor = (StreamResultWriterInterceptor) exceptionInterceptor.getVisitorBinding().getContentHandler();
+        textConsumerInterceptor = (TextConsumerInterceptor) streamResultWriterInterceptor.getVisitorBinding().getContentHandler();
+        executionEventInterceptor = (ExecutionEventInterceptor) textConsumerInterceptor.getVisitorBinding().getContentHandler();
+
+        final Visitor visitor = executionEventInterceptor.getVisitorBinding().getContentHandler();
+        beforeVisitor = visitor instanceof BeforeVisitor ? (BeforeVisitor) visitor : null;
+        afterVisitor = visitor instanceof AfterVisitor ? (AfterVisitor) visitor : null;
+        childrenVisitor = visitor instanceof ChildrenVisitor ? (ChildrenVisitor) visitor : null;
+    }
+
+    @Override
+    public void visitBefore(final Element element, final ExecutionContext executionContext) {
+        try {
+            if (streamResultWriterInterceptor.isStreamResultWriter) {
+                streamResultWriterInterceptor.visitBefore(element, executionContext);
+            } else if (beforeVisitor != null) {
+                if (executionContext.getContentDeliveryRuntime().getExecutionEventListeners().isEmpty()) {
+                    beforeVisitor.visitBefore(element, executionContext);
+                } else {
+                    executionEventInterceptor.visitBefore(element, executionContext);
+                }
+            }
+        } catch (Throwable t) {
+            exceptionInterceptor.processVisitorException(t, exceptionInterceptor.visitBeforeExceptionMessage, executionContext, new NodeFragment(element), VisitSequence.BEFORE, exceptionInterceptor.getVisitorBinding());
+        }
+    }
+
+    @Override
+    public void visitAfter(final Element element, final ExecutionContext executionContext) {
+        try {
+            if (streamResultWriterInterceptor.isStreamResultWriter) {
+                streamResultWriterInterceptor.visitAfter(element, executionContext);
+            } else if (textConsumerInterceptor.isTextConsumer) {
+                textConsumerInterceptor.visitAfter(element, executionContext);
+            } else if (afterVisitor != null) {
+                if (executionContext.getContentDeliveryRuntime().getExecutionEventListeners().isEmpty()) {
+                    afterVisitor.visitAfter(element, executionContext);
+                } else {
+                    executionEventInterceptor.visitAfter(element, executionContext);
+                }
+            }
+        } catch (Throwable t) {
+            exceptionInterceptor.processVisitorException(t, exceptionInterceptor.visitAfterExceptionMessage, executionContext, new NodeFragment(element), VisitSequence.AFTER, exceptionInterceptor.getVisitorBinding());
+        }
+    }
+
+    @Override
+    public void visitChildText(final CharacterData characterData, final ExecutionContext executionContext) {
+        try {
+            if (streamResultWriterInterceptor.isStreamResultWriter) {
+                streamResultWriterInterceptor.visitChildText(characterData, executionContext);
+            } else if (textConsumerInterceptor.isTextConsumer) {
+                textConsumerInterceptor.visitChildText(characterData, executionContext);
+            } else if (childrenVisitor != null) {
+                if (executionContext.getContentDeliveryRuntime().getExecutionEventListeners().isEmpty()) {
+                    childrenVisitor.visitChildText(characterData, executionContext);
+                } else {
+                    executionEventInterceptor.visitChildText(characterData, executionContext);
+                }
+            }
+        } catch (Throwable t) {
+            exceptionInterceptor.processVisitorException(t, exceptionInterceptor.visitChildTextExceptionMessage, executionContext, new NodeFragment(characterData), VisitSequence.AFTER, exceptionInterceptor.getVisitorBinding());
+        }
+    }
+
+    @Override
+    public void visitChildElement(final Element childElement, final ExecutionContext executionContext) {
+        try {
+            if (streamResultWriterInterceptor.isStreamResultWriter) {
+                streamResultWriterInterceptor.visitChildElement(childElement, executionContext);
+            } else if (childrenVisitor != null) {
+                if (executionContext.getContentDeliveryRuntime().getExecutionEventListeners().isEmpty()) {
+                    childrenVisitor.visitChildElement(childElement, executionContext);
+                } else {
+                    executionEventInterceptor.visitChildElement(childElement, executionContext);
+                }
+            }
+        } catch (Throwable t) {
+            exceptionInterceptor.processVisitorException(t, exceptionInterceptor.visitChildElementExceptionMessage, executionContext, new NodeFragment(childElement.getParentNode()), VisitSequence.AFTER, exceptionInterceptor.getVisitorBinding());
+        }
+    }
+}
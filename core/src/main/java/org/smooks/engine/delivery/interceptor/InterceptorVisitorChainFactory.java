@@ -89,7 +89,23 @@ public class InterceptorVisitorChainFactory {
                 interceptedVisitorBinding = new DefaultContentHandlerBinding<>(interceptorVisitor, interceptorResourceConfig);
             }
 
-            return interceptedVisitorBinding;
+            return fuse(interceptedVisitorBinding);
+        }
+    }
+
+    /**
+     * Replaces the head of a chain made up of the system interceptors only with a {@link FusedInterceptorVisitor}.
+     * The interceptors remain in the chain, below the fused visitor, for whatever unwraps it.
+     */
+    protected ContentHandlerBinding<Visitor> fuse(final ContentHandlerBinding<Visitor> interceptorChain) {
+        if (interceptorChain.getContentHandler() instanceof StaticProxyInterceptor && FusedInterceptorVisitor.isFusible((StaticProxyInterceptor) interceptorChain.getContentHandler())) {
+            final FusedInterceptorVisitor fusedInterceptorVisitor = new FusedInterceptorVisitor();
+            fusedInterceptorVisitor.setVisitorBinding(((StaticProxyInterceptor) interceptorChain.getContentHandler()).getVisitorBinding());
+            applicationContext.getRegistry().lookup(new LifecycleManagerLookup()).applyPhase(fusedInterceptorVisitor, new PostConstructLifecyclePhase(new Scope(applicationContext.getRegistry(), interceptorChain.getResourceConfig(), fusedInterceptorVisitor)));
+
+            return new DefaultContentHandlerBinding<>(fusedInterceptorVisitor, interceptorChain.getResourceConfig());
+        } else {
+            return interceptorChain;
         }
     }
 
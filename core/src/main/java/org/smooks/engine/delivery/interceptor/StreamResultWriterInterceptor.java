@@ -50,6 +50,7 @@ import org.smooks.api.resource.visitor.dom.DOMElementVisitor;
 import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
 import org.smooks.api.resource.visitor.sax.ng.ElementVisitor;
 import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.delivery.fragment.Reservations;
 import org.smooks.engine.memento.SimpleVisitorMemento;
 import org.smooks.io.FragmentWriter;
 import org.smooks.io.Stream;
@@ -59,8 +60,6 @@ import org.w3c.dom.*;
 import jakarta.annotation.PostConstruct;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 public class StreamResultWriterInterceptor extends AbstractInterceptorVisitor implements ElementVisitor, DOMElementVisitor {
 
@@ -313,10 +312,10 @@ public class StreamResultWriterInterceptor extends AbstractInterceptorVisitor im
         @Override
         public Object getUserData(String key) {
             final Object userData = node.getUserData(key);
-            if (NodeFragment.RESERVATIONS_USER_DATA_KEY.equals(key)) {
-                final Map<Long, Object> reservedTokens = new HashMap<>((Map<Long, Object>) userData);
-                reservedTokens.remove(FragmentWriter.RESERVED_WRITE_FRAGMENT_ID);
-                return reservedTokens;
+            if (NodeFragment.RESERVATIONS_USER_DATA_KEY.equals(key) && userData != null) {
+                final Reservations reservations = ((Reservations) userData).copy();
+                reservations.remove(FragmentWriter.RESERVED_WRITE_FRAGMENT_ID);
+                return reservations;
             } else {
                 return userData;
             }
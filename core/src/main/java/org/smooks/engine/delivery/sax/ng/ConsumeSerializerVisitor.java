@@ -125,17 +125,12 @@ public class ConsumeSerializerVisitor extends SimpleSerializerVisitor implements
         executionContext.getMementoCaretaker().restore(elementMemento);
         try {
             if (closeEmptyElements && !elementMemento.isOpen()) {
-                writer.write('<');
-                writer.write(element.getTagName());
-                domSerializer.writeAttributes(element.getAttributes(), writer);
-                writer.write("/>");
+                domSerializer.writeEmptyElement(element, writer);
             } else {
                 if (!elementMemento.isOpen()) {
                     writeStartElement(element, executionContext);
                 }
-                writer.write("</");
-                writer.write(element.getTagName());
-                writer.write('>');
+                domSerializer.writeEndTag(element, writer);
             }
 
             writer.flush();
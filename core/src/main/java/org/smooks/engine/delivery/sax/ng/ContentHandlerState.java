@@ -43,13 +43,26 @@
 package org.smooks.engine.delivery.sax.ng;
 
 import org.smooks.api.delivery.sax.TextType;
+import org.w3c.dom.Element;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.namespace.QName;
 
 class ContentHandlerState {
     private TextType textType = TextType.TEXT;
     private ContentHandlerState previousContentHandlerState;
     private boolean isNullProcessor;
     private SaxNgVisitorBindings visitorBindings;
+    private SelectorAutomaton.State selectorState;
     private int maxDepth = 1;
+    private int depth;
+    private boolean isDeferred;
+    private QName elementQName;
+    private AttributesImpl attributes;
+    private Element element;
+    private SystemConsumeSerializerVisitor passthroughSerializer;
+    private boolean isStartTagPending;
 
     public ContentHandlerState getPreviousContentHandlerState() {
         return previousContentHandlerState;
@@ -75,6 +88,14 @@ class ContentHandlerState {
         return visitorBindings;
     }
 
+    public SelectorAutomaton.State getSelectorState() {
+        return selectorState;
+    }
+
+    public void setSelectorState(SelectorAutomaton.State selectorState) {
+        this.selectorState = selectorState;
+    }
+
     public TextType getTextType() {
         return textType;
     }
@@ -90,4 +111,94 @@ class ContentHandlerState {
     public void setMaxDepth(int maxDepth) {
         this.maxDepth = maxDepth;
     }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Whether this state stands in for an element whose DOM node is only created once a descendant needs it.
+     */
+    public boolean isDeferred() {
+        return isDeferred;
+    }
+
+    public void setDeferred(QName elementQName, Attributes attributes) {
+        this.isDeferred = true;
+        this.elementQName = elementQName;
+        if (this.attributes == null) {
+            this.attributes = new AttributesImpl();
+        } else {
+            this.attributes.clear();
+        }
+        for (int i = 0; i < attributes.getLength(); i++) {
+            this.attributes.addAttribute(attributes.getURI(i), attributes.getLocalName(i), attributes.getQName(i), attributes.getType(i), attributes.getValue(i));
+        }
+    }
+
+    /**
+     * Whether this state stands in for an element whose events are copied straight to the result by its serializer.
+     * A passthrough element is also deferred so that a descendant bound to a visitor can still materialize it.
+     */
+    public boolean isPassthrough() {
+        return passthroughSerializer != null;
+    }
+
+    public SystemConsumeSerializerVisitor getPassthroughSerializer() {
+        return passthroughSerializer;
+    }
+
+    public void setPassthroughSerializer(SystemConsumeSerializerVisitor passthroughSerializer) {
+        this.passthroughSerializer = passthroughSerializer;
+    }
+
+    /**
+     * Whether the start tag of this passthrough element was written without its closing <code>&gt;</code>, which is
+     * left out until the element turns out to have content.
+     */
+    public boolean isStartTagPending() {
+        return isStartTagPending;
+    }
+
+    public void setStartTagPending(boolean startTagPending) {
+        isStartTagPending = startTagPending;
+    }
+
+    public QName getElementQName() {
+        return elementQName;
+    }
+
+    public Attributes getAttributes() {
+        return attributes;
+    }
+
+    public Element getElement() {
+        return element;
+    }
+
+    public void setElement(Element element) {
+        this.element = element;
+    }
+
+    public void reset() {
+        textType = TextType.TEXT;
+        previousContentHandlerState = null;
+        isNullProcessor = false;
+        visitorBindings = null;
+        selectorState = null;
+        maxDepth = 1;
+        depth = 0;
+        isDeferred = false;
+        elementQName = null;
+        if (attributes != null) {
+            attributes.clear();
+        }
+        element = null;
+        passthroughSerializer = null;
+        isStartTagPending = false;
+    }
 }
\ No newline at end of file
@@ -55,10 +55,10 @@ import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
 import org.smooks.engine.delivery.AbstractContentDeliveryConfig;
 import org.smooks.engine.delivery.ContentHandlerBindingIndex;
 import org.smooks.engine.delivery.ordering.Sorter;
+import org.smooks.engine.delivery.sax.ng.org.apache.xerces.jaxp.DocumentBuilderFactoryImpl;
 import org.smooks.engine.resource.config.ParameterAccessor;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -77,9 +77,12 @@ public class SaxNgContentDeliveryConfig extends AbstractContentDeliveryConfig {
     private final ContentHandlerBindingIndex<BeforeVisitor> beforeVisitorIndex = new ContentHandlerBindingIndex<>();
     private final ContentHandlerBindingIndex<AfterVisitor> afterVisitorIndex = new ContentHandlerBindingIndex<>();
     private volatile Map<String, SaxNgVisitorBindings> reducedIndex;
+    private volatile SelectorAutomaton selectorAutomaton;
     private Integer maxNodeDepth;
     private Boolean rewriteEntities;
     private Boolean maintainElementStack;
+    private Boolean lazyElementStack;
+    private Boolean passthroughSerialization;
     private Boolean reverseVisitOrderOnVisitAfter;
     private Boolean terminateOnVisitorException;
     private Optional<FilterBypass> filterBypass;
@@ -109,7 +112,8 @@ public class SaxNgContentDeliveryConfig extends AbstractContentDeliveryConfig {
         DocumentBuilder documentBuilder = cachedDocumentBuilder.get();
         if (documentBuilder == null) {
             try {
-                documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+                // bind to the bundled DOM, whose nodes keep Smooks' fragment user data inline, rather than whichever factory the classpath resolves
+                documentBuilder = new DocumentBuilderFactoryImpl().newDocumentBuilder();
                 cachedDocumentBuilder.set(documentBuilder);
             } catch (ParserConfigurationException e) {
                 throw new SmooksException(e);
@@ -132,6 +136,18 @@ public class SaxNgContentDeliveryConfig extends AbstractContentDeliveryConfig {
         addToExecutionLifecycleSets(afterVisitorIndex);
     }
 
+    SelectorAutomaton getSelectorAutomaton() {
+        if (selectorAutomaton == null) {
+            synchronized (this) {
+                if (selectorAutomaton == null) {
+                    selectorAutomaton = new SelectorAutomaton(this);
+                }
+            }
+        }
+
+        return selectorAutomaton;
+    }
+
     public SaxNgVisitorBindings get(String selector) {
         if (reducedIndex == null) {
             synchronized (this) {
@@ -291,6 +307,20 @@ public class SaxNgContentDeliveryConfig extends AbstractContentDeliveryConfig {
         return maintainElementStack;
     }
 
+    public boolean isLazyElementStack() {
+        if (lazyElementStack == null) {
+            lazyElementStack = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.LAZY_ELEMENT_STACK, String.class, "false", this));
+        }
+        return lazyElementStack;
+    }
+
+    public boolean isPassthroughSerialization() {
+        if (passthroughSerialization == null) {
+            passthroughSerialization = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.PASSTHROUGH_SERIALIZATION, String.class, "false", this));
+        }
+        return passthroughSerialization;
+    }
+
     public boolean isReverseVisitOrderOnVisitAfter() {
         if (reverseVisitOrderOnVisitAfter == null) {
             reverseVisitOrderOnVisitAfter = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.REVERSE_VISIT_ORDER_ON_VISIT_AFTER, String.class, "true", this));
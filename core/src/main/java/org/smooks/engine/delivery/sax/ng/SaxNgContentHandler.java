@@ -48,8 +48,10 @@ import org.smooks.api.delivery.ContentDeliveryRuntime;
 import org.smooks.api.delivery.ContentHandlerBinding;
 import org.smooks.api.delivery.event.ExecutionEventListener;
 import org.smooks.api.delivery.sax.TextType;
+import org.smooks.api.expression.ExecutionContextExpressionEvaluator;
 import org.smooks.api.lifecycle.LifecycleManager;
-import org.smooks.api.resource.config.ResourceConfig;
+import org.smooks.api.lifecycle.PostFragmentLifecycle;
+import org.smooks.api.resource.config.xpath.SelectorPath;
 import org.smooks.api.resource.visitor.Visitor;
 import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
 import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
@@ -65,6 +67,8 @@ import org.smooks.engine.lifecycle.PostFragmentPhase;
 import org.smooks.engine.lookup.LifecycleManagerLookup;
 import org.smooks.engine.memento.TextAccumulatorMemento;
 import org.smooks.engine.xml.DocType;
+import org.smooks.io.FragmentWriter;
+import org.smooks.io.SAXWriter;
 import org.smooks.io.Stream;
 import org.smooks.support.DomUtils;
 import org.smooks.support.XmlUtils;
@@ -72,6 +76,7 @@ import org.w3c.dom.CharacterData;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import javax.xml.XMLConstants;
@@ -88,18 +93,24 @@ public class SaxNgContentHandler extends SmooksContentHandler {
     private final Writer writer;
     private final SaxNgContentDeliveryConfig deliveryConfig;
     private final SaxNgVisitorBindings globalVisitorBindings;
+    private final SelectorAutomaton selectorAutomaton;
     private final ContentDeliveryRuntime contentDeliveryRuntime;
     private final int globalMaxNodeDepth;
     private final boolean maintainElementStack;
+    private final boolean lazyElementStack;
     private final boolean reverseVisitOrderOnVisitAfter;
     private final boolean rewriteEntities;
+    private final boolean passthroughSerialization;
+    private final boolean defaultSerializationOn;
     private final LifecycleManager lifecycleManager;
     private final StringBuilder entityBuilder = new StringBuilder(10);
     private final DocumentBuilder documentBuilder;
 
     private ContentHandlerState currentContentHandlerState;
+    private ContentHandlerState freeContentHandlerState;
     private NodeFragment currentNodeFragment;
     private Document document;
+    private int[] attributeOrder = new int[8];
 
     public SaxNgContentHandler(final ExecutionContext executionContext, final DocumentBuilder documentBuilder) {
         this(executionContext, documentBuilder, null);
@@ -115,14 +126,16 @@ public class SaxNgContentHandler extends SmooksContentHandler {
         lifecycleManager = executionContext.getApplicationContext().getRegistry().lookup(new LifecycleManagerLookup());
         deliveryConfig = ((SaxNgContentDeliveryConfig) contentDeliveryRuntime.getContentDeliveryConfig());
 
-        final SaxNgVisitorBindings starVisitorBindings = deliveryConfig.get("*");
-        final SaxNgVisitorBindings starStarVisitorBindings = deliveryConfig.get("//");
-
-        globalVisitorBindings = starVisitorBindings != null ? starVisitorBindings.merge(starStarVisitorBindings) : starStarVisitorBindings;
+        selectorAutomaton = deliveryConfig.getSelectorAutomaton();
+        globalVisitorBindings = selectorAutomaton.getGlobalVisitorBindings();
         rewriteEntities = deliveryConfig.isRewriteEntities();
         maintainElementStack = deliveryConfig.isMaintainElementStack();
+        lazyElementStack = deliveryConfig.isLazyElementStack();
         globalMaxNodeDepth = deliveryConfig.getMaxNodeDepth() == 0 ? Integer.MAX_VALUE : deliveryConfig.getMaxNodeDepth();
         reverseVisitOrderOnVisitAfter = deliveryConfig.isReverseVisitOrderOnVisitAfter();
+        // the DOM node of an element is only kept beyond its end when the max node depth is raised
+        passthroughSerialization = deliveryConfig.isPassthroughSerialization() && lazyElementStack && globalMaxNodeDepth == 1;
+        defaultSerializationOn = deliveryConfig.isDefaultSerializationOn();
     }
 
     @Override
@@ -135,61 +148,328 @@ public class SaxNgContentHandler extends SmooksContentHandler {
         document.setStrictErrorChecking(false);
         currentNodeFragment = null;
         currentContentHandlerState = new ContentHandlerState();
+        currentContentHandlerState.setSelectorState(selectorAutomaton.getDocumentState());
+        currentContentHandlerState.setDepth(-1);
     }
 
     @Override
     public void startElement(final StartElementEvent startEvent) {
         final boolean isRoot = (currentContentHandlerState.getPreviousContentHandlerState() == null);
-        final QName elementQName = XmlUtils.toQName(startEvent.uri, startEvent.localName, startEvent.qName);
-        final String elementName = elementQName != null ? elementQName.getLocalPart() : null;
-
-        SaxNgVisitorBindings visitorBindings;
-        if (isRoot) {
-            visitorBindings = deliveryConfig.get(ResourceConfig.DOCUMENT_FRAGMENT_SELECTOR, elementName);
-        } else {
-            visitorBindings = deliveryConfig.get(elementName);
-        }
-
-        if (visitorBindings == null) {
-            visitorBindings = globalVisitorBindings;
+        if (currentContentHandlerState.isStartTagPending()) {
+            closePendingStartTag();
         }
+        final QName elementQName = XmlUtils.toQName(startEvent.uri, startEvent.localName, startEvent.qName);
+        final SelectorAutomaton.Transition transition = currentContentHandlerState.getSelectorState().transition(elementQName);
+        final SaxNgVisitorBindings visitorBindings = transition.getVisitorBindings();
 
         if (!maintainElementStack && visitorBindings == null) {
             final ContentHandlerState contentHandlerState = new ContentHandlerState();
             contentHandlerState.setNullProcessor(true);
+            contentHandlerState.setSelectorState(transition.getState());
             contentHandlerState.setPreviousContentHandlerState(currentContentHandlerState);
+            contentHandlerState.setDepth(currentContentHandlerState.getDepth() + 1);
             currentContentHandlerState = contentHandlerState;
             final StartFragmentExecutionEvent<Node> startFragmentEvent = new StartFragmentExecutionEvent<>(currentNodeFragment);
             for (ExecutionEventListener executionEventListener : contentDeliveryRuntime.getExecutionEventListeners()) {
                 executionEventListener.onEvent(startFragmentEvent);
             }
+        } else if (isPassthrough(transition, isRoot)) {
+            final ContentHandlerState contentHandlerState = newContentHandlerState();
+            contentHandlerState.setDeferred(elementQName, startEvent.attributes);
+            contentHandlerState.setPassthroughSerializer(transition.getPassthroughSerializer());
+            contentHandlerState.setSelectorState(transition.getState());
+            contentHandlerState.setPreviousContentHandlerState(currentContentHandlerState);
+            contentHandlerState.setDepth(currentContentHandlerState.getDepth() + 1);
+            currentContentHandlerState = contentHandlerState;
+            writePassthroughStartTag();
+        } else if (visitorBindings == null && !isRoot && isDeferrable()) {
+            final ContentHandlerState contentHandlerState = newContentHandlerState();
+            contentHandlerState.setDeferred(elementQName, startEvent.attributes);
+            contentHandlerState.setSelectorState(transition.getState());
+            contentHandlerState.setPreviousContentHandlerState(currentContentHandlerState);
+            contentHandlerState.setDepth(currentContentHandlerState.getDepth() + 1);
+            currentContentHandlerState = contentHandlerState;
         } else {
-            final Element element = document.createElementNS(elementQName.getNamespaceURI(), elementQName.getPrefix().equals("") ? elementQName.getLocalPart() : elementQName.getPrefix() + ":" + elementQName.getLocalPart());
-            for (int i = 0; i < startEvent.attributes.getLength(); i++) {
-                if (XMLConstants.NULL_NS_URI.equals(startEvent.attributes.getURI(i))) {
-                    element.setAttribute(startEvent.attributes.getLocalName(i), startEvent.attributes.getValue(i));
+            final Element element = createElement(elementQName, startEvent.attributes);
+            if (isRoot) {
+                if (document.getFirstChild() != null) {
+                    document.removeChild(document.getFirstChild());
+                }
+                document.appendChild(element);
+            } else {
+                materialize(currentContentHandlerState);
+                currentNodeFragment.unwrap().appendChild(element);
+                onChildElement(element);
+            }
+
+            visitBefore(element, visitorBindings, transition.getState());
+        }
+    }
+
+    protected Element createElement(final QName elementQName, final Attributes attributes) {
+        final Element element = document.createElementNS(elementQName.getNamespaceURI(), elementQName.getPrefix().equals("") ? elementQName.getLocalPart() : elementQName.getPrefix() + ":" + elementQName.getLocalPart());
+        for (int i = 0; i < attributes.getLength(); i++) {
+            if (XMLConstants.NULL_NS_URI.equals(attributes.getURI(i))) {
+                element.setAttribute(attributes.getLocalName(i), attributes.getValue(i));
+            } else {
+                element.setAttributeNS(attributes.getURI(i), attributes.getQName(i), attributes.getValue(i));
+            }
+        }
+
+        return element;
+    }
+
+    /**
+     * An element without visitor bindings can have its DOM node deferred when nothing could observe the node before
+     * one of its descendants does: the parent has no child visitors, no execution event listeners are registered and
+     * the element is deep enough to be pruned from the DOM at its end anyway.
+     */
+    protected boolean isDeferrable() {
+        return lazyElementStack &&
+                contentDeliveryRuntime.getExecutionEventListeners().isEmpty() &&
+                !hasChildVisitors(currentContentHandlerState) &&
+                currentContentHandlerState.getDepth() + 1 >= Math.max(globalMaxNodeDepth, findMaxNodeDepth(currentContentHandlerState));
+    }
+
+    /**
+     * An element bound to nothing but the system serializer is passed through, that is, its events are written
+     * straight to the result stream instead of being turned into DOM nodes for the serializer to visit. Only
+     * elements whose ancestors are all passed through qualify since any other ancestor may be observing its
+     * descendants.
+     */
+    protected boolean isPassthrough(final SelectorAutomaton.Transition transition, final boolean isRoot) {
+        return passthroughSerialization &&
+                transition.getPassthroughSerializer() != null &&
+                contentDeliveryRuntime.getExecutionEventListeners().isEmpty() &&
+                (isRoot ? !isSAXWriter(Stream.out(executionContext)) : currentContentHandlerState.isPassthrough());
+    }
+
+    private static boolean isSAXWriter(final Writer writer) {
+        return writer instanceof SAXWriter || (writer instanceof FragmentWriter && ((FragmentWriter) writer).getDelegateWriter() instanceof SAXWriter);
+    }
+
+    protected void writePassthroughStartTag() {
+        if (!defaultSerializationOn) {
+            return;
+        }
+        final QName elementQName = currentContentHandlerState.getElementQName();
+        final Attributes attributes = currentContentHandlerState.getAttributes();
+        final boolean rewriteEntities = currentContentHandlerState.getPassthroughSerializer().rewriteEntities;
+        final Writer passthroughWriter = Stream.out(executionContext);
+        try {
+            passthroughWriter.write('<');
+            writeTagName(elementQName, passthroughWriter);
+
+            // written in the order of the DOM serializer, which gets the attributes sorted by name
+            final int attributeCount = attributes.getLength();
+            if (attributeOrder.length < attributeCount) {
+                attributeOrder = new int[attributeCount];
+            }
+            for (int i = 0; i < attributeCount; i++) {
+                int j = i;
+                while (j > 0 && getAttributeName(attributes, attributeOrder[j - 1]).compareTo(getAttributeName(attributes, i)) > 0) {
+                    attributeOrder[j] = attributeOrder[j - 1];
+                    j--;
+                }
+                attributeOrder[j] = i;
+            }
+            for (int i = 0; i < attributeCount; i++) {
+                final String attributeValue = attributes.getValue(attributeOrder[i]);
+                passthroughWriter.write(' ');
+                passthroughWriter.write(getAttributeName(attributes, attributeOrder[i]));
+                passthroughWriter.write('=');
+                if (rewriteEntities) {
+                    passthroughWriter.write('"');
+                    XmlUtils.encodeAttributeValue(attributeValue, passthroughWriter);
+                    passthroughWriter.write('"');
                 } else {
-                    element.setAttributeNS(startEvent.attributes.getURI(i), startEvent.attributes.getQName(i), startEvent.attributes.getValue(i));
+                    final char enclosingChar = attributeValue.indexOf('"') != -1 ? '\'' : '"';
+                    passthroughWriter.write(enclosingChar);
+                    passthroughWriter.write(attributeValue);
+                    passthroughWriter.write(enclosingChar);
                 }
             }
+        } catch (IOException e) {
+            throw new SmooksException(e.getMessage(), e);
+        }
+        currentContentHandlerState.setStartTagPending(true);
+    }
 
-            if (isRoot) {
+    private static String getAttributeName(final Attributes attributes, final int index) {
+        return XMLConstants.NULL_NS_URI.equals(attributes.getURI(index)) ? attributes.getLocalName(index) : attributes.getQName(index);
+    }
+
+    private static void writeTagName(final QName elementQName, final Writer writer) throws IOException {
+        if (!elementQName.getPrefix().equals("")) {
+            writer.write(elementQName.getPrefix());
+            writer.write(':');
+        }
+        writer.write(elementQName.getLocalPart());
+    }
+
+    protected void closePendingStartTag() {
+        try {
+            Stream.out(executionContext).write('>');
+        } catch (IOException e) {
+            throw new SmooksException(e.getMessage(), e);
+        }
+        currentContentHandlerState.setStartTagPending(false);
+    }
+
+    protected void endPassthroughElement() {
+        final ContentHandlerState passthroughContentHandlerState = currentContentHandlerState;
+        if (!contentDeliveryRuntime.getExecutionEventListeners().isEmpty()) {
+            // a listener registered since the element started may still be waiting for it to end
+            materialize(passthroughContentHandlerState);
+            final EndFragmentExecutionEvent endFragmentEvent = new EndFragmentExecutionEvent(currentNodeFragment);
+            for (ExecutionEventListener executionEventListener : contentDeliveryRuntime.getExecutionEventListeners()) {
+                executionEventListener.onEvent(endFragmentEvent);
+            }
+        }
+
+        if (defaultSerializationOn) {
+            final Writer passthroughWriter = Stream.out(executionContext);
+            try {
+                if (passthroughContentHandlerState.isStartTagPending() && passthroughContentHandlerState.getPassthroughSerializer().closeEmptyElements) {
+                    passthroughWriter.write("/>");
+                } else {
+                    if (passthroughContentHandlerState.isStartTagPending()) {
+                        passthroughWriter.write('>');
+                    }
+                    passthroughWriter.write("</");
+                    writeTagName(passthroughContentHandlerState.getElementQName(), passthroughWriter);
+                    passthroughWriter.write('>');
+                }
+            } catch (IOException e) {
+                throw new SmooksException(e.getMessage(), e);
+            }
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new SmooksException(e.getMessage(), e);
+        }
+
+        final Element element = passthroughContentHandlerState.getElement();
+        if (element != null) {
+            executionContext.getMementoCaretaker().forget(currentNodeFragment);
+            final Node parentNode = element.getParentNode();
+            parentNode.removeChild(element);
+            currentNodeFragment = parentNode.getNodeType() == Node.DOCUMENT_NODE ? null : new NodeFragment(parentNode);
+        }
+        currentContentHandlerState = passthroughContentHandlerState.getPreviousContentHandlerState();
+        releaseContentHandlerState(passthroughContentHandlerState);
+    }
+
+    protected void writePassthroughCharacters(final char[] ch, final int start, final int length) {
+        if (!defaultSerializationOn) {
+            return;
+        }
+        if (currentContentHandlerState.isStartTagPending()) {
+            closePendingStartTag();
+        }
+        final boolean rewriteEntities = currentContentHandlerState.getPassthroughSerializer().rewriteEntities;
+        final Writer passthroughWriter = Stream.out(executionContext);
+        try {
+            switch (currentContentHandlerState.getTextType()) {
+                case CDATA:
+                    passthroughWriter.write("<![CDATA[");
+                    passthroughWriter.write(ch, start, length);
+                    passthroughWriter.write("]]>");
+                    break;
+                case COMMENT:
+                    passthroughWriter.write("<!--");
+                    passthroughWriter.write(ch, start, length);
+                    passthroughWriter.write("-->");
+                    break;
+                case ENTITY:
+                    if (!this.rewriteEntities) {
+                        entityBuilder.setLength(0);
+                        entityBuilder.append("&#").append((int) ch[start]).append(';');
+                        if (rewriteEntities) {
+                            XmlUtils.encodeTextValue(entityBuilder, passthroughWriter);
+                        } else {
+                            passthroughWriter.append(entityBuilder);
+                        }
+                        break;
+                    }
+                default:
+                    if (rewriteEntities) {
+                        XmlUtils.encodeTextValue(ch, start, length, passthroughWriter);
+                    } else {
+                        passthroughWriter.write(ch, start, length);
+                    }
+            }
+        } catch (IOException e) {
+            throw new SmooksException(e.getMessage(), e);
+        }
+    }
+
+    protected boolean hasChildVisitors(final ContentHandlerState contentHandlerState) {
+        if (contentHandlerState.getVisitorBindings() == null) {
+            return false;
+        }
+        List<ContentHandlerBinding<ChildrenVisitor>> childVisitorBindings = contentHandlerState.getVisitorBindings().getChildVisitors();
+        if (childVisitorBindings == null && globalVisitorBindings != null) {
+            childVisitorBindings = globalVisitorBindings.getChildVisitors();
+        }
+
+        return childVisitorBindings != null && !childVisitorBindings.isEmpty();
+    }
+
+    /**
+     * Creates the DOM nodes of the deferred elements on top of the stack, outermost first, so that the next element
+     * is appended to a complete ancestor chain.
+     */
+    protected void materialize(final ContentHandlerState contentHandlerState) {
+        if (contentHandlerState.isDeferred() && contentHandlerState.getElement() == null) {
+            materialize(contentHandlerState.getPreviousContentHandlerState());
+            final Element element = createElement(contentHandlerState.getElementQName(), contentHandlerState.getAttributes());
+            if (currentNodeFragment == null) {
                 if (document.getFirstChild() != null) {
                     document.removeChild(document.getFirstChild());
                 }
                 document.appendChild(element);
             } else {
                 currentNodeFragment.unwrap().appendChild(element);
-                onChildElement(element);
             }
+            contentHandlerState.setElement(element);
+            currentNodeFragment = new NodeFragment(element);
+        }
+    }
 
-            visitBefore(element, visitorBindings);
+    protected ContentHandlerState newContentHandlerState() {
+        if (freeContentHandlerState == null) {
+            return new ContentHandlerState();
+        } else {
+            final ContentHandlerState contentHandlerState = freeContentHandlerState;
+            freeContentHandlerState = contentHandlerState.getPreviousContentHandlerState();
+            contentHandlerState.setPreviousContentHandlerState(null);
+            return contentHandlerState;
         }
     }
 
+    protected void releaseContentHandlerState(final ContentHandlerState contentHandlerState) {
+        contentHandlerState.reset();
+        contentHandlerState.setPreviousContentHandlerState(freeContentHandlerState);
+        freeContentHandlerState = contentHandlerState;
+    }
+
     @SuppressWarnings("RedundantThrows")
     @Override
     public void endElement(final EndElementEvent endEvent) throws SAXException {
+        if (currentContentHandlerState.isPassthrough()) {
+            endPassthroughElement();
+            return;
+        }
+
+        if (currentContentHandlerState.isDeferred() && currentContentHandlerState.getElement() == null) {
+            final ContentHandlerState deferredContentHandlerState = currentContentHandlerState;
+            currentContentHandlerState = deferredContentHandlerState.getPreviousContentHandlerState();
+            releaseContentHandlerState(deferredContentHandlerState);
+            return;
+        }
+
         if (!contentDeliveryRuntime.getExecutionEventListeners().isEmpty()) {
             final EndFragmentExecutionEvent endFragmentEvent = new EndFragmentExecutionEvent(currentNodeFragment);
             for (ExecutionEventListener executionEventListener : contentDeliveryRuntime.getExecutionEventListeners()) {
@@ -230,9 +510,12 @@ public class SaxNgContentHandler extends SmooksContentHandler {
             }
 
             final List<ContentHandlerBinding<? extends Visitor>> visitorBindings = currentContentHandlerState.getVisitorBindings().getAll();
-            final PostFragmentPhase postFragmentPhase = new PostFragmentPhase(currentNodeFragment, executionContext);
+            PostFragmentPhase postFragmentPhase = null;
             for (final ContentHandlerBinding<? extends Visitor> visitorBinding : visitorBindings) {
-                if (currentNodeFragment.isMatch(visitorBinding.getResourceConfig().getSelectorPath(), executionContext)) {
+                if (visitorBinding.getContentHandler() instanceof PostFragmentLifecycle && isMatch(visitorBinding)) {
+                    if (postFragmentPhase == null) {
+                        postFragmentPhase = new PostFragmentPhase(currentNodeFragment, executionContext);
+                    }
                     lifecycleManager.applyPhase(visitorBinding.getContentHandler(), postFragmentPhase);
                 }
             }
@@ -246,6 +529,9 @@ public class SaxNgContentHandler extends SmooksContentHandler {
             parentNode.removeChild(currentNode);
         }
         this.currentNodeFragment = new NodeFragment(parentNode);
+        if (currentContentHandlerState.isDeferred()) {
+            releaseContentHandlerState(currentContentHandlerState);
+        }
         currentContentHandlerState = previousContentHandlerState;
     }
 
@@ -260,11 +546,13 @@ public class SaxNgContentHandler extends SmooksContentHandler {
         return maxNodeDepth;
     }
 
-    protected void visitBefore(final Element element, final SaxNgVisitorBindings saxNgVisitorBindings) {
+    protected void visitBefore(final Element element, final SaxNgVisitorBindings saxNgVisitorBindings, final SelectorAutomaton.State selectorState) {
         currentNodeFragment = new NodeFragment(element);
         final ContentHandlerState contentHandlerState = new ContentHandlerState();
         contentHandlerState.setPreviousContentHandlerState(currentContentHandlerState);
+        contentHandlerState.setDepth(currentContentHandlerState.getDepth() + 1);
         contentHandlerState.setVisitorBindings(saxNgVisitorBindings);
+        contentHandlerState.setSelectorState(selectorState);
 
         currentContentHandlerState = contentHandlerState;
         if (currentContentHandlerState.getVisitorBindings() != null) {
@@ -277,7 +565,7 @@ public class SaxNgContentHandler extends SmooksContentHandler {
             if (visitBeforeBindings != null) {
                 int maxNodeDepth = 1;
                 for (final ContentHandlerBinding<BeforeVisitor> visitBeforeBinding : visitBeforeBindings) {
-                    if (currentNodeFragment.isMatch(visitBeforeBinding.getResourceConfig().getSelectorPath(), executionContext)) {
+                    if (isMatch(visitBeforeBinding)) {
                         if (visitBeforeBinding.getContentHandler() instanceof ParameterizedVisitor) {
                             maxNodeDepth = Math.max(maxNodeDepth, ((ParameterizedVisitor) visitBeforeBinding.getContentHandler()).getMaxNodeDepth());
                         }
@@ -305,7 +593,7 @@ public class SaxNgContentHandler extends SmooksContentHandler {
 
             if (childVisitorBindings != null) {
                 for (final ContentHandlerBinding<ChildrenVisitor> contentHandlerBinding : childVisitorBindings) {
-                    if (currentNodeFragment.isMatch(contentHandlerBinding.getResourceConfig().getSelectorPath(), executionContext)) {
+                    if (isMatch(contentHandlerBinding)) {
                         contentHandlerBinding.getContentHandler().visitChildElement(childElement, executionContext);
                     }
                 }
@@ -314,11 +602,25 @@ public class SaxNgContentHandler extends SmooksContentHandler {
     }
 
     protected void visitAfter(final ContentHandlerBinding<AfterVisitor> afterVisitorBinding) {
-        if (currentNodeFragment.isMatch(afterVisitorBinding.getResourceConfig().getSelectorPath(), executionContext)) {
+        if (isMatch(afterVisitorBinding)) {
             afterVisitorBinding.getContentHandler().visitAfter((Element) currentNodeFragment.unwrap(), executionContext);
         }
     }
 
+    /**
+     * Matches a binding of the current element's state against the current fragment. Bindings whose selectors were
+     * compiled into the {@link SelectorAutomaton} were only handed to this state if the element satisfies their
+     * structure, leaving just their condition to be evaluated.
+     */
+    protected boolean isMatch(final ContentHandlerBinding<?> contentHandlerBinding) {
+        final SelectorPath selectorPath = contentHandlerBinding.getResourceConfig().getSelectorPath();
+        if (selectorAutomaton.isCompiled(selectorPath)) {
+            return selectorPath.getConditionEvaluator() == null || ((ExecutionContextExpressionEvaluator) selectorPath.getConditionEvaluator()).eval(executionContext);
+        } else {
+            return currentNodeFragment.isMatch(selectorPath, executionContext);
+        }
+    }
+
     @Override
     public void characters(final char[] ch, final int start, final int length) {
         if (currentContentHandlerState.getTextType() != TextType.CDATA) {
@@ -335,7 +637,9 @@ public class SaxNgContentHandler extends SmooksContentHandler {
             entityBuilder.getChars(0, entityBuilder.length(), new char[entityBuilder.length()], 0);
         }
 
-        if (currentNodeFragment != null) {
+        if (currentContentHandlerState.isPassthrough()) {
+            writePassthroughCharacters(ch, start, length);
+        } else if (currentNodeFragment != null && !(currentContentHandlerState.isDeferred() && currentContentHandlerState.getElement() == null)) {
             final CharacterData characterData;
             switch (currentContentHandlerState.getTextType()) {
                 case CDATA:
@@ -367,7 +671,7 @@ public class SaxNgContentHandler extends SmooksContentHandler {
 
                 if (childVisitorBindings != null) {
                     for (final ContentHandlerBinding<ChildrenVisitor> childrenVisitorBinding : childVisitorBindings) {
-                        if (currentNodeFragment.isMatch(childrenVisitorBinding.getResourceConfig().getSelectorPath(), executionContext)) {
+                        if (isMatch(childrenVisitorBinding)) {
                             childrenVisitorBinding.getContentHandler().visitChildText(characterData, executionContext);
                         }
                     }
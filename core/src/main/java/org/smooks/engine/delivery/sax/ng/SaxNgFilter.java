@@ -48,12 +48,13 @@ import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksException;
 import org.smooks.engine.delivery.AbstractFilter;
 import org.smooks.engine.delivery.sax.ng.terminate.TerminateException;
+import org.smooks.io.DomBuilder;
+import org.smooks.io.SAXWriter;
 import org.smooks.io.Stream;
 import org.smooks.io.payload.FilterResult;
 import org.smooks.io.payload.FilterSource;
 import org.smooks.io.payload.JavaSource;
 import org.smooks.support.DomUtils;
-import org.smooks.support.XmlUtils;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.Result;
@@ -62,8 +63,9 @@ import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
-import java.io.StringReader;
+import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 public class SaxNgFilter extends AbstractFilter {
 
@@ -73,11 +75,13 @@ public class SaxNgFilter extends AbstractFilter {
     protected final boolean closeSource;
     protected final boolean closeResult;
     protected final SaxNgParser parser;
+    protected final DocumentBuilder documentBuilder;
 
     public SaxNgFilter(final ExecutionContext executionContext, final DocumentBuilder documentBuilder, boolean closeSource, boolean closeResult) {
         this.executionContext = executionContext;
         this.closeSource = closeSource;
         this.closeResult = closeResult;
+        this.documentBuilder = documentBuilder;
         parser = new SaxNgParser(executionContext, documentBuilder);
     }
 
@@ -104,23 +108,34 @@ public class SaxNgFilter extends AbstractFilter {
             }
         }
 
+        Writer writer = null;
         try {
-            final Writer writer = getWriter(result, executionContext);
+            writer = getWriter(result, executionContext);
             executionContext.put(Stream.STREAM_WRITER_TYPED_KEY, writer);
             parser.parse(source, executionContext);
 
             if (result instanceof DOMResult) {
-                ((DOMResult) result).setNode(XmlUtils.parseStream(new StringReader(writer.toString())));
+                writer.close();
+                ((DOMResult) result).setNode(((DomBuilder) ((SAXWriter) writer).getContentHandler()).getDocument());
             } else {
-                writer.flush();
+                flush(writer);
             }
         } catch (TerminateException e) {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Terminated filtering on element {}", DomUtils.getXPath(e.getElement()));
             }
+            if (!(result instanceof DOMResult)) {
+                // whatever was serialized up to the terminating element is still owed to the result
+                try {
+                    flush(writer);
+                } catch (IOException ioException) {
+                    throw new SmooksException("Failed to filter source", ioException);
+                }
+            }
         } catch (Exception e) {
             throw new SmooksException("Failed to filter source", e);
         } finally {
+            release(writer);
             if (closeSource) {
                 close(source);
             }
@@ -130,6 +145,15 @@ public class SaxNgFilter extends AbstractFilter {
         }
     }
 
+    @Override
+    protected Writer getWriter(final Result result, final ExecutionContext executionContext) {
+        if (result instanceof DOMResult) {
+            return new SAXWriter(new DomBuilder(documentBuilder.newDocument()), StandardCharsets.UTF_8);
+        } else {
+            return super.getWriter(result, executionContext);
+        }
+    }
+
     @Override
     public void close() {
         parser.close();
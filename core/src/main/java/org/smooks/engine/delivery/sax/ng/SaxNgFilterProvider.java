@@ -124,6 +124,7 @@ public class SaxNgFilterProvider extends AbstractFilterProvider {
         saxNgContentDeliveryConfig.setResourceConfigs(resourceConfigTable);
         saxNgContentDeliveryConfig.getContentDeliveryConfigExecutionEvents().addAll(contentDeliveryConfigExecutionEvents);
         saxNgContentDeliveryConfig.addToExecutionLifecycleSets();
+        saxNgContentDeliveryConfig.getSelectorAutomaton();
 
         return saxNgContentDeliveryConfig;
     }
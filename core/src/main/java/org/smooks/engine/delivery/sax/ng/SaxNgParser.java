@@ -76,6 +76,7 @@ public class SaxNgParser extends AbstractParser implements Closeable {
             xmlReader = readerPool.borrowXMLReader();
             if (xmlReader == null) {
                 xmlReader = createXMLReader();
+                readerPool.onXMLReaderCreated(xmlReader);
             }
 
             executionContext.put(NamespaceManager.NAMESPACE_DECLARATION_STACK_TYPED_KEY, new NamespaceDeclarationStack());
@@ -0,0 +1,534 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.jaxen.JaxenHandler;
+import org.jaxen.expr.DefaultAllNodeStep;
+import org.jaxen.expr.DefaultNameStep;
+import org.jaxen.expr.DefaultStep;
+import org.jaxen.expr.DefaultXPathFactory;
+import org.jaxen.expr.Expr;
+import org.jaxen.expr.LocationPath;
+import org.jaxen.saxpath.Axis;
+import org.jaxen.saxpath.SAXPathException;
+import org.jaxen.saxpath.XPathReader;
+import org.jaxen.saxpath.helpers.XPathReaderFactory;
+import org.smooks.api.delivery.ContentHandler;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.resource.config.ResourceConfig;
+import org.smooks.api.resource.config.xpath.SelectorPath;
+import org.smooks.api.resource.config.xpath.SelectorStep;
+import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
+import org.smooks.engine.delivery.ContentHandlerBindingIndex;
+import org.smooks.engine.resource.config.xpath.IndexedSelectorPath;
+import org.smooks.engine.resource.config.xpath.step.AttributeSelectorStep;
+import org.smooks.engine.resource.config.xpath.step.ElementSelectorStep;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Streaming selector automaton compiled from the visitor bindings of a {@link SaxNgContentDeliveryConfig}.
+ * <p/>
+ * Selectors consisting only of element name steps (optionally namespace-qualified, wildcarded, absolute, or
+ * joined by descendant axes) are compiled into a non-deterministic automaton which is determinised lazily: each
+ * distinct set of active selector positions becomes a {@link State}, and each open element holds the state it was
+ * entered with. Resolving the visitor bindings of a child element is then a memoized {@link Transition} lookup on
+ * the parent's state, regardless of how deep the element is.
+ * <p/>
+ * Selectors which cannot be compiled (e.g., predicates, attribute targets, or functions) stay in the candidate
+ * bindings of their target element and are matched with {@link org.smooks.engine.delivery.fragment.NodeFragment#isMatch}
+ * as before.
+ */
+class SelectorAutomaton {
+
+    private static final int ANY = -1;
+    private static final int OTHER = 0;
+
+    private final SaxNgContentDeliveryConfig saxNgContentDeliveryConfig;
+    private final Map<SelectorPath, Integer> compiledSelectorPaths = new IdentityHashMap<>();
+    private final Map<String, Integer> localNameSymbols = new HashMap<>();
+    private final Map<String, Integer> namespaceSymbols = new HashMap<>();
+    private final ConcurrentMap<State, State> states = new ConcurrentHashMap<>();
+    private final List<Step[]> paths = new ArrayList<>();
+    private final List<Boolean> absolutePaths = new ArrayList<>();
+    private final int[] pathOffsets;
+    private final int[] positionPaths;
+    private final int[] positionSteps;
+    private final int[] unanchoredPaths;
+    private final State documentState;
+    private volatile Optional<SaxNgVisitorBindings> globalVisitorBindings;
+
+    SelectorAutomaton(final SaxNgContentDeliveryConfig saxNgContentDeliveryConfig) {
+        this.saxNgContentDeliveryConfig = saxNgContentDeliveryConfig;
+
+        compile(saxNgContentDeliveryConfig.getBeforeVisitorIndex());
+        compile(saxNgContentDeliveryConfig.getChildVisitorIndex());
+        compile(saxNgContentDeliveryConfig.getAfterVisitorIndex());
+
+        pathOffsets = new int[paths.size()];
+        int positionCount = 0;
+        for (int i = 0; i < paths.size(); i++) {
+            pathOffsets[i] = positionCount;
+            positionCount += paths.get(i).length + 1;
+        }
+        positionPaths = new int[positionCount];
+        positionSteps = new int[positionCount];
+        final List<Integer> unanchoredPathList = new ArrayList<>();
+        final List<Integer> documentPositions = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            for (int j = 0; j <= paths.get(i).length; j++) {
+                positionPaths[pathOffsets[i] + j] = i;
+                positionSteps[pathOffsets[i] + j] = j;
+            }
+            if (absolutePaths.get(i)) {
+                documentPositions.add(pathOffsets[i]);
+            } else {
+                unanchoredPathList.add(i);
+            }
+        }
+        unanchoredPaths = unanchoredPathList.stream().mapToInt(Integer::intValue).toArray();
+
+        final int[] documentMatches = documentPositions.stream().mapToInt(Integer::intValue).toArray();
+        documentState = intern(new State(documentMatches, new int[0]));
+    }
+
+    State getDocumentState() {
+        return documentState;
+    }
+
+    SaxNgVisitorBindings getGlobalVisitorBindings() {
+        if (globalVisitorBindings == null) {
+            final SaxNgVisitorBindings starVisitorBindings = saxNgContentDeliveryConfig.get("*");
+            final SaxNgVisitorBindings starStarVisitorBindings = saxNgContentDeliveryConfig.get("//");
+            globalVisitorBindings = Optional.ofNullable(starVisitorBindings != null ? starVisitorBindings.merge(starStarVisitorBindings) : starStarVisitorBindings);
+        }
+
+        return globalVisitorBindings.orElse(null);
+    }
+
+    /**
+     * Whether the selector's structure is resolved by this automaton, in which case a binding handed out by a
+     * {@link Transition} matches its element unless the selector has a condition which evaluates to false.
+     *
+     * @param selectorPath the binding's selector path
+     * @return <code>true</code> if the selector path was compiled into this automaton
+     */
+    boolean isCompiled(final SelectorPath selectorPath) {
+        return compiledSelectorPaths.containsKey(selectorPath);
+    }
+
+    private <T extends ContentHandler> void compile(final ContentHandlerBindingIndex<T> contentHandlerBindingIndex) {
+        for (Map.Entry<String, List<ContentHandlerBinding<T>>> entry : contentHandlerBindingIndex.entrySet()) {
+            addLocalNameSymbol(entry.getKey());
+            for (ContentHandlerBinding<T> contentHandlerBinding : entry.getValue()) {
+                final SelectorPath selectorPath = contentHandlerBinding.getResourceConfig().getSelectorPath();
+                if (!compiledSelectorPaths.containsKey(selectorPath)) {
+                    compile(selectorPath);
+                }
+            }
+        }
+    }
+
+    private void compile(final SelectorPath selectorPath) {
+        if (!(selectorPath instanceof IndexedSelectorPath) || ((IndexedSelectorPath) selectorPath).getTargetSelectorStep() instanceof AttributeSelectorStep) {
+            return;
+        }
+        for (SelectorStep selectorStep : selectorPath) {
+            if (!selectorStep.getPredicates().isEmpty() || (selectorStep instanceof ElementSelectorStep && ((ElementSelectorStep) selectorStep).accessesText())) {
+                return;
+            }
+        }
+
+        final LocationPath locationPath = parseLocationPath(selectorPath);
+        if (locationPath != null && !locationPath.getSteps().isEmpty()) {
+            final Step[] steps = compile(locationPath, selectorPath.getNamespaces());
+            if (steps != null) {
+                compiledSelectorPaths.put(selectorPath, paths.size());
+                paths.add(steps);
+                absolutePaths.add(locationPath.isAbsolute());
+            }
+        }
+    }
+
+    private Step[] compile(final LocationPath locationPath, final Properties namespaces) {
+        // Mirror the pattern built by PatternParser: steps are converted from the target upwards, where the axis of
+        // the upper step decides whether it is linked to the lower step as its parent or as one of its ancestors
+        final List<?> xpathSteps = locationPath.getSteps();
+        final Step[] steps = new Step[xpathSteps.size()];
+        for (int i = xpathSteps.size() - 1; i >= 0; i--) {
+            final org.jaxen.expr.Step xpathStep = (org.jaxen.expr.Step) xpathSteps.get(i);
+            if (!xpathStep.getPredicates().isEmpty()) {
+                return null;
+            }
+            if (i < xpathSteps.size() - 1) {
+                if (xpathStep.getClass().equals(DefaultStep.class)) {
+                    return null;
+                }
+                steps[i + 1].ancestor = xpathStep.getAxis() == Axis.DESCENDANT || xpathStep.getAxis() == Axis.DESCENDANT_OR_SELF;
+            }
+            steps[i] = compile(xpathStep, namespaces);
+            if (steps[i] == null) {
+                return null;
+            }
+        }
+
+        return steps;
+    }
+
+    private Step compile(final org.jaxen.expr.Step xpathStep, final Properties namespaces) {
+        if (xpathStep.getAxis() == Axis.ATTRIBUTE) {
+            return null;
+        } else if (xpathStep instanceof DefaultAllNodeStep) {
+            return new Step(ANY, ANY);
+        } else if (xpathStep instanceof DefaultNameStep) {
+            final DefaultNameStep nameStep = (DefaultNameStep) xpathStep;
+            final String prefix = nameStep.getPrefix();
+            final int namespaceSymbol;
+            if (prefix.isEmpty() || (nameStep.isMatchesAnyName() && prefix.equals("*"))) {
+                namespaceSymbol = ANY;
+            } else {
+                final String namespaceURI = prefix.equals(XMLConstants.XML_NS_PREFIX) ? XMLConstants.XML_NS_URI : namespaces.getProperty(prefix);
+                if (namespaceURI == null || namespaceURI.isEmpty()) {
+                    // unresolved prefixes never match a namespaced element: leave it to the fallback matcher
+                    return null;
+                }
+                namespaceSymbol = addNamespaceSymbol(namespaceURI);
+            }
+
+            return new Step(nameStep.isMatchesAnyName() ? ANY : addLocalNameSymbol(nameStep.getLocalName()), namespaceSymbol);
+        } else {
+            return null;
+        }
+    }
+
+    private LocationPath parseLocationPath(final SelectorPath selectorPath) {
+        final String xpathExpression = selectorPath.getSelector().replaceAll(ResourceConfig.DOCUMENT_FRAGMENT_SELECTOR, "/*");
+        try {
+            final XPathReader reader = XPathReaderFactory.createReader();
+            final JaxenHandler jaxenHandler = new JaxenHandler();
+            jaxenHandler.setXPathFactory(new DefaultXPathFactory());
+            reader.setXPathHandler(jaxenHandler);
+            reader.parse(xpathExpression);
+            final Expr expr = jaxenHandler.getXPathExpr().getRootExpr();
+
+            return expr instanceof LocationPath ? (LocationPath) expr : null;
+        } catch (SAXPathException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private int addLocalNameSymbol(final String localName) {
+        return localNameSymbols.computeIfAbsent(localName, k -> localNameSymbols.size() + 1);
+    }
+
+    private int addNamespaceSymbol(final String namespaceURI) {
+        return namespaceSymbols.computeIfAbsent(namespaceURI, k -> namespaceSymbols.size() + 1);
+    }
+
+    private State intern(final State state) {
+        final State internedState = states.putIfAbsent(state, state);
+        return internedState != null ? internedState : state;
+    }
+
+    private Transition newTransition(final State parentState, final String localName, final int localNameSymbol, final int namespaceSymbol) {
+        final int[] matches = new int[parentState.matches.length + parentState.ancestors.length + unanchoredPaths.length];
+        int matchCount = 0;
+        for (int position : parentState.matches) {
+            final Step[] steps = paths.get(positionPaths[position]);
+            final int stepIndex = positionSteps[position];
+            if (stepIndex < steps.length && !steps[stepIndex].ancestor && steps[stepIndex].matches(localNameSymbol, namespaceSymbol)) {
+                matches[matchCount++] = position + 1;
+            }
+        }
+        for (int position : parentState.ancestors) {
+            if (paths.get(positionPaths[position])[positionSteps[position]].matches(localNameSymbol, namespaceSymbol)) {
+                matches[matchCount++] = position + 1;
+            }
+        }
+        for (int path : unanchoredPaths) {
+            if (paths.get(path)[0].matches(localNameSymbol, namespaceSymbol)) {
+                matches[matchCount++] = pathOffsets[path] + 1;
+            }
+        }
+        final int[] sortedMatches = Arrays.stream(matches, 0, matchCount).sorted().distinct().toArray();
+
+        final int[] ancestors = Arrays.copyOf(parentState.ancestors, parentState.ancestors.length + sortedMatches.length);
+        int ancestorCount = parentState.ancestors.length;
+        for (int position : sortedMatches) {
+            final Step[] steps = paths.get(positionPaths[position]);
+            final int stepIndex = positionSteps[position];
+            if (stepIndex < steps.length && steps[stepIndex].ancestor) {
+                ancestors[ancestorCount++] = position;
+            }
+        }
+        final int[] sortedAncestors = Arrays.stream(ancestors, 0, ancestorCount).sorted().distinct().toArray();
+
+        final State state = intern(new State(sortedMatches, sortedAncestors));
+        SaxNgVisitorBindings visitorBindings;
+        if (parentState == documentState) {
+            visitorBindings = saxNgContentDeliveryConfig.get(ResourceConfig.DOCUMENT_FRAGMENT_SELECTOR, localName);
+        } else {
+            visitorBindings = saxNgContentDeliveryConfig.get(localName);
+        }
+        if (visitorBindings == null) {
+            visitorBindings = getGlobalVisitorBindings();
+        }
+
+        final SaxNgVisitorBindings filteredVisitorBindings = filter(visitorBindings, state);
+        return new Transition(state, filteredVisitorBindings, findPassthroughSerializer(filteredVisitorBindings));
+    }
+
+    /**
+     * Finds the system serializer when it is the only visitor bound to an element, in which case the element's
+     * events can be copied to the result without building its DOM node.
+     *
+     * @param visitorBindings the visitor bindings which may apply to the element
+     * @return the serializer of the element, or <code>null</code> if another visitor may apply to the element
+     */
+    private SystemConsumeSerializerVisitor findPassthroughSerializer(final SaxNgVisitorBindings visitorBindings) {
+        if (visitorBindings == null) {
+            return null;
+        }
+
+        final SaxNgVisitorBindings globalVisitorBindings = getGlobalVisitorBindings();
+        final List<List<? extends ContentHandlerBinding<?>>> contentHandlerBindingsList = Arrays.asList(
+                visitorBindings.getBeforeVisitors() == null && globalVisitorBindings != null ? globalVisitorBindings.getBeforeVisitors() : visitorBindings.getBeforeVisitors(),
+                visitorBindings.getChildVisitors() == null && globalVisitorBindings != null ? globalVisitorBindings.getChildVisitors() : visitorBindings.getChildVisitors(),
+                visitorBindings.getAfterVisitors() == null && globalVisitorBindings != null ? globalVisitorBindings.getAfterVisitors() : visitorBindings.getAfterVisitors());
+
+        SystemConsumeSerializerVisitor passthroughSerializer = null;
+        for (List<? extends ContentHandlerBinding<?>> contentHandlerBindings : contentHandlerBindingsList) {
+            if (contentHandlerBindings == null) {
+                continue;
+            }
+            for (ContentHandlerBinding<?> contentHandlerBinding : contentHandlerBindings) {
+                ContentHandlerBinding<?> targetBinding = contentHandlerBinding;
+                if (targetBinding.getContentHandler() instanceof InterceptorVisitor) {
+                    targetBinding = ((InterceptorVisitor) targetBinding.getContentHandler()).getTarget();
+                }
+                if (targetBinding.getContentHandler().getClass() != SystemConsumeSerializerVisitor.class ||
+                        targetBinding.getResourceConfig().getSelectorPath().getConditionEvaluator() != null ||
+                        (passthroughSerializer != null && passthroughSerializer != targetBinding.getContentHandler())) {
+                    return null;
+                }
+                passthroughSerializer = (SystemConsumeSerializerVisitor) targetBinding.getContentHandler();
+            }
+        }
+
+        return passthroughSerializer;
+    }
+
+    private SaxNgVisitorBindings filter(final SaxNgVisitorBindings visitorBindings, final State state) {
+        if (visitorBindings == null) {
+            return null;
+        }
+
+        final List<ContentHandlerBinding<BeforeVisitor>> beforeVisitors = filter(visitorBindings.getBeforeVisitors(), state);
+        final List<ContentHandlerBinding<ChildrenVisitor>> childVisitors = filter(visitorBindings.getChildVisitors(), state);
+        final List<ContentHandlerBinding<AfterVisitor>> afterVisitors = filter(visitorBindings.getAfterVisitors(), state);
+        if (beforeVisitors == visitorBindings.getBeforeVisitors() && childVisitors == visitorBindings.getChildVisitors() && afterVisitors == visitorBindings.getAfterVisitors()) {
+            return visitorBindings;
+        }
+
+        final SaxNgVisitorBindings filteredVisitorBindings = new SaxNgVisitorBindings();
+        filteredVisitorBindings.setBeforeVisitors(beforeVisitors);
+        filteredVisitorBindings.setChildVisitors(childVisitors);
+        filteredVisitorBindings.setAfterVisitors(afterVisitors);
+
+        return filteredVisitorBindings;
+    }
+
+    private <T extends ContentHandler> List<ContentHandlerBinding<T>> filter(final List<ContentHandlerBinding<T>> contentHandlerBindings, final State state) {
+        if (contentHandlerBindings == null) {
+            return null;
+        }
+
+        List<ContentHandlerBinding<T>> filteredContentHandlerBindings = null;
+        for (int i = 0; i < contentHandlerBindings.size(); i++) {
+            final Integer path = compiledSelectorPaths.get(contentHandlerBindings.get(i).getResourceConfig().getSelectorPath());
+            final boolean isMatch = path == null || state.accepts[path];
+            if (!isMatch && filteredContentHandlerBindings == null) {
+                filteredContentHandlerBindings = new ArrayList<>(contentHandlerBindings.subList(0, i));
+            } else if (isMatch && filteredContentHandlerBindings != null) {
+                filteredContentHandlerBindings.add(contentHandlerBindings.get(i));
+            }
+        }
+
+        return filteredContentHandlerBindings == null ? contentHandlerBindings : Collections.unmodifiableList(filteredContentHandlerBindings);
+    }
+
+    /**
+     * Compiled element name test, together with how it is linked to the step above it.
+     */
+    private static final class Step {
+        private final int localNameSymbol;
+        private final int namespaceSymbol;
+        private boolean ancestor;
+
+        private Step(final int localNameSymbol, final int namespaceSymbol) {
+            this.localNameSymbol = localNameSymbol;
+            this.namespaceSymbol = namespaceSymbol;
+        }
+
+        private boolean matches(final int localNameSymbol, final int namespaceSymbol) {
+            return (this.localNameSymbol == ANY || this.localNameSymbol == localNameSymbol) && (this.namespaceSymbol == ANY || this.namespaceSymbol == namespaceSymbol);
+        }
+    }
+
+    /**
+     * Deterministic automaton state: the selector positions matched on the element itself, together with the
+     * positions matched on it or on one of its ancestors which are awaiting a descendant step.
+     */
+    final class State {
+        private final int[] matches;
+        private final int[] ancestors;
+        private final boolean[] accepts;
+        private final int hash;
+        private volatile AtomicReferenceArray<Transition> transitions;
+
+        private State(final int[] matches, final int[] ancestors) {
+            this.matches = matches;
+            this.ancestors = ancestors;
+            this.accepts = new boolean[paths.size()];
+            for (int position : matches) {
+                if (positionSteps[position] == paths.get(positionPaths[position]).length) {
+                    accepts[positionPaths[position]] = true;
+                }
+            }
+            this.hash = 31 * Arrays.hashCode(matches) + Arrays.hashCode(ancestors);
+        }
+
+        /**
+         * Gets the transition taken when a child element opens in this state.
+         *
+         * @param elementQName the child element's name
+         * @return the child element's state and the visitor bindings which may apply to it
+         */
+        Transition transition(final QName elementQName) {
+            final String localName = elementQName.getLocalPart();
+            final int localNameSymbol = localNameSymbols.getOrDefault(localName, OTHER);
+            final String namespaceURI = elementQName.getNamespaceURI();
+            final int namespaceSymbol = namespaceURI.isEmpty() ? OTHER : namespaceSymbols.getOrDefault(namespaceURI, OTHER);
+
+            AtomicReferenceArray<Transition> transitions = this.transitions;
+            if (transitions == null) {
+                synchronized (this) {
+                    transitions = this.transitions;
+                    if (transitions == null) {
+                        transitions = new AtomicReferenceArray<>((localNameSymbols.size() + 1) * (namespaceSymbols.size() + 1));
+                        this.transitions = transitions;
+                    }
+                }
+            }
+
+            final int symbol = namespaceSymbol * (localNameSymbols.size() + 1) + localNameSymbol;
+            Transition transition = transitions.get(symbol);
+            if (transition == null) {
+                // local names outside the alphabet are not bound to any visitor, so any name stands in for all of them
+                transition = newTransition(this, localNameSymbol == OTHER ? "" : localName, localNameSymbol, namespaceSymbol);
+                if (!transitions.compareAndSet(symbol, null, transition)) {
+                    transition = transitions.get(symbol);
+                }
+            }
+
+            return transition;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof State)) {
+                return false;
+            }
+            final State state = (State) o;
+            return hash == state.hash && Arrays.equals(matches, state.matches) && Arrays.equals(ancestors, state.ancestors);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    static final class Transition {
+        private final State state;
+        private final SaxNgVisitorBindings visitorBindings;
+        private final SystemConsumeSerializerVisitor passthroughSerializer;
+
+        private Transition(final State state, final SaxNgVisitorBindings visitorBindings, final SystemConsumeSerializerVisitor passthroughSerializer) {
+            this.state = state;
+            this.visitorBindings = visitorBindings;
+            this.passthroughSerializer = passthroughSerializer;
+        }
+
+        State getState() {
+            return state;
+        }
+
+        SaxNgVisitorBindings getVisitorBindings() {
+            return visitorBindings;
+        }
+
+        SystemConsumeSerializerVisitor getPassthroughSerializer() {
+            return passthroughSerializer;
+        }
+    }
+}
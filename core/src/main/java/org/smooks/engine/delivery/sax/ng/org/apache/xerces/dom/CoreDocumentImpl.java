@@ -1749,6 +1749,8 @@ extends org.smooks.engine.delivery.sax.ng.org.apache.xerces.dom.ParentNode imple
             }
         }
 
+		if(source instanceof org.smooks.engine.delivery.sax.ng.org.apache.xerces.dom.NodeImpl)
+			((org.smooks.engine.delivery.sax.ng.org.apache.xerces.dom.NodeImpl)source).callInlineUserDataHandlers(newnode, UserDataHandler.NODE_IMPORTED);
 		if(userData != null)
 			callUserDataHandlers(source, newnode, UserDataHandler.NODE_IMPORTED,userData);
 
@@ -1915,6 +1917,7 @@ extends org.smooks.engine.delivery.sax.ng.org.apache.xerces.dom.ParentNode imple
 
 		//DOM L3 Core CR
 		//http://www.w3.org/TR/2003/CR-DOM-Level-3-Core-20031107/core.html#UserDataHandler-ADOPTED
+		node.callInlineUserDataHandlers(null, UserDataHandler.NODE_ADOPTED);
 		if(userData != null)
 			callUserDataHandlers(source, null, UserDataHandler.NODE_ADOPTED,userData);
 
@@ -164,6 +164,19 @@ public abstract class NodeImpl
 
     /** Table for user data attached to this document nodes. */
     protected Map userData;  // serialized as Hashtable
+
+    /**
+     * Keys held in inline slots rather than in {@link #userData}. Smooks sets these on every
+     * fragment it visits (see <code>NodeFragment</code>) so a per-node table would otherwise
+     * be allocated for each element.
+     */
+    static final String ID_USER_DATA_KEY = "id";
+    static final String RESERVATIONS_USER_DATA_KEY = "reservations";
+
+    private Object idUserData;
+    private UserDataHandler idUserDataHandler;
+    private Object reservationsUserData;
+    private UserDataHandler reservationsUserDataHandler;
     //
     // Constructors
     //
@@ -300,6 +313,9 @@ public abstract class NodeImpl
      * @param operation The operation - import, clone, or delete.
      */
     protected void callUserDataHandlers(Node n, Node c, short operation) {
+        if (n instanceof NodeImpl) {
+            ((NodeImpl) n).callInlineUserDataHandlers(c, operation);
+        }
         if (userData == null) {
             return;
         }
@@ -334,6 +350,20 @@ public abstract class NodeImpl
             }
         }
     }
+
+    /**
+     * Call the user data handlers of the inline slots.
+     * @param c The copy node or null.
+     * @param operation The operation - import, clone, adopt, or delete.
+     */
+    void callInlineUserDataHandlers(Node c, short operation) {
+        if (idUserDataHandler != null) {
+            idUserDataHandler.handle(operation, ID_USER_DATA_KEY, idUserData, this, c);
+        }
+        if (reservationsUserDataHandler != null) {
+            reservationsUserDataHandler.handle(operation, RESERVATIONS_USER_DATA_KEY, reservationsUserData, this, c);
+        }
+    }
     
     /**
      * Find the Document that this Node belongs to (the document in
@@ -1825,6 +1855,18 @@ public abstract class NodeImpl
     public Object setUserData(String key,
                               Object data,
                               UserDataHandler handler) {
+        if (ID_USER_DATA_KEY.equals(key)) {
+            Object previous = idUserData;
+            idUserData = data;
+            idUserDataHandler = data == null ? null : handler;
+            return previous;
+        }
+        if (RESERVATIONS_USER_DATA_KEY.equals(key)) {
+            Object previous = reservationsUserData;
+            reservationsUserData = data;
+            reservationsUserDataHandler = data == null ? null : handler;
+            return previous;
+        }
         if (data == null) {
             if (userData != null) {
                 Object o = userData.remove(key);
@@ -1856,6 +1898,12 @@ public abstract class NodeImpl
      * @since DOM Level 3
      */
     public Object getUserData(String key) {
+        if (ID_USER_DATA_KEY.equals(key)) {
+            return idUserData;
+        }
+        if (RESERVATIONS_USER_DATA_KEY.equals(key)) {
+            return reservationsUserData;
+        }
         if (userData == null) {
             return null;
         }
@@ -42,20 +42,13 @@
  */
 package org.smooks.engine.lifecycle;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.smooks.api.lifecycle.LifecyclePhase;
 import org.smooks.api.SmooksConfigException;
-import org.smooks.support.ClassUtils;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 
 public abstract class AbstractLifecyclePhase implements LifecyclePhase {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractLifecyclePhase.class);
-
     @Override
     public void apply(Object o) {
         doApply(o);
@@ -66,21 +59,11 @@ public abstract class AbstractLifecyclePhase implements LifecyclePhase {
     }
 
     protected <U> void invoke(U instance, Class<? extends Annotation> annotation) {
-        Method[] methods = instance.getClass().getMethods();
-
-        for (Method method : methods) {
-            if (method.getAnnotation(annotation) != null) {
-                if (method.getParameterTypes().length == 0) {
-                    try {
-                        method.invoke(instance);
-                    } catch (IllegalAccessException e) {
-                        throw new SmooksConfigException("Error invoking @" + annotation.getSimpleName() + " method '" + method.getName() + "' on class '" + instance.getClass().getName() + "'.", e);
-                    } catch (InvocationTargetException e) {
-                        throw new SmooksConfigException("Error invoking @" + annotation.getSimpleName() + " method '" + method.getName() + "' on class '" + instance.getClass().getName() + "'.", e.getTargetException());
-                    }
-                } else {
-                    LOGGER.warn("Method '" + ClassUtils.getLongMemberName(method) + "' defines an @" + annotation.getSimpleName() + " annotation on a paramaterized method.  This is not allowed!");
-                }
+        for (LifecycleMetadata.LifecycleMethod lifecycleMethod : LifecycleMetadata.of(instance.getClass()).getAnnotatedMethods(annotation)) {
+            try {
+                lifecycleMethod.invoke(instance);
+            } catch (Throwable t) {
+                throw new SmooksConfigException("Error invoking @" + annotation.getSimpleName() + " method '" + lifecycleMethod.getMethod().getName() + "' on class '" + instance.getClass().getName() + "'.", t);
             }
         }
     }
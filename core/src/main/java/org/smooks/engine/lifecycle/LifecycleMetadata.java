@@ -0,0 +1,203 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smooks.api.resource.config.ResourceConfig;
+import org.smooks.support.ClassUtils;
+
+import javax.inject.Inject;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lifecycle metadata of a class, resolved once and cached for the lifetime of the class.
+ * <p>
+ * Holds the method handles of annotated lifecycle methods (e.g., <code>@PostConstruct</code> and
+ * <code>@PreDestroy</code>), the optional <code>setConfiguration(ResourceConfig)</code> method, and the
+ * <code>@Inject</code> fields which must be set once an instance is constructed.
+ */
+final class LifecycleMetadata {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LifecycleMetadata.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final LifecycleMethod[] NO_LIFECYCLE_METHODS = new LifecycleMethod[0];
+
+    private static final ClassValue<LifecycleMetadata> LIFECYCLE_METADATA = new ClassValue<LifecycleMetadata>() {
+        @Override
+        protected LifecycleMetadata computeValue(Class<?> type) {
+            return new LifecycleMetadata(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Map<Class<? extends Annotation>, LifecycleMethod[]> annotatedMethods = new ConcurrentHashMap<>();
+    private volatile Field[] injectFields;
+    private volatile LifecycleMethod setConfigurationMethod;
+    private volatile boolean isSetConfigurationMethodResolved;
+
+    private LifecycleMetadata(Class<?> type) {
+        this.type = type;
+    }
+
+    static LifecycleMetadata of(Class<?> type) {
+        return LIFECYCLE_METADATA.get(type);
+    }
+
+    LifecycleMethod[] getAnnotatedMethods(Class<? extends Annotation> annotation) {
+        return annotatedMethods.computeIfAbsent(annotation, this::resolveAnnotatedMethods);
+    }
+
+    Field[] getInjectFields() {
+        if (injectFields == null) {
+            injectFields = resolveInjectFields();
+        }
+        return injectFields;
+    }
+
+    LifecycleMethod getSetConfigurationMethod() {
+        if (!isSetConfigurationMethodResolved) {
+            try {
+                setConfigurationMethod = new LifecycleMethod(type.getMethod("setConfiguration", ResourceConfig.class));
+            } catch (NoSuchMethodException e) {
+                setConfigurationMethod = null;
+            }
+            isSetConfigurationMethodResolved = true;
+        }
+        return setConfigurationMethod;
+    }
+
+    private LifecycleMethod[] resolveAnnotatedMethods(Class<? extends Annotation> annotation) {
+        final List<LifecycleMethod> lifecycleMethods = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.getAnnotation(annotation) != null) {
+                if (method.getParameterTypes().length == 0) {
+                    lifecycleMethods.add(new LifecycleMethod(method));
+                } else {
+                    LOGGER.warn("Method '" + ClassUtils.getLongMemberName(method) + "' defines an @" + annotation.getSimpleName() + " annotation on a paramaterized method.  This is not allowed!");
+                }
+            }
+        }
+
+        return lifecycleMethods.isEmpty() ? NO_LIFECYCLE_METHODS : lifecycleMethods.toArray(new LifecycleMethod[0]);
+    }
+
+    private Field[] resolveInjectFields() {
+        final List<Field> fields = new ArrayList<>();
+        resolveInjectFields(type, fields);
+        return fields.toArray(new Field[0]);
+    }
+
+    private void resolveInjectFields(Class<?> declaringClass, List<Field> fields) {
+        // Work back up the Inheritance tree first...
+        final Class<?> superClass = declaringClass.getSuperclass();
+        if (superClass != null) {
+            resolveInjectFields(superClass, fields);
+        }
+
+        for (Field field : declaringClass.getDeclaredFields()) {
+            boolean isInject = field.getAnnotation(Inject.class) != null;
+            if (!isInject) {
+                // Check is there's a setter method for this property, with the @Inject annotation
+                // configured on it...
+                final Method setterMethod = ClassUtils.getSetterMethod(ClassUtils.toSetterName(field.getName()), declaringClass, field.getType());
+                isInject = setterMethod != null && setterMethod.getAnnotation(Inject.class) != null;
+            }
+            if (isInject) {
+                try {
+                    field.setAccessible(true);
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Unable to make field '{}' accessible", ClassUtils.getLongMemberName(field), e);
+                }
+                fields.add(field);
+            }
+        }
+    }
+
+    static final class LifecycleMethod {
+        private final Method method;
+        private final MethodHandle methodHandle;
+        private final IllegalAccessException illegalAccessException;
+
+        private LifecycleMethod(Method method) {
+            this.method = method;
+            MethodHandle methodHandle = null;
+            IllegalAccessException illegalAccessException = null;
+            try {
+                final MethodType methodType = MethodType.genericMethodType(method.getParameterCount()).changeReturnType(void.class).insertParameterTypes(0, Object.class);
+                methodHandle = LOOKUP.unreflect(method).asType(methodType);
+            } catch (IllegalAccessException e) {
+                illegalAccessException = e;
+            }
+            this.methodHandle = methodHandle;
+            this.illegalAccessException = illegalAccessException;
+        }
+
+        Method getMethod() {
+            return method;
+        }
+
+        void invoke(Object instance) throws Throwable {
+            if (methodHandle == null) {
+                throw illegalAccessException;
+            }
+            methodHandle.invokeExact(instance);
+        }
+
+        void invoke(Object instance, Object arg) throws Throwable {
+            if (methodHandle == null) {
+                throw illegalAccessException;
+            }
+            methodHandle.invokeExact(instance, arg);
+        }
+    }
+}
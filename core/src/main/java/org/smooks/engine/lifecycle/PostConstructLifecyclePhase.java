@@ -54,10 +54,7 @@ import org.smooks.support.ClassUtils;
 
 import jakarta.annotation.PostConstruct;
 
-import javax.inject.Inject;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 
 public class PostConstructLifecyclePhase extends AbstractLifecyclePhase {
 
@@ -90,43 +87,17 @@ public class PostConstructLifecyclePhase extends AbstractLifecyclePhase {
     }
 
     protected <U> void checkPropertiesConfigured(Class contentHandlerClass, U instance) {
-        Field[] fields = contentHandlerClass.getDeclaredFields();
-
-        // Work back up the Inheritance tree first...
-        Class superClass = contentHandlerClass.getSuperclass();
-        if (superClass != null) {
-            checkPropertiesConfigured(superClass, instance);
-        }
-
-        for (Field field : fields) {
-            String fieldName = field.getName();
+        for (Field field : LifecycleMetadata.of(contentHandlerClass).getInjectFields()) {
             Object fieldValue;
 
             try {
-                fieldValue = ClassUtils.getField(field, instance);
+                fieldValue = field.get(instance);
             } catch (IllegalAccessException e) {
                 throw new SmooksConfigException("Unable to get property field value for '" + ClassUtils.getLongMemberName(field) + "'.", e);
             }
 
-            if (fieldValue != null) {
-                // It's set so no need to check anything....
-                continue;
-            }
-
-            Inject injectAnnotation = field.getAnnotation(Inject.class);
-            if (injectAnnotation == null) {
-                // Check is there's a setter method for this property, with the @Inject annotation
-                // configured on it...
-                String setterName = ClassUtils.toSetterName(fieldName);
-                Method setterMethod = ClassUtils.getSetterMethod(setterName, contentHandlerClass, field.getType());
-
-                if (setterMethod != null) {
-                    injectAnnotation = setterMethod.getAnnotation(Inject.class);
-                }
-            }
-
-            if (injectAnnotation != null) {
-                throw new SmooksConfigException("Property '" + fieldName + "' not configured on class " + instance.getClass().getName() + "'.");
+            if (fieldValue == null) {
+                throw new SmooksConfigException("Property '" + field.getName() + "' not configured on class " + instance.getClass().getName() + "'.");
             }
         }
     }
@@ -135,19 +106,16 @@ public class PostConstructLifecyclePhase extends AbstractLifecyclePhase {
         if (instance instanceof Configurable) {
             ((Configurable) instance).setConfiguration(((ResourceConfig) scope.get(ResourceConfig.class)).toProperties());
         } else {
-            try {
-                Method setConfigurationMethod = instance.getClass().getMethod("setConfiguration", ResourceConfig.class);
-                setConfigurationMethod.invoke(instance, scope.get(ResourceConfig.class));
-            } catch (NoSuchMethodException e) {
-                // That's fine
-            } catch (IllegalAccessException e) {
-                throw new SmooksConfigException("Error invoking 'setConfiguration' method on class '" + instance.getClass().getName() + "'.  This class must be public.  Alternatively, use the @Inject annotation on a class field.", e);
-            } catch (InvocationTargetException e) {
-                if (e.getTargetException() instanceof SmooksConfigException) {
-                    throw (SmooksConfigException) e.getTargetException();
-                } else {
-                    Throwable cause = e.getTargetException();
-                    throw new SmooksConfigException("Error invoking 'setConfiguration' method on class '" + instance.getClass().getName() + "'.", (cause != null ? cause : e));
+            final LifecycleMetadata.LifecycleMethod setConfigurationMethod = LifecycleMetadata.of(instance.getClass()).getSetConfigurationMethod();
+            if (setConfigurationMethod != null) {
+                try {
+                    setConfigurationMethod.invoke(instance, scope.get(ResourceConfig.class));
+                } catch (IllegalAccessException e) {
+                    throw new SmooksConfigException("Error invoking 'setConfiguration' method on class '" + instance.getClass().getName() + "'.  This class must be public.  Alternatively, use the @Inject annotation on a class field.", e);
+                } catch (SmooksConfigException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new SmooksConfigException("Error invoking 'setConfiguration' method on class '" + instance.getClass().getName() + "'.", t);
                 }
             }
         }
@@ -59,6 +59,10 @@ public class InstanceLookup<T> implements Function<Map<Object, Object>, Map<Obje
         this.type = type;
     }
 
+    public Class<T> getType() {
+        return type;
+    }
+
     @Override
     public Map<Object, T> apply(final Map<Object, Object> registryEntries) {
         return (Map<Object, T>) registryEntries.entrySet().
@@ -0,0 +1,203 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.memento;
+
+import org.smooks.api.delivery.fragment.Fragment;
+import org.smooks.api.memento.Memento;
+import org.smooks.api.memento.MementoCaretaker;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link MementoCaretaker} which keeps the mementos of a fragment in a small array of slots rather than under
+ * string anchors in the execution context. Mementos of the built-in memento types are matched to their slot by
+ * comparing visitor, type and key instead of building {@link Memento#getAnchor()} strings, and forgetting a fragment
+ * drops all of its slots at once. Other memento types are matched by anchor.
+ */
+@NotThreadSafe
+public class SlottedMementoCaretaker implements MementoCaretaker {
+
+    private static final ClassValue<Boolean> IS_ANCHORED_BY_STRUCTURE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            if (type == TextAccumulatorMemento.class || type == TextAccumulatorVisitorMemento.class) {
+                return true;
+            }
+            try {
+                final Class<?> declaringClass = type.getMethod("getAnchor").getDeclaringClass();
+                return declaringClass == AbstractVisitorMemento.class || declaringClass == VisitorMemento.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final Map<String, Slots> fragmentSlots = new HashMap<>();
+
+    @Override
+    public void capture(final Memento memento) {
+        final String fragmentId = memento.getFragment().getId();
+        Slots slots = fragmentSlots.get(fragmentId);
+        if (slots == null) {
+            slots = new Slots();
+            fragmentSlots.put(fragmentId, slots);
+        }
+        slots.put(memento, memento.copy());
+    }
+
+    @Override
+    public void restore(final Memento memento) {
+        final Memento restoredMemento = get(memento);
+        if (restoredMemento != null) {
+            memento.restore(restoredMemento);
+        }
+    }
+
+    @Override
+    public boolean exists(final Memento memento) {
+        return get(memento) != null;
+    }
+
+    @Override
+    public void forget(final Memento memento) {
+        final Slots slots = fragmentSlots.get(memento.getFragment().getId());
+        if (slots != null) {
+            slots.remove(memento);
+        }
+    }
+
+    @Override
+    public void forget(final Fragment<?> fragment) {
+        fragmentSlots.remove(fragment.getId());
+    }
+
+    @Override
+    public void clear() {
+        fragmentSlots.clear();
+    }
+
+    @Override
+    public <T extends Memento> T stash(final T defaultMemento, final Function<T, T> function) {
+        restore(defaultMemento);
+        final T newVisitorMemento = function.apply(defaultMemento);
+        capture(newVisitorMemento);
+
+        return newVisitorMemento;
+    }
+
+    protected Memento get(final Memento memento) {
+        final Slots slots = fragmentSlots.get(memento.getFragment().getId());
+        return slots == null ? null : slots.get(memento);
+    }
+
+    protected static boolean isSameAnchor(final Memento memento, final Memento otherMemento) {
+        if (IS_ANCHORED_BY_STRUCTURE.get(memento.getClass()) && IS_ANCHORED_BY_STRUCTURE.get(otherMemento.getClass())) {
+            if (memento.getClass() != otherMemento.getClass()) {
+                return false;
+            } else if (memento instanceof VisitorMemento) {
+                return ((VisitorMemento<?>) memento).getVisitor() == ((VisitorMemento<?>) otherMemento).getVisitor() &&
+                        ((VisitorMemento<?>) memento).getTypedKey().getName().equals(((VisitorMemento<?>) otherMemento).getTypedKey().getName());
+            } else if (memento instanceof AbstractVisitorMemento) {
+                return ((AbstractVisitorMemento) memento).getVisitor() == ((AbstractVisitorMemento) otherMemento).getVisitor();
+            } else if (memento instanceof TextAccumulatorVisitorMemento) {
+                return ((TextAccumulatorVisitorMemento) memento).getVisitor() == ((TextAccumulatorVisitorMemento) otherMemento).getVisitor();
+            } else {
+                return true;
+            }
+        } else {
+            return memento.getAnchor().equals(otherMemento.getAnchor());
+        }
+    }
+
+    /**
+     * Saved mementos of a fragment. A copy may be of a different type than the memento it was taken from, so each slot
+     * is matched by the captured memento while restores are served from its copy.
+     */
+    private static final class Slots {
+        private Memento[] anchors = new Memento[4];
+        private Memento[] mementos = new Memento[4];
+        private int size;
+
+        private Memento get(final Memento memento) {
+            final int index = indexOf(memento);
+            return index < 0 ? null : mementos[index];
+        }
+
+        private void put(final Memento anchor, final Memento memento) {
+            int index = indexOf(anchor);
+            if (index < 0) {
+                if (size == mementos.length) {
+                    anchors = Arrays.copyOf(anchors, size * 2);
+                    mementos = Arrays.copyOf(mementos, size * 2);
+                }
+                index = size++;
+                anchors[index] = anchor;
+            }
+            mementos[index] = memento;
+        }
+
+        private void remove(final Memento memento) {
+            final int index = indexOf(memento);
+            if (index >= 0) {
+                size--;
+                anchors[index] = anchors[size];
+                mementos[index] = mementos[size];
+                anchors[size] = null;
+                mementos[size] = null;
+            }
+        }
+
+        private int indexOf(final Memento memento) {
+            for (int i = 0; i < size; i++) {
+                if (isSameAnchor(anchors[i], memento)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
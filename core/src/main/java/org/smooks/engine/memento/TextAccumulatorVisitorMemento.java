@@ -68,6 +68,10 @@ public class TextAccumulatorVisitorMemento extends TextAccumulatorMemento {
         };
     }
 
+    public Visitor getVisitor() {
+        return visitorMemento.getVisitor();
+    }
+
     @Override
     public Memento copy() {
         return visitorMemento.copy();
@@ -238,7 +238,7 @@ public class DefaultResourceConfig implements ResourceConfig {
                 selectorPath = SelectorPathFactory.newSelectorPath(selector, namespaces);
             } else {
                 selectorPath = SelectorPathFactory.newSelectorPath(selector, selectorPath.getNamespaces(), selectorPath.getConditionEvaluator());
-                selectorPath.getNamespaces().putAll(namespaces);
+                selectorPath.setNamespaces(namespaces);
             }
         } else {
             selectorPath = SelectorPathFactory.newSelectorPath(SELECTOR_NONE, namespaces);
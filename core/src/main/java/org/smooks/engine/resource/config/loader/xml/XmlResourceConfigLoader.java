@@ -85,6 +85,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.lang.ref.SoftReference;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
@@ -93,6 +94,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.Stack;
+import java.util.WeakHashMap;
 
 public class XmlResourceConfigLoader implements ResourceConfigLoader {
 
@@ -100,6 +102,9 @@ public class XmlResourceConfigLoader implements ResourceConfigLoader {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(XmlResourceConfigLoader.class);
     private static final ThreadLocal<Boolean> EXTENSION_DIGEST_ON = new ThreadLocal<>();
+    // Extension config digesters are shared process-wide per class loader. Values are soft so that the
+    // digesters, which reference their class loader, cannot pin it...
+    private static final Map<ClassLoader, Map<String, SoftReference<Smooks>>> EXTENSION_CONFIG_DIGESTERS = new WeakHashMap<>();
 
     private final ExpressionEvaluatorFactory expressionEvaluatorFactory = new ExpressionEvaluatorFactory();
     private Map<String, Smooks> extendedResourceConfigLoaders = new HashMap<>();
@@ -426,6 +431,13 @@ public class XmlResourceConfigLoader implements ResourceConfigLoader {
     protected Smooks getExtendedResourceConfigLoader(String configNamespace) {
         Smooks smooks = extendedResourceConfigLoaders.get(configNamespace);
 
+        if (smooks == null) {
+            smooks = getCachedExtendedResourceConfigLoader(configNamespace);
+            if (smooks != null) {
+                extendedResourceConfigLoaders.put(configNamespace, smooks);
+            }
+        }
+
         if (smooks == null) {
             URI namespaceURI;
 
@@ -465,12 +477,52 @@ public class XmlResourceConfigLoader implements ResourceConfigLoader {
             }
 
             // And add it to the Map of extension digesters...
+            smooks = cacheExtendedResourceConfigLoader(configNamespace, smooks);
             extendedResourceConfigLoaders.put(configNamespace, smooks);
         }
 
         return smooks;
     }
 
+    private Smooks getCachedExtendedResourceConfigLoader(String configNamespace) {
+        synchronized (EXTENSION_CONFIG_DIGESTERS) {
+            Map<String, SoftReference<Smooks>> classLoaderDigesters = EXTENSION_CONFIG_DIGESTERS.get(classLoader);
+            if (classLoaderDigesters != null) {
+                SoftReference<Smooks> smooksReference = classLoaderDigesters.get(configNamespace);
+                if (smooksReference != null) {
+                    return smooksReference.get();
+                }
+            }
+
+            return null;
+        }
+    }
+
+    private Smooks cacheExtendedResourceConfigLoader(String configNamespace, Smooks smooks) {
+        synchronized (EXTENSION_CONFIG_DIGESTERS) {
+            Map<String, SoftReference<Smooks>> classLoaderDigesters = EXTENSION_CONFIG_DIGESTERS.computeIfAbsent(classLoader, k -> new HashMap<>());
+            SoftReference<Smooks> smooksReference = classLoaderDigesters.get(configNamespace);
+            Smooks cachedSmooks = smooksReference != null ? smooksReference.get() : null;
+            if (cachedSmooks != null) {
+                // Another loader built the same digester concurrently...
+                smooks.close();
+                return cachedSmooks;
+            }
+            classLoaderDigesters.put(configNamespace, new SoftReference<>(smooks));
+
+            return smooks;
+        }
+    }
+
+    /**
+     * Clear the process-wide cache of extension configuration digesters.
+     */
+    public static void clearExtensionConfigCache() {
+        synchronized (EXTENSION_CONFIG_DIGESTERS) {
+            EXTENSION_CONFIG_DIGESTERS.clear();
+        }
+    }
+
     protected void assertExtendedConfigOK(String configNamespace, String resourcePath) {
         InputStream resourceStream = ClassUtils.getResourceAsStream(resourcePath, classLoader);
 
@@ -55,6 +55,12 @@ public class IndexedSelectorPath extends JaxenPatternSelectorPath {
         super(selector);
     }
 
+    @Override
+    protected boolean isContextShareable() {
+        // predicates and functions become pattern filters which evaluate against the context's node-set
+        return selector.indexOf('[') < 0 && selector.indexOf('(') < 0;
+    }
+
     public SelectorStep getTargetSelectorStep() {
         return selectorSteps.isEmpty() ? null : selectorSteps.get(selectorSteps.size() - 1);
     }
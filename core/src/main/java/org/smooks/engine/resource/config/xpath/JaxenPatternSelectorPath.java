@@ -42,12 +42,22 @@
  */
 package org.smooks.engine.resource.config.xpath;
 
+import org.jaxen.Context;
+import org.jaxen.ContextSupport;
+import org.jaxen.SimpleNamespaceContext;
+import org.jaxen.SimpleVariableContext;
+import org.jaxen.XPathFunctionContext;
+import org.jaxen.dom.DocumentNavigator;
 import org.jaxen.pattern.Pattern;
 import org.jaxen.saxpath.SAXPathException;
 import org.smooks.api.SmooksException;
 
+import java.util.Properties;
+
 public abstract class JaxenPatternSelectorPath extends AbstractSelectorPath {
     protected final Pattern pattern;
+    private volatile ContextSupport contextSupport;
+    private volatile Context context;
 
     public JaxenPatternSelectorPath(final String selector) {
         this.selector = selector;
@@ -61,4 +71,42 @@ public abstract class JaxenPatternSelectorPath extends AbstractSelectorPath {
     public Pattern getPattern() {
         return pattern;
     }
+
+    @Override
+    public void setNamespaces(final Properties namespaces) {
+        super.setNamespaces(namespaces);
+        compileContext();
+    }
+
+    /**
+     * Gets the Jaxen context to match nodes against {@link #getPattern()} with. The context is compiled from the
+     * selector's namespaces when they are set and is shared across matches unless the pattern has filters, in which
+     * case Jaxen writes the node under test into the context and a fresh one is returned on each call.
+     *
+     * @return the Jaxen context for matching this selector's pattern
+     */
+    public Context getContext() {
+        final Context sharedContext = context;
+        if (sharedContext != null) {
+            return sharedContext;
+        }
+        if (contextSupport == null) {
+            compileContext();
+        }
+        return context != null ? context : new Context(contextSupport);
+    }
+
+    protected boolean isContextShareable() {
+        return false;
+    }
+
+    private synchronized void compileContext() {
+        final SimpleNamespaceContext simpleNamespaceContext = new SimpleNamespaceContext();
+        for (String namespacePrefix : namespaces.stringPropertyNames()) {
+            simpleNamespaceContext.addNamespace(namespacePrefix, namespaces.getProperty(namespacePrefix));
+        }
+        final ContextSupport newContextSupport = new ContextSupport(simpleNamespaceContext, XPathFunctionContext.getInstance(), new SimpleVariableContext(), DocumentNavigator.getInstance());
+        contextSupport = newContextSupport;
+        context = isContextShareable() ? new Context(newContextSupport) : null;
+    }
 }
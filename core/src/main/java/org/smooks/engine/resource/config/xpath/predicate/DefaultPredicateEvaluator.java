@@ -56,11 +56,12 @@ import org.smooks.api.delivery.fragment.Fragment;
 import org.smooks.api.resource.config.xpath.PredicateEvaluator;
 import org.w3c.dom.Node;
 
-import java.util.Arrays;
+import java.util.Collections;
 
 public class DefaultPredicateEvaluator implements PredicateEvaluator {
 
     private final Expr expr;
+    private final ContextSupport contextSupport = new ContextSupport(new SimpleNamespaceContext(), XPathFunctionContext.getInstance(), new SimpleVariableContext(), DocumentNavigator.getInstance());
 
     public DefaultPredicateEvaluator(final Expr expr) {
         expr.simplify();
@@ -69,8 +70,8 @@ public class DefaultPredicateEvaluator implements PredicateEvaluator {
 
     @Override
     public boolean evaluate(final Fragment<?> fragment, final ExecutionContext executionContext) {
-        final Context context = new Context(new ContextSupport(new SimpleNamespaceContext(), XPathFunctionContext.getInstance(), new SimpleVariableContext(), DocumentNavigator.getInstance()));
-        context.setNodeSet(Arrays.asList((Node) fragment.unwrap()));
+        final Context context = new Context(contextSupport);
+        context.setNodeSet(Collections.singletonList((Node) fragment.unwrap()));
         try {
             return (boolean) expr.evaluate(context);
         } catch (JaxenException e) {
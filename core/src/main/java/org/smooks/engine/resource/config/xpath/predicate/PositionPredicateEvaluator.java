@@ -50,6 +50,9 @@ import org.jaxen.SimpleVariableContext;
 import org.jaxen.XPathFunctionContext;
 import org.jaxen.dom.DocumentNavigator;
 import org.jaxen.expr.Expr;
+import org.jaxen.expr.FilterExpr;
+import org.jaxen.expr.NumberExpr;
+import org.jaxen.expr.PathExpr;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksException;
 import org.smooks.api.delivery.fragment.Fragment;
@@ -61,20 +64,33 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import javax.xml.XMLConstants;
-import java.util.Arrays;
+import java.util.Collections;
 
 public class PositionPredicateEvaluator implements PredicateEvaluator {
     private final Expr expr;
+    private final Double position;
     private final String elementName;
     private final String elementNS;
+    private final ContextSupport contextSupport = new ContextSupport(new SimpleNamespaceContext(), XPathFunctionContext.getInstance(), new SimpleVariableContext(), DocumentNavigator.getInstance());
     private ElementPositionCounter counter;
 
     public PositionPredicateEvaluator(Expr expr, String elementName, String elementNS) {
         this.expr = expr;
+        this.position = getLiteralPosition(expr);
         this.elementName = elementName;
         this.elementNS = elementNS;
     }
 
+    private static Double getLiteralPosition(Expr expr) {
+        if (expr instanceof PathExpr && ((PathExpr) expr).getLocationPath() == null && ((PathExpr) expr).getFilterExpr() instanceof FilterExpr) {
+            FilterExpr filterExpr = (FilterExpr) ((PathExpr) expr).getFilterExpr();
+            if (filterExpr.getExpr() instanceof NumberExpr && filterExpr.getPredicates().isEmpty()) {
+                return ((NumberExpr) filterExpr.getExpr()).getNumber().doubleValue();
+            }
+        }
+        return null;
+    }
+
     public void setCounter(ElementPositionCounter positionCounter) {
         this.counter = positionCounter;
     }
@@ -103,9 +119,12 @@ public class PositionPredicateEvaluator implements PredicateEvaluator {
             }
         }
 
-        Context context = new Context(new ContextSupport(new SimpleNamespaceContext(), XPathFunctionContext.getInstance(), new SimpleVariableContext(), DocumentNavigator.getInstance()));
-        Node unwrap = (Node) fragment.unwrap();
-        context.setNodeSet(Arrays.asList(unwrap));
+        if (position != null) {
+            return position == count;
+        }
+
+        Context context = new Context(contextSupport);
+        context.setNodeSet(Collections.singletonList((Node) fragment.unwrap()));
 
         try {
             return ((double) expr.evaluate(context)) == count;
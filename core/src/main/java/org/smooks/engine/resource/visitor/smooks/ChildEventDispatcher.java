@@ -0,0 +1,129 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 - 2021 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.visitor.smooks;
+
+import org.smooks.api.SmooksException;
+import org.smooks.api.delivery.event.ExecutionEvent;
+import org.smooks.api.delivery.event.ExecutionEventListener;
+import org.smooks.engine.delivery.event.EndFragmentExecutionEvent;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Relays execution events to the {@link ChildEventListener}s of the fragments a {@link NestedSmooksVisitor} is
+ * currently visiting, in the order the fragments were visited. In parallel mode, the output of the fragments still
+ * pending is written out before an element outside the visited fragments ends.
+ * <p/>
+ * One dispatcher stays registered for the rest of the execution once the first fragment is visited. Between visited
+ * fragments it has no listeners and returns straight away.
+ */
+class ChildEventDispatcher implements ExecutionEventListener {
+    private final List<ChildEventListener> childEventListeners = new ArrayList<>();
+    private final PendingFragmentQueue pendingFragmentQueue;
+
+    public ChildEventDispatcher() {
+        this(null);
+    }
+
+    public ChildEventDispatcher(final PendingFragmentQueue pendingFragmentQueue) {
+        this.pendingFragmentQueue = pendingFragmentQueue;
+    }
+
+    @Override
+    public void onEvent(final ExecutionEvent executionEvent) {
+        if (childEventListeners.isEmpty()) {
+            if (pendingFragmentQueue != null && !pendingFragmentQueue.isEmpty() && executionEvent instanceof EndFragmentExecutionEvent) {
+                pendingFragmentQueue.drain();
+            }
+            return;
+        }
+        for (int i = 0; i < childEventListeners.size(); i++) {
+            childEventListeners.get(i).onEvent(executionEvent);
+        }
+    }
+
+    public void addChildEventListener(final ChildEventListener childEventListener) {
+        childEventListeners.add(childEventListener);
+    }
+
+    public ChildEventListener removeChildEventListener(final NodeFragment visitedFragment) {
+        for (int i = childEventListeners.size() - 1; i >= 0; i--) {
+            if (childEventListeners.get(i).getVisitedFragment().equals(visitedFragment)) {
+                return childEventListeners.remove(i);
+            }
+        }
+
+        throw new SmooksException(String.format("No child event listener for fragment [%s]", visitedFragment));
+    }
+
+    public void submit(final Callable<String> task, final Writer writer) {
+        pendingFragmentQueue.submit(task, writer);
+    }
+
+    /**
+     * Waits for the pending fragments and writes their output.
+     */
+    public void drain() {
+        if (pendingFragmentQueue != null) {
+            pendingFragmentQueue.drain();
+        }
+    }
+
+    /**
+     * Cancels the pending fragments, discarding their output.
+     */
+    public void cancel() {
+        if (pendingFragmentQueue != null) {
+            pendingFragmentQueue.cancel();
+        }
+        childEventListeners.clear();
+    }
+
+    public PendingFragmentQueue getPendingFragmentQueue() {
+        return pendingFragmentQueue;
+    }
+}
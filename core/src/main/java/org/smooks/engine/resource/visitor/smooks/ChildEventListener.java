@@ -45,8 +45,6 @@ package org.smooks.engine.resource.visitor.smooks;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.delivery.fragment.Fragment;
 import org.smooks.engine.delivery.fragment.NodeFragment;
-import org.smooks.engine.memento.SimpleVisitorMemento;
-import org.smooks.engine.memento.VisitorMemento;
 import org.smooks.engine.delivery.sax.ng.CharDataFragmentExecutionEvent;
 import org.smooks.api.delivery.event.ExecutionEvent;
 import org.smooks.engine.delivery.event.FragmentExecutionEvent;
@@ -61,59 +59,100 @@ class ChildEventListener extends BridgeAwareExecutionEventListener {
     private final NestedSmooksVisitor nestedSmooksVisitor;
     private final NodeFragment visitedFragment;
     private final Writer selectorWriter;
+    private final ExecutionContext nestedExecutionContext;
+    private Node sourceTreeNode;
     private int currentNodeDepth;
 
-    public ChildEventListener(final NestedSmooksVisitor nestedSmooksVisitor, final Writer selectorWriter, final NodeFragment visitedFragment, final ExecutionContext executionContext) {
+    public ChildEventListener(final NestedSmooksVisitor nestedSmooksVisitor, final Writer selectorWriter, final NodeFragment visitedFragment, final Node rootNode, final ExecutionContext nestedExecutionContext, final ExecutionContext executionContext) {
         super(executionContext);
         this.nestedSmooksVisitor = nestedSmooksVisitor;
         this.selectorWriter = selectorWriter;
         this.visitedFragment = visitedFragment;
+        this.sourceTreeNode = rootNode;
+        this.nestedExecutionContext = nestedExecutionContext;
+    }
+
+    /**
+     * Creates a listener which only copies the children of the visited fragment into the tree under <code>rootNode</code>
+     * without filtering them, leaving the complete copy to be filtered once the visited fragment ends.
+     */
+    public ChildEventListener(final NestedSmooksVisitor nestedSmooksVisitor, final NodeFragment visitedFragment, final Node rootNode, final ExecutionContext executionContext) {
+        this(nestedSmooksVisitor, null, visitedFragment, rootNode, null, executionContext);
     }
 
     @Override
     public void doOnEvent(final ExecutionEvent executionEvent) {
         if (executionEvent instanceof FragmentExecutionEvent) {
             final Fragment<Node> childFragment = ((FragmentExecutionEvent<Node>) executionEvent).getFragment();
-            final VisitorMemento<Node> sourceTreeMemento = new SimpleVisitorMemento<>(visitedFragment, nestedSmooksVisitor, visitedFragment.unwrap());
-            executionContext.getMementoCaretaker().restore(sourceTreeMemento);
-
             if (executionEvent instanceof StartFragmentExecutionEvent) {
                 if (!visitedFragment.equals(childFragment)) {
-                    visitBefore(sourceTreeMemento, childFragment);
+                    visitBefore(childFragment);
                 }
             } else if (executionEvent instanceof CharDataFragmentExecutionEvent) {
-                visitChildText(sourceTreeMemento, childFragment);
+                visitChildText(childFragment);
             } else if (executionEvent instanceof EndFragmentExecutionEvent) {
                 if (!visitedFragment.equals(childFragment)) {
-                    visitAfter(sourceTreeMemento);
+                    visitAfter();
                 }
             }
         }
     }
 
-    protected void visitBefore(final VisitorMemento<Node> sourceTreeMemento, final Fragment<Node> childFragment) {
-        final Node childNode = sourceTreeMemento.getState().getOwnerDocument().importNode(childFragment.unwrap(), true);
-        nestedSmooksVisitor.filterSource(visitedFragment, new NodeFragment(sourceTreeMemento.getState().appendChild(childNode)), selectorWriter, executionContext, "visitBefore");
+    protected Node importNode(final Fragment<Node> childFragment) {
+        final Node childNode = sourceTreeNode.getOwnerDocument().importNode(childFragment.unwrap(), true);
+        sourceTreeNode.appendChild(childNode);
+        if (nestedExecutionContext == null) {
+            // the copy is filtered on a worker thread later on
+            NestedSmooksVisitor.clearUserData(childNode);
+        }
+
+        return childNode;
+    }
+
+    protected void visitBefore(final Fragment<Node> childFragment) {
+        final Node childNode = importNode(childFragment);
+        if (nestedExecutionContext != null) {
+            nestedSmooksVisitor.filterSource(nestedExecutionContext, new NodeFragment(childNode), selectorWriter, "visitBefore");
+        }
         currentNodeDepth++;
-        executionContext.getMementoCaretaker().capture(new SimpleVisitorMemento<>(visitedFragment, nestedSmooksVisitor, childNode));
+        sourceTreeNode = childNode;
     }
 
-    protected void visitChildText(final VisitorMemento<Node> sourceTreeMemento, final Fragment<Node> childFragment) {
-        final Node childNode = sourceTreeMemento.getState().getOwnerDocument().importNode(childFragment.unwrap(), true);
-        nestedSmooksVisitor.filterSource(visitedFragment, new NodeFragment(sourceTreeMemento.getState().appendChild(childNode)), selectorWriter, executionContext, "visitChildText");
+    protected void visitChildText(final Fragment<Node> childFragment) {
+        final Node childNode = importNode(childFragment);
+        if (nestedExecutionContext == null) {
+            return;
+        }
+        nestedSmooksVisitor.filterSource(nestedExecutionContext, new NodeFragment(childNode), selectorWriter, "visitChildText");
         if ((currentNodeDepth + 1) >= nestedSmooksVisitor.getMaxNodeDepth()) {
-            sourceTreeMemento.getState().removeChild(childNode);
+            sourceTreeNode.removeChild(childNode);
         }
     }
 
-    protected void visitAfter(final VisitorMemento<Node> sourceTreeMemento) {
-        nestedSmooksVisitor.filterSource(visitedFragment, new NodeFragment(sourceTreeMemento.getState()), selectorWriter, executionContext, "visitAfter");
-        final Node parentNode = sourceTreeMemento.getState().getParentNode();
-        if (currentNodeDepth >= nestedSmooksVisitor.getMaxNodeDepth()) {
-            parentNode.removeChild(sourceTreeMemento.getState());
+    protected void visitAfter() {
+        if (nestedExecutionContext != null) {
+            nestedSmooksVisitor.filterSource(nestedExecutionContext, new NodeFragment(sourceTreeNode), selectorWriter, "visitAfter");
+        }
+        final Node parentNode = sourceTreeNode.getParentNode();
+        if (nestedExecutionContext != null && currentNodeDepth >= nestedSmooksVisitor.getMaxNodeDepth()) {
+            parentNode.removeChild(sourceTreeNode);
         }
-        executionContext.getMementoCaretaker().capture(new SimpleVisitorMemento<>(visitedFragment, nestedSmooksVisitor, parentNode));
+        sourceTreeNode = parentNode;
         currentNodeDepth--;
     }
 
+    public NodeFragment getVisitedFragment() {
+        return visitedFragment;
+    }
+
+    /**
+     * @return the node, within the copy of the visited fragment, which the nested Smooks is currently positioned at
+     */
+    public Node getSourceTreeNode() {
+        return sourceTreeNode;
+    }
+
+    public ExecutionContext getNestedExecutionContext() {
+        return nestedExecutionContext;
+    }
 }
\ No newline at end of file
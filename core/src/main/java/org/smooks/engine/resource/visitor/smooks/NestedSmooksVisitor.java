@@ -54,6 +54,7 @@ import org.smooks.api.bean.repository.BeanId;
 import org.smooks.api.delivery.Filter;
 import org.smooks.api.delivery.fragment.Fragment;
 import org.smooks.api.delivery.ordering.Producer;
+import org.smooks.api.lifecycle.PostExecutionLifecycle;
 import org.smooks.api.lifecycle.PreExecutionLifecycle;
 import org.smooks.api.memento.MementoCaretaker;
 import org.smooks.api.resource.config.ResourceConfig;
@@ -63,6 +64,7 @@ import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
 import org.smooks.assertion.AssertArgument;
 import org.smooks.engine.DefaultApplicationContextBuilder;
 import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.delivery.sax.ng.org.apache.xerces.jaxp.DocumentBuilderFactoryImpl;
 import org.smooks.engine.memento.SimpleVisitorMemento;
 import org.smooks.engine.memento.VisitorMemento;
 import org.smooks.engine.resource.config.DefaultResourceConfig;
@@ -79,6 +81,7 @@ import org.smooks.support.XmlUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 import jakarta.annotation.PostConstruct;
@@ -87,7 +90,6 @@ import jakarta.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
@@ -101,9 +103,28 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
-public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Producer, PreExecutionLifecycle {
+/**
+ * Filters each fragment selected by <code>filterSourceOn</code> with a nested {@link Smooks}.
+ * <p/>
+ * Setting <code>parallelism</code> to a positive number switches on parallel mode: a fragment is copied as it is read
+ * and, once it ends, handed over in full to one of <code>parallelism</code> worker threads which filters the copy in
+ * its own nested {@link ExecutionContext}. The nested output is written to the result, or to the
+ * <code>outputTo</code> resource, from the parsing thread in fragment order unless <code>ordered</code> is
+ * <code>false</code>. The parser blocks while <code>maxPendingFragments</code> fragments are pending (twice the
+ * <code>parallelism</code> by default) and the pending output is flushed before an element enclosing the fragments
+ * ends. In parallel mode, the nested execution does not see the parent's beans or {@link DOMModel}, text written between
+ * the fragments may come ahead of earlier fragments' output, and only the default and <code>OUTPUT_TO</code> actions
+ * are supported. The default action further requires default serialization to be off. The <code>outputTo</code>
+ * resource has to stay open until the enclosing element ends.
+ */
+public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Producer, PreExecutionLifecycle, PostExecutionLifecycle {
 
     public enum Action {
         REPLACE,
@@ -118,6 +139,18 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
     protected static final TypedKey<Node> SOURCE_BRIDGE_TYPED_KEY = TypedKey.of();
     protected static final TypedKey<DocumentBuilder> CACHED_DOCUMENT_BUILDER_TYPED_KEY = TypedKey.of();
     protected static final TypedKey<ExecutionContext> NESTED_EXECUTION_CONTEXT_MEMENTO_TYPED_KEY = TypedKey.of();
+    protected static final TypedKey<Element> BRIDGE_ELEMENT_TYPED_KEY = TypedKey.of();
+    protected static final DocumentBuilder DOCUMENT_BUILDER;
+
+    static {
+        try {
+            DOCUMENT_BUILDER = new DocumentBuilderFactoryImpl().newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new SmooksException(e);
+        }
+    }
+
+    protected final TypedKey<ChildEventDispatcher> childEventDispatcherTypedKey = TypedKey.of();
 
     protected BeanId bindBeanId;
 
@@ -148,9 +181,19 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
     @Named(Filter.ENTITIES_REWRITE)
     protected Boolean rewriteEntities = true;
 
+    @Inject
+    protected Integer parallelism = 0;
+
+    @Inject
+    protected Boolean ordered = true;
+
+    @Inject
+    protected Integer maxPendingFragments = 0;
+
     protected ResourceConfigSeq resourceConfigSeq;
     protected Smooks nestedSmooks;
     protected DomSerializer domSerializer;
+    protected ExecutorService executorService;
 
     @PostConstruct
     public void postConstruct() throws SAXException, IOException, URISyntaxException, ClassNotFoundException {
@@ -188,18 +231,43 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
             }
         }
 
+        if (parallelism > 0) {
+            if (action != null && action != Action.OUTPUT_TO) {
+                throw new SmooksException(String.format("Action [%s] is not supported when parallelism is set. Remove the action or output to a resource instead", action));
+            }
+            final AtomicInteger threadCount = new AtomicInteger();
+            executorService = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                final Thread thread = new Thread(runnable, "nested-smooks-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
         domSerializer = new DomSerializer(false, rewriteEntities);
     }
 
     @Override
     public void onPreExecution(final ExecutionContext executionContext) {
-        final DocumentBuilder documentBuilder;
-        try {
-            documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-        } catch (ParserConfigurationException e) {
-            throw new SmooksException(e);
+        if (executorService != null && action == null && executionContext.getContentDeliveryRuntime().getContentDeliveryConfig().isDefaultSerializationOn()) {
+            // the parent would serialize the fragment too, interleaved with the nested output on the same writer
+            throw new SmooksException("Parallelism is not supported together with default serialization. Turn off default serialization or output to a resource instead");
+        }
+        // the bundled builder creates documents without keeping any state so one instance serves every execution
+        executionContext.put(CACHED_DOCUMENT_BUILDER_TYPED_KEY, DOCUMENT_BUILDER);
+    }
+
+    @Override
+    public void onPostExecution(final ExecutionContext executionContext) {
+        final ChildEventDispatcher childEventDispatcher = executionContext.get(childEventDispatcherTypedKey);
+        if (childEventDispatcher != null) {
+            if (executionContext.getTerminationError() == null) {
+                childEventDispatcher.drain();
+            } else {
+                // the parent execution failed so the workers are stopped rather than waited on
+                childEventDispatcher.cancel();
+            }
+            executionContext.getContentDeliveryRuntime().removeExecutionEventListener(childEventDispatcher);
         }
-        executionContext.put(CACHED_DOCUMENT_BUILDER_TYPED_KEY, documentBuilder);
     }
 
     protected Node deAttach(final Node node, ExecutionContext executionContext) {
@@ -207,30 +275,50 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
         document.setStrictErrorChecking(false);
         final Node copyNode = document.importNode(node, true);
         document.appendChild(copyNode);
+        if (executorService != null) {
+            clearUserData(copyNode);
+        }
 
         return copyNode;
     }
 
+    /**
+     * Removes the fragment user data that a copy shares with its source node. In parallel mode the copy is filtered on
+     * a worker thread while the parsing thread goes on using the source node's reservations.
+     */
+    protected static void clearUserData(final Node node) {
+        node.setUserData(NodeFragment.ID_USER_DATA_KEY, null, null);
+        node.setUserData(NodeFragment.RESERVATIONS_USER_DATA_KEY, null, null);
+        final NodeList childNodes = node.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            clearUserData(childNodes.item(i));
+        }
+    }
+
     @Override
     public void visitBefore(final Element element, final ExecutionContext executionContext) {
         final Node rootNode = deAttach(element, executionContext);
         final NodeFragment visitedFragment = new NodeFragment(element);
-        executionContext.getMementoCaretaker().capture(new SimpleVisitorMemento<>(visitedFragment, this, rootNode));
+        if (executorService != null) {
+            getChildEventDispatcher(executionContext).addChildEventListener(new ChildEventListener(this, visitedFragment, rootNode, executionContext));
+            return;
+        }
+        final ExecutionContext nestedExecutionContext = getNestedExecutionContext(visitedFragment, executionContext);
 
         final NodeFragment rootNodeFragment = new NodeFragment(rootNode);
         final Writer nodeWriter;
         if (action == null) {
-            filterSource(visitedFragment, rootNodeFragment, Stream.out(executionContext), executionContext, "visitBefore");
+            filterSource(nestedExecutionContext, rootNodeFragment, Stream.out(executionContext), "visitBefore");
             nodeWriter = Stream.out(executionContext);
         } else {
             if (action == Action.OUTPUT_TO) {
                 final ResourceWriter resourceWriter = new ResourceWriter(executionContext, outputStreamResourceOptional.get());
                 if (resourceWriter.getDelegateWriter() == null) {
-                    filterSource(visitedFragment, rootNodeFragment, null, executionContext, "visitBefore");
+                    filterSource(nestedExecutionContext, rootNodeFragment, null, "visitBefore");
                     nodeWriter = null;
                 } else {
                     executionContext.getMementoCaretaker().capture(new SimpleVisitorMemento<>(rootNodeFragment, this, resourceWriter));
-                    filterSource(visitedFragment, rootNodeFragment, resourceWriter, executionContext, "visitBefore");
+                    filterSource(nestedExecutionContext, rootNodeFragment, resourceWriter, "visitBefore");
                     nodeWriter = resourceWriter.getDelegateWriter();
                 }
             } else {
@@ -246,38 +334,40 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
                         }
                     }
                     executionContext.getMementoCaretaker().capture(new SimpleVisitorMemento<>(rootNodeFragment, this, fragmentWriter));
-                    filterSource(visitedFragment, rootNodeFragment, fragmentWriter, executionContext, "visitBefore");
+                    filterSource(nestedExecutionContext, rootNodeFragment, fragmentWriter, "visitBefore");
                     nodeWriter = fragmentWriter;
                 } else if (action == Action.REPLACE) {
                     nodeWriter = replaceBefore(visitedFragment, rootNodeFragment.unwrap(), executionContext);
                 } else if (action == Action.BIND_TO) {
                     nodeWriter = new StringWriter();
                     executionContext.getMementoCaretaker().capture(new SimpleVisitorMemento<>(rootNodeFragment, this, nodeWriter));
-                    filterSource(visitedFragment, rootNodeFragment, nodeWriter, executionContext, "visitBefore");
+                    filterSource(nestedExecutionContext, rootNodeFragment, nodeWriter, "visitBefore");
                 } else {
                     throw new UnsupportedOperationException();
                 }
             }
         }
 
-        final ChildEventListener childEventListener = new ChildEventListener(this, nodeWriter, visitedFragment, executionContext);
-        executionContext.getContentDeliveryRuntime().addExecutionEventListener(childEventListener);
-        executionContext.getMementoCaretaker().capture(new SimpleVisitorMemento<>(visitedFragment, this, childEventListener));
+        getChildEventDispatcher(executionContext).addChildEventListener(new ChildEventListener(this, nodeWriter, visitedFragment, rootNode, nestedExecutionContext, executionContext));
     }
 
     @Override
     public void visitAfter(final Element element, final ExecutionContext executionContext) {
         final NodeFragment visitedFragment = new NodeFragment(element);
-        final VisitorMemento<Node> rootNodeMemento = new SimpleVisitorMemento<>(visitedFragment, this, element);
-        executionContext.getMementoCaretaker().restore(rootNodeMemento);
-        final NodeFragment rootNodeFragment = new NodeFragment(rootNodeMemento.getState());
+        final ChildEventListener childEventListener = getChildEventDispatcher(executionContext).removeChildEventListener(visitedFragment);
+        final NodeFragment rootNodeFragment = new NodeFragment(childEventListener.getSourceTreeNode());
 
-        if (action == null) {
-            filterSource(visitedFragment, rootNodeFragment, Stream.out(executionContext), executionContext, "visitAfter");
+        if (executorService != null) {
+            submit(rootNodeFragment.unwrap().getOwnerDocument(), executionContext);
+            if (element.getParentNode() == null || element.getParentNode().getNodeType() == Node.DOCUMENT_NODE) {
+                getChildEventDispatcher(executionContext).drain();
+            }
+        } else if (action == null) {
+            filterSource(childEventListener.getNestedExecutionContext(), rootNodeFragment, Stream.out(executionContext), "visitAfter");
         } else {
             if (action == Action.OUTPUT_TO) {
                 final ResourceWriter resourceWriter = executionContext.getMementoCaretaker().stash(new SimpleVisitorMemento<>(rootNodeFragment, this, new ResourceWriter(executionContext, outputStreamResourceOptional.get())), resourceWriterMemento -> resourceWriterMemento).getState();
-                filterSource(visitedFragment, rootNodeFragment, resourceWriter, executionContext, "visitAfter");
+                filterSource(childEventListener.getNestedExecutionContext(), rootNodeFragment, resourceWriter, "visitAfter");
             } else {
                 if (action == Action.APPEND_BEFORE || action == Action.APPEND_AFTER) {
                     append(visitedFragment, (Element) rootNodeFragment.unwrap(), action, executionContext);
@@ -288,17 +378,59 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
                 } else if (action == Action.BIND_TO) {
                     final VisitorMemento<StringWriter> memento = new SimpleVisitorMemento<>(rootNodeFragment, this, new StringWriter());
                     executionContext.getMementoCaretaker().restore(memento);
-                    filterSource(visitedFragment, rootNodeFragment, memento.getState(), executionContext, "visitAfter");
+                    filterSource(childEventListener.getNestedExecutionContext(), rootNodeFragment, memento.getState(), "visitAfter");
                     executionContext.getBeanContext().addBean(bindBeanId, memento.getState().toString(), rootNodeFragment);
                 } else {
                     throw new UnsupportedOperationException();
                 }
             }
         }
+    }
+
+    /**
+     * Hands over the copy of a visited fragment to a worker which filters it in a fresh nested execution. The output is
+     * buffered until the parsing thread writes it out.
+     */
+    protected void submit(final Document document, final ExecutionContext executionContext) {
+        final Writer writer;
+        if (action == null) {
+            writer = Stream.out(executionContext);
+        } else {
+            writer = new ResourceWriter(executionContext, outputStreamResourceOptional.get()).getDelegateWriter();
+        }
+        final String contentEncoding = executionContext.getContentEncoding();
+
+        getChildEventDispatcher(executionContext).submit(() -> {
+            final ExecutionContext nestedExecutionContext = nestedSmooks.createExecutionContext();
+            nestedExecutionContext.setContentEncoding(contentEncoding);
+            if (writer == null) {
+                nestedSmooks.filterSource(nestedExecutionContext, new DOMSource(document));
+                return null;
+            } else {
+                final StringWriter stringWriter = new StringWriter();
+                nestedSmooks.filterSource(nestedExecutionContext, new DOMSource(document), new StreamResult(stringWriter));
+                return stringWriter.toString();
+            }
+        }, writer);
+    }
+
+    /**
+     * Gets the listener which relays the events of this execution's visited fragments to the nested Smooks. The
+     * listener is registered once per execution rather than once per visited fragment, and removed after execution.
+     */
+    protected ChildEventDispatcher getChildEventDispatcher(final ExecutionContext executionContext) {
+        ChildEventDispatcher childEventDispatcher = executionContext.get(childEventDispatcherTypedKey);
+        if (childEventDispatcher == null) {
+            if (executorService == null) {
+                childEventDispatcher = new ChildEventDispatcher();
+            } else {
+                childEventDispatcher = new ChildEventDispatcher(new PendingFragmentQueue(executorService, ordered, maxPendingFragments > 0 ? maxPendingFragments : parallelism * 2));
+            }
+            executionContext.put(childEventDispatcherTypedKey, childEventDispatcher);
+            executionContext.getContentDeliveryRuntime().addExecutionEventListener(childEventDispatcher);
+        }
 
-        final VisitorMemento<ChildEventListener> childEventListenerMemento = new SimpleVisitorMemento<>(visitedFragment, this, new ChildEventListener(this, null, null, null));
-        executionContext.getMementoCaretaker().restore(childEventListenerMemento);
-        executionContext.getContentDeliveryRuntime().removeExecutionEventListener(childEventListenerMemento.getState());
+        return childEventDispatcher;
     }
 
     protected Writer replaceBefore(final Fragment<Node> visitedNodeFragment, final Node rootNode, final ExecutionContext executionContext) {
@@ -377,6 +509,10 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
     }
 
     protected void filterSource(final Fragment<Node> visitedNodeFragment, final Fragment<Node> rootNodeFragment, final Writer writer, final ExecutionContext executionContext, final String visit) {
+        filterSource(getNestedExecutionContext(visitedNodeFragment, executionContext), rootNodeFragment, writer, visit);
+    }
+
+    protected ExecutionContext getNestedExecutionContext(final Fragment<Node> visitedNodeFragment, final ExecutionContext executionContext) {
         final VisitorMemento<ExecutionContext> nestedExecutionContextMemento;
         final MementoCaretaker mementoCaretaker = executionContext.getMementoCaretaker();
         if (mementoCaretaker.exists(new VisitorMemento<>(visitedNodeFragment, this, NESTED_EXECUTION_CONTEXT_MEMENTO_TYPED_KEY))) {
@@ -391,18 +527,27 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
             mementoCaretaker.capture(nestedExecutionContextMemento);
         }
 
-        final Document document = executionContext.get(CACHED_DOCUMENT_BUILDER_TYPED_KEY).newDocument();
-        document.setStrictErrorChecking(false);
-        final Element smooksBridgeElement = document.createElementNS(Namespace.SMOOKS_URI, "bridge");
+        return nestedExecutionContextMemento.getState();
+    }
+
+    protected void filterSource(final ExecutionContext nestedExecutionContext, final Fragment<Node> rootNodeFragment, final Writer writer, final String visit) {
+        // the nested Smooks only reads the bridge so it is built once per nested execution and re-pointed on each visit
+        Element smooksBridgeElement = nestedExecutionContext.get(BRIDGE_ELEMENT_TYPED_KEY);
+        if (smooksBridgeElement == null) {
+            final Document document = DOCUMENT_BUILDER.newDocument();
+            document.setStrictErrorChecking(false);
+            smooksBridgeElement = document.createElementNS(Namespace.SMOOKS_URI, "bridge");
+            smooksBridgeElement.setAttribute("source", SOURCE_BRIDGE_TYPED_KEY.getName());
+            document.appendChild(smooksBridgeElement);
+            nestedExecutionContext.put(BRIDGE_ELEMENT_TYPED_KEY, smooksBridgeElement);
+        }
         smooksBridgeElement.setAttribute("visit", visit);
-        smooksBridgeElement.setAttribute("source", SOURCE_BRIDGE_TYPED_KEY.getName());
-        document.appendChild(smooksBridgeElement);
 
-        nestedExecutionContextMemento.getState().put(SOURCE_BRIDGE_TYPED_KEY, rootNodeFragment.unwrap());
+        nestedExecutionContext.put(SOURCE_BRIDGE_TYPED_KEY, rootNodeFragment.unwrap());
         if (writer == null) {
-            nestedSmooks.filterSource(nestedExecutionContextMemento.getState(), new DOMSource(document));
+            nestedSmooks.filterSource(nestedExecutionContext, new DOMSource(smooksBridgeElement.getOwnerDocument()));
         } else {
-            nestedSmooks.filterSource(nestedExecutionContextMemento.getState(), new DOMSource(document), new StreamResult(writer));
+            nestedSmooks.filterSource(nestedExecutionContext, new DOMSource(smooksBridgeElement.getOwnerDocument()), new StreamResult(writer));
         }
     }
 
@@ -423,6 +568,18 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
         this.maxNodeDepth = maxNodeDepth;
     }
 
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public void setOrdered(Boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    public void setMaxPendingFragments(Integer maxPendingFragments) {
+        this.maxPendingFragments = maxPendingFragments;
+    }
+
     public Smooks getNestedSmooks() {
         return nestedSmooks;
     }
@@ -461,6 +618,9 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
 
     @PreDestroy
     public void preDestroy() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
         if (nestedSmooks != null) {
             nestedSmooks.close();
         }
@@ -0,0 +1,160 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 - 2021 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.visitor.smooks;
+
+import org.smooks.api.SmooksException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Holds the fragments a parallel {@link NestedSmooksVisitor} has handed over to its workers during one execution. The
+ * output of a fragment is written from the parsing thread only, either in the order the fragments were submitted or in
+ * the order they complete. Submitting blocks once too many fragments are pending so that the parser cannot run ahead of
+ * the workers.
+ */
+class PendingFragmentQueue {
+    private final ExecutorService executorService;
+    private final boolean ordered;
+    private final int maxPendingFragments;
+    private final Deque<PendingFragment> pendingFragments = new ArrayDeque<>();
+
+    public PendingFragmentQueue(final ExecutorService executorService, final boolean ordered, final int maxPendingFragments) {
+        this.executorService = executorService;
+        this.ordered = ordered;
+        this.maxPendingFragments = maxPendingFragments;
+    }
+
+    public void submit(final Callable<String> task, final Writer writer) {
+        while (pendingFragments.size() >= maxPendingFragments) {
+            if (!ordered) {
+                writeCompleted();
+            }
+            if (pendingFragments.size() >= maxPendingFragments) {
+                write(pendingFragments.pollFirst());
+            }
+        }
+        pendingFragments.addLast(new PendingFragment(executorService.submit(task), writer));
+        writeCompleted();
+    }
+
+    /**
+     * Writes the output of the fragments which have completed without waiting on the others.
+     */
+    public void writeCompleted() {
+        if (ordered) {
+            while (!pendingFragments.isEmpty() && pendingFragments.peekFirst().future.isDone()) {
+                write(pendingFragments.pollFirst());
+            }
+        } else {
+            final Iterator<PendingFragment> pendingFragmentIterator = pendingFragments.iterator();
+            while (pendingFragmentIterator.hasNext()) {
+                final PendingFragment pendingFragment = pendingFragmentIterator.next();
+                if (pendingFragment.future.isDone()) {
+                    pendingFragmentIterator.remove();
+                    write(pendingFragment);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for every pending fragment and writes its output.
+     */
+    public void drain() {
+        while (!pendingFragments.isEmpty()) {
+            write(pendingFragments.pollFirst());
+        }
+    }
+
+    public boolean isEmpty() {
+        return pendingFragments.isEmpty();
+    }
+
+    protected void write(final PendingFragment pendingFragment) {
+        try {
+            final String output = pendingFragment.future.get();
+            if (output != null && pendingFragment.writer != null) {
+                pendingFragment.writer.write(output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new SmooksException(e);
+        } catch (ExecutionException e) {
+            cancel();
+            if (e.getCause() instanceof SmooksException) {
+                throw (SmooksException) e.getCause();
+            } else {
+                throw new SmooksException(e.getCause());
+            }
+        } catch (IOException e) {
+            cancel();
+            throw new SmooksException(e);
+        }
+    }
+
+    protected void cancel() {
+        for (PendingFragment pendingFragment : pendingFragments) {
+            pendingFragment.future.cancel(true);
+        }
+        pendingFragments.clear();
+    }
+
+    private static final class PendingFragment {
+        private final Future<String> future;
+        private final Writer writer;
+
+        private PendingFragment(final Future<String> future, final Writer writer) {
+            this.future = future;
+            this.writer = writer;
+        }
+    }
+}
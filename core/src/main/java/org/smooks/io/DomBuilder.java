@@ -0,0 +1,148 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+import org.xml.sax.Attributes;
+import org.xml.sax.ext.DefaultHandler2;
+
+import javax.xml.XMLConstants;
+
+/**
+ * SAX handler which appends the events it receives to a W3C {@link Document}.
+ * <p/>
+ * Paired with a {@link SAXWriter}, it builds a DOM incrementally from serialized output without first buffering the
+ * output and then re-parsing it. Adjacent character events are coalesced into a single text node, as a DOM parser
+ * would do. Character events outside the document element are dropped.
+ */
+public class DomBuilder extends DefaultHandler2 {
+
+    private final Document document;
+    private Node currentNode;
+    private CDATASection currentCDATASection;
+    private boolean isInCDATA;
+
+    public DomBuilder(Document document) {
+        this.document = document;
+        this.currentNode = document;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        final Element element = document.createElementNS(uri == null || uri.isEmpty() ? null : uri, qName.isEmpty() ? localName : qName);
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final String attributeUri = attributes.getURI(i);
+            final String attributeQName = attributes.getQName(i);
+            element.setAttributeNS(attributeUri == null || attributeUri.isEmpty() ? null : attributeUri, attributeQName.isEmpty() ? attributes.getLocalName(i) : attributeQName, attributes.getValue(i));
+        }
+        currentNode.appendChild(element);
+        currentNode = element;
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        currentNode = currentNode.getParentNode();
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (currentNode == document || length == 0) {
+            return;
+        }
+        if (isInCDATA) {
+            if (currentCDATASection == null) {
+                currentCDATASection = document.createCDATASection(new String(ch, start, length));
+                currentNode.appendChild(currentCDATASection);
+            } else {
+                currentCDATASection.appendData(new String(ch, start, length));
+            }
+        } else {
+            final Node lastChild = currentNode.getLastChild();
+            if (lastChild != null && lastChild.getNodeType() == Node.TEXT_NODE) {
+                ((Text) lastChild).appendData(new String(ch, start, length));
+            } else {
+                currentNode.appendChild(document.createTextNode(new String(ch, start, length)));
+            }
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) {
+        characters(ch, start, length);
+    }
+
+    @Override
+    public void startCDATA() {
+        isInCDATA = true;
+        currentCDATASection = null;
+    }
+
+    @Override
+    public void endCDATA() {
+        if (isInCDATA && currentCDATASection == null && currentNode != document) {
+            currentNode.appendChild(document.createCDATASection(""));
+        }
+        isInCDATA = false;
+        currentCDATASection = null;
+    }
+
+    @Override
+    public void comment(char[] ch, int start, int length) {
+        currentNode.appendChild(document.createComment(new String(ch, start, length)));
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) {
+        if (!XMLConstants.XML_NS_PREFIX.equals(target)) {
+            currentNode.appendChild(document.createProcessingInstruction(target, data));
+        }
+    }
+}
@@ -73,6 +73,13 @@ public class DomSerializer {
      * @see org.smooks.serialize.SerializationUnit#writeElementStart(org.w3c.dom.Element, java.io.Writer)
      */
     public void writeStartElement(Element element, Writer writer) throws IOException {
+        final SAXWriter saxWriter = getSAXWriter(writer);
+        if (saxWriter != null) {
+            if (isWritable(writer)) {
+                saxWriter.writeStartElement(element);
+            }
+            return;
+        }
         writer.write('<');
         writer.write(element.getTagName());
         writeAttributes(element.getAttributes(), writer);
@@ -104,7 +111,7 @@ public class DomSerializer {
 
             if (rewriteEntities) {
                 writer.write('\"');
-                XmlUtils.encodeAttributeValue(attribValue.toCharArray(), 0, attribValue.length(), writer);
+                XmlUtils.encodeAttributeValue(attribValue, writer);
                 writer.write('\"');
             } else {
                 if (attribValue.indexOf('"') != -1) {
@@ -121,6 +128,13 @@ public class DomSerializer {
      * @see org.smooks.serialize.SerializationUnit#writeElementEnd(org.w3c.dom.Element, java.io.Writer)
      */
     public void writeEndElement(Element element, Writer writer) throws IOException {
+        final SAXWriter saxWriter = getSAXWriter(writer);
+        if (saxWriter != null) {
+            if (isWritable(writer)) {
+                saxWriter.writeEndElement(element);
+            }
+            return;
+        }
         if (closeEmptyElements && !element.hasChildNodes()) {
             writer.write("/>");
         } else {
@@ -145,9 +159,13 @@ public class DomSerializer {
                 break;
             }
             case Node.TEXT_NODE: {
-                if (rewriteEntities) {
-                    String textString = ((Text) node).getData();
-                    XmlUtils.encodeTextValue(textString.toCharArray(), 0, textString.length(), writer);
+                final SAXWriter saxWriter = getSAXWriter(writer);
+                if (saxWriter != null) {
+                    if (isWritable(writer)) {
+                        saxWriter.writeCharacterData(node);
+                    }
+                } else if (rewriteEntities) {
+                    XmlUtils.encodeTextValue(((Text) node).getData(), writer);
                 } else {
                     writer.write(((Text) node).getData());
                 }
@@ -163,6 +181,13 @@ public class DomSerializer {
      * @see org.smooks.serialize.SerializationUnit#writeElementComment(org.w3c.dom.Comment, java.io.Writer)
      */
     public void writeElementComment(Comment comment, Writer writer) throws IOException {
+        final SAXWriter saxWriter = getSAXWriter(writer);
+        if (saxWriter != null) {
+            if (isWritable(writer)) {
+                saxWriter.writeCharacterData(comment);
+            }
+            return;
+        }
         writer.write("<!--");
         writer.write(comment.getData());
         writer.write("-->");
@@ -181,11 +206,78 @@ public class DomSerializer {
      * @see org.smooks.serialize.SerializationUnit#writeElementCDATA(org.w3c.dom.CDATASection, java.io.Writer)
      */
     public void writeElementCDATA(CDATASection cdata, Writer writer) throws IOException {
+        final SAXWriter saxWriter = getSAXWriter(writer);
+        if (saxWriter != null) {
+            if (isWritable(writer)) {
+                saxWriter.writeCharacterData(cdata);
+            }
+            return;
+        }
         writer.write("<![CDATA[");
         writer.write(cdata.getData());
         writer.write("]]>");
     }
 
+    /**
+     * Write an element without content in short-hand form, e.g. <code>&lt;a b="c"/&gt;</code>.
+     *
+     * @param element The element to be written.
+     * @param writer  The writer to be written to.
+     * @throws IOException Exception writing output.
+     */
+    public void writeEmptyElement(Element element, Writer writer) throws IOException {
+        final SAXWriter saxWriter = getSAXWriter(writer);
+        if (saxWriter != null) {
+            if (isWritable(writer)) {
+                saxWriter.writeStartElement(element);
+                saxWriter.writeEndElement(element);
+            }
+            return;
+        }
+        writer.write('<');
+        writer.write(element.getTagName());
+        writeAttributes(element.getAttributes(), writer);
+        writer.write("/>");
+    }
+
+    /**
+     * Write the end tag of an element, regardless of whether the element has content.
+     *
+     * @param element The element to be closed.
+     * @param writer  The writer to be written to.
+     * @throws IOException Exception writing output.
+     */
+    public void writeEndTag(Element element, Writer writer) throws IOException {
+        final SAXWriter saxWriter = getSAXWriter(writer);
+        if (saxWriter != null) {
+            if (isWritable(writer)) {
+                saxWriter.writeEndElement(element);
+            }
+            return;
+        }
+        writer.write("</");
+        writer.write(element.getTagName());
+        writer.write('>');
+    }
+
+    /**
+     * Nodes written to a {@link SAXWriter}, directly or through a {@link FragmentWriter}, are handed over as SAX
+     * events instead of being serialized and parsed back.
+     */
+    private static SAXWriter getSAXWriter(Writer writer) {
+        if (writer instanceof SAXWriter) {
+            return (SAXWriter) writer;
+        } else if (writer instanceof FragmentWriter && ((FragmentWriter) writer).getDelegateWriter() instanceof SAXWriter) {
+            return (SAXWriter) ((FragmentWriter) writer).getDelegateWriter();
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isWritable(Writer writer) throws IOException {
+        return !(writer instanceof FragmentWriter) || ((FragmentWriter) writer).park();
+    }
+
     public Boolean getCloseEmptyElements() {
         return closeEmptyElements;
     }
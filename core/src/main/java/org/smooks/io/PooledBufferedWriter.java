@@ -0,0 +1,202 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Buffers the characters written to a {@link Writer} so that the small writes of serialization reach the underlying
+ * writer in large chunks. The buffer is borrowed from the current thread on construction and handed back on
+ * {@link #release()}, after which characters are written straight through.
+ * <p/>
+ * A {@link #flush()} issued while the document is being filtered is carried out according to the writer's
+ * {@link FlushPolicy}, whereas {@link #flushDocument()} is issued once the document ends.
+ * <p/>
+ * Unlike most {@link Writer}s, this writer is not thread-safe.
+ */
+public class PooledBufferedWriter extends Writer {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final ThreadLocal<char[]> BUFFERS = new ThreadLocal<>();
+
+    private final Writer writer;
+    private final FlushPolicy flushPolicy;
+    private final int flushThreshold;
+    private char[] buffer;
+    private int count;
+
+    public PooledBufferedWriter(final Writer writer) {
+        this(writer, FlushPolicy.ELEMENT, BUFFER_SIZE);
+    }
+
+    public PooledBufferedWriter(final Writer writer, final FlushPolicy flushPolicy, final int flushThreshold) {
+        this.writer = writer;
+        this.flushPolicy = flushPolicy;
+        this.flushThreshold = flushThreshold;
+        buffer = BUFFERS.get();
+        // the buffer has to hold the flush threshold since a full buffer is written out without a flush
+        if (buffer == null || buffer.length < flushThreshold) {
+            buffer = new char[Math.max(BUFFER_SIZE, flushThreshold)];
+        } else {
+            BUFFERS.remove();
+        }
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        if (buffer == null) {
+            writer.write(c);
+        } else {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (char) c;
+        }
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        if (buffer == null || len >= buffer.length) {
+            flushBuffer();
+            writer.write(cbuf, off, len);
+        } else {
+            if (len > buffer.length - count) {
+                flushBuffer();
+            }
+            System.arraycopy(cbuf, off, buffer, count, len);
+            count += len;
+        }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        if (buffer == null || len >= buffer.length) {
+            flushBuffer();
+            writer.write(str, off, len);
+        } else {
+            if (len > buffer.length - count) {
+                flushBuffer();
+            }
+            str.getChars(off, off + len, buffer, count);
+            count += len;
+        }
+    }
+
+    @Override
+    public Writer append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence charSequence = csq == null ? "null" : csq;
+        if (buffer == null || end - start >= buffer.length) {
+            flushBuffer();
+            writer.append(charSequence, start, end);
+        } else {
+            if (end - start > buffer.length - count) {
+                flushBuffer();
+            }
+            for (int i = start; i < end; i++) {
+                buffer[count++] = charSequence.charAt(i);
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (buffer == null || flushPolicy == FlushPolicy.ELEMENT || (flushPolicy == FlushPolicy.THRESHOLD && count >= flushThreshold)) {
+            flushBuffer();
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes out the buffered characters and, unless the flush policy is {@link FlushPolicy#EXPLICIT}, flushes the
+     * underlying writer.
+     *
+     * @throws IOException if the buffered characters cannot be written or the underlying writer cannot be flushed
+     */
+    public void flushDocument() throws IOException {
+        flushBuffer();
+        if (flushPolicy != FlushPolicy.EXPLICIT) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        release();
+        writer.close();
+    }
+
+    /**
+     * Writes out the buffered characters and hands the buffer back to the current thread.
+     *
+     * @throws IOException if the buffered characters cannot be written
+     */
+    public void release() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            if (buffer != null) {
+                BUFFERS.set(buffer);
+                buffer = null;
+                count = 0;
+            }
+        }
+    }
+
+    protected void flushBuffer() throws IOException {
+        if (count > 0) {
+            writer.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    public Writer getWriter() {
+        return writer;
+    }
+
+    public FlushPolicy getFlushPolicy() {
+        return flushPolicy;
+    }
+}
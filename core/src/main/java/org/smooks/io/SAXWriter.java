@@ -46,26 +46,50 @@ import com.fasterxml.aalto.AsyncByteArrayFeeder;
 import com.fasterxml.aalto.AsyncXMLStreamReader;
 import com.fasterxml.aalto.stax.InputFactoryImpl;
 import org.smooks.api.SmooksException;
+import org.smooks.support.XmlUtils;
+import org.w3c.dom.Attr;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.ext.LexicalHandler;
 import org.xml.sax.helpers.AttributesImpl;
 
 import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static javax.xml.XMLConstants.DEFAULT_NS_PREFIX;
 
+/**
+ * {@link Writer} which turns what is written to it into events for a SAX {@link ContentHandler}.
+ * <p/>
+ * Serializers hand DOM nodes straight to {@link #writeStartElement(Element)}, {@link #writeEndElement(Element)} and
+ * {@link #writeCharacterData(Node)}, which fire the events without serializing the node. Any other text written to
+ * this writer is parsed as a fragment of the element currently open, so it must be well-formed markup on its own.
+ */
 public class SAXWriter extends Writer {
     protected static final InputFactoryImpl ASYNC_XML_INPUT_FACTORY;
+    private static final String FRAGMENT_ROOT = "smooks-fragment";
 
     protected final ContentHandler contentHandler;
-    protected final AsyncXMLStreamReader<AsyncByteArrayFeeder> asyncXMLStreamReader;
     protected final LexicalHandler lexicalHandler;
+    protected AsyncXMLStreamReader<AsyncByteArrayFeeder> asyncXMLStreamReader;
+
+    private final Deque<Element> openElements = new ArrayDeque<>();
+    private boolean isDocumentStarted;
+    private int fragmentDepth;
 
     static {
         ASYNC_XML_INPUT_FACTORY = new InputFactoryImpl();
@@ -78,76 +102,180 @@ public class SAXWriter extends Writer {
         this.contentHandler = contentHandler;
         this.charset = charset;
         lexicalHandler = contentHandler instanceof LexicalHandler ? (LexicalHandler) contentHandler : null;
-        asyncXMLStreamReader = ASYNC_XML_INPUT_FACTORY.createAsyncForByteArray();
+    }
+
+    public ContentHandler getContentHandler() {
+        return contentHandler;
+    }
+
+    public void writeStartElement(final Element element) throws IOException {
+        try {
+            endFragment();
+            startDocument();
+            final NamedNodeMap attributes = element.getAttributes();
+            final AttributesImpl saxAttributes = new AttributesImpl();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                final Attr attribute = (Attr) attributes.item(i);
+                if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())) {
+                    contentHandler.startPrefixMapping(getNamespacePrefix(attribute), attribute.getValue());
+                }
+                saxAttributes.addAttribute(nullToEmpty(attribute.getNamespaceURI()), getLocalName(attribute), attribute.getName(), "CDATA", attribute.getValue());
+            }
+            contentHandler.startElement(nullToEmpty(element.getNamespaceURI()), getLocalName(element), element.getTagName(), saxAttributes);
+            openElements.push(element);
+        } catch (SAXException e) {
+            throw new SmooksException(e);
+        }
+    }
+
+    public void writeEndElement(final Element element) throws IOException {
+        try {
+            endFragment();
+            contentHandler.endElement(nullToEmpty(element.getNamespaceURI()), getLocalName(element), element.getTagName());
+            final NamedNodeMap attributes = element.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                final Attr attribute = (Attr) attributes.item(i);
+                if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())) {
+                    contentHandler.endPrefixMapping(getNamespacePrefix(attribute));
+                }
+            }
+            openElements.poll();
+        } catch (SAXException e) {
+            throw new SmooksException(e);
+        }
+    }
+
+    public void writeCharacterData(final Node node) throws IOException {
+        try {
+            switch (node.getNodeType()) {
+                case Node.TEXT_NODE: {
+                    endFragment();
+                    startDocument();
+                    final char[] data = ((CharacterData) node).getData().toCharArray();
+                    contentHandler.characters(data, 0, data.length);
+                    break;
+                }
+                case Node.CDATA_SECTION_NODE: {
+                    endFragment();
+                    startDocument();
+                    final char[] data = ((CharacterData) node).getData().toCharArray();
+                    if (lexicalHandler != null) {
+                        lexicalHandler.startCDATA();
+                    }
+                    contentHandler.characters(data, 0, data.length);
+                    if (lexicalHandler != null) {
+                        lexicalHandler.endCDATA();
+                    }
+                    break;
+                }
+                case Node.COMMENT_NODE: {
+                    endFragment();
+                    startDocument();
+                    if (lexicalHandler != null) {
+                        final char[] data = ((CharacterData) node).getData().toCharArray();
+                        lexicalHandler.comment(data, 0, data.length);
+                    }
+                    break;
+                }
+                default: {
+                    write('&' + node.getNodeName() + ';');
+                }
+            }
+        } catch (SAXException e) {
+            throw new SmooksException(e);
+        }
     }
 
     @Override
     public void write(final char[] cbuf, final int off, final int len) throws IOException {
         try {
+            if (asyncXMLStreamReader == null) {
+                startFragment();
+            }
             byte[] inputBytes = new String(cbuf, off, len).getBytes(charset);
             asyncXMLStreamReader.getInputFeeder().feedInput(inputBytes, 0, inputBytes.length);
-            while (true) {
-                int event = asyncXMLStreamReader.next();
-                if (AsyncXMLStreamReader.EVENT_INCOMPLETE == event) {
-                    break;
-                }
-                switch (event) {
-                    case XMLStreamConstants.START_DOCUMENT:
-                        contentHandler.startDocument();
-                        break;
-                    case XMLStreamConstants.START_ELEMENT:
-                        for (int i = 0; i < asyncXMLStreamReader.getNamespaceCount(); i++) {
-                            contentHandler.startPrefixMapping(asyncXMLStreamReader.getNamespacePrefix(i), asyncXMLStreamReader.getNamespaceURI(i));
-                        }
-                        final AttributesImpl saxAttributes = new AttributesImpl();
-                        for (int i = 0, n = asyncXMLStreamReader.getAttributeCount(); i < n; ++i) {
-                            saxAttributes.addAttribute(asyncXMLStreamReader.getAttributeName(i).getNamespaceURI(), asyncXMLStreamReader.getAttributeName(i).getLocalPart(), asyncXMLStreamReader.getAttributeName(i).getPrefix() + ":" + asyncXMLStreamReader.getAttributeName(i).getLocalPart(), asyncXMLStreamReader.getAttributeType(i), asyncXMLStreamReader.getAttributeValue(i));
-                        }
-                        for (int i = 0, n = asyncXMLStreamReader.getNamespaceCount(); i < n; ++i) {
-                            String namespacePrefix = asyncXMLStreamReader.getNamespacePrefix(i);
-                            if (namespacePrefix.equals(DEFAULT_NS_PREFIX)) {
-                                saxAttributes.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, namespacePrefix, XMLConstants.XMLNS_ATTRIBUTE, "CDATA", asyncXMLStreamReader.getNamespaceURI(i));
-                            } else {
-                                saxAttributes.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, namespacePrefix, XMLConstants.XMLNS_ATTRIBUTE + ":" + namespacePrefix, "CDATA", asyncXMLStreamReader.getNamespaceURI(i));
-                            }
-                        }
-                        if (asyncXMLStreamReader.getName().getNamespaceURI().equals(XMLConstants.NULL_NS_URI)) {
-                            contentHandler.startElement(asyncXMLStreamReader.getName().getNamespaceURI(), asyncXMLStreamReader.getName().getLocalPart(), asyncXMLStreamReader.getName().getLocalPart(), saxAttributes);
-                        } else {
-                            contentHandler.startElement(asyncXMLStreamReader.getName().getNamespaceURI(), asyncXMLStreamReader.getName().getLocalPart(), asyncXMLStreamReader.getName().getPrefix() + ":" + asyncXMLStreamReader.getName().getLocalPart(), saxAttributes);
-                        }
-                        break;
-                    case XMLStreamConstants.CHARACTERS:
-                        contentHandler.characters(asyncXMLStreamReader.getText().toCharArray(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
-                        break;
-                    case XMLStreamConstants.CDATA:
-                        if (lexicalHandler != null) {
-                            lexicalHandler.startCDATA();
-                        }
-                        contentHandler.characters(asyncXMLStreamReader.getText().toCharArray(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
-                        if (lexicalHandler != null) {
-                            lexicalHandler.endCDATA();
-                        }
-                        break;
-                    case XMLStreamConstants.END_ELEMENT:
-                        if (asyncXMLStreamReader.getName().getNamespaceURI().equals(XMLConstants.NULL_NS_URI)) {
-                            contentHandler.endElement(asyncXMLStreamReader.getName().getNamespaceURI(), asyncXMLStreamReader.getName().getLocalPart(), asyncXMLStreamReader.getName().getLocalPart());
+            parseFragment();
+        } catch (SAXException | XMLStreamException e) {
+            throw new SmooksException(e);
+        }
+    }
+
+    /**
+     * Fires the events of the text parsed so far, up to the end of the synthetic root.
+     */
+    protected void parseFragment() throws SAXException, XMLStreamException {
+        while (true) {
+            int event = asyncXMLStreamReader.next();
+            if (AsyncXMLStreamReader.EVENT_INCOMPLETE == event || XMLStreamConstants.END_DOCUMENT == event) {
+                break;
+            }
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    fragmentDepth++;
+                    for (int i = 0; i < asyncXMLStreamReader.getNamespaceCount(); i++) {
+                        contentHandler.startPrefixMapping(asyncXMLStreamReader.getNamespacePrefix(i), asyncXMLStreamReader.getNamespaceURI(i));
+                    }
+                    final AttributesImpl saxAttributes = new AttributesImpl();
+                    for (int i = 0, n = asyncXMLStreamReader.getAttributeCount(); i < n; ++i) {
+                        final QName attributeName = asyncXMLStreamReader.getAttributeName(i);
+                        final String attributeQName = attributeName.getPrefix().isEmpty() ? attributeName.getLocalPart() : attributeName.getPrefix() + ":" + attributeName.getLocalPart();
+                        saxAttributes.addAttribute(attributeName.getNamespaceURI(), attributeName.getLocalPart(), attributeQName, asyncXMLStreamReader.getAttributeType(i), asyncXMLStreamReader.getAttributeValue(i));
+                    }
+                    for (int i = 0, n = asyncXMLStreamReader.getNamespaceCount(); i < n; ++i) {
+                        String namespacePrefix = asyncXMLStreamReader.getNamespacePrefix(i);
+                        if (namespacePrefix.equals(DEFAULT_NS_PREFIX)) {
+                            saxAttributes.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, namespacePrefix, XMLConstants.XMLNS_ATTRIBUTE, "CDATA", asyncXMLStreamReader.getNamespaceURI(i));
                         } else {
-                            contentHandler.endElement(asyncXMLStreamReader.getName().getNamespaceURI(), asyncXMLStreamReader.getName().getLocalPart(), asyncXMLStreamReader.getName().getPrefix() + ":" + asyncXMLStreamReader.getName().getLocalPart());
-                        }
-                        for (int i = 0; i < asyncXMLStreamReader.getNamespaceCount(); i++) {
-                            contentHandler.endPrefixMapping(asyncXMLStreamReader.getNamespacePrefix(i));
+                            saxAttributes.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, namespacePrefix, XMLConstants.XMLNS_ATTRIBUTE + ":" + namespacePrefix, "CDATA", asyncXMLStreamReader.getNamespaceURI(i));
                         }
+                    }
+                    if (asyncXMLStreamReader.getName().getPrefix().isEmpty()) {
+                        contentHandler.startElement(asyncXMLStreamReader.getName().getNamespaceURI(), asyncXMLStreamReader.getName().getLocalPart(), asyncXMLStreamReader.getName().getLocalPart(), saxAttributes);
+                    } else {
+                        contentHandler.startElement(asyncXMLStreamReader.getName().getNamespaceURI(), asyncXMLStreamReader.getName().getLocalPart(), asyncXMLStreamReader.getName().getPrefix() + ":" + asyncXMLStreamReader.getName().getLocalPart(), saxAttributes);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                    contentHandler.characters(asyncXMLStreamReader.getTextCharacters(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
+                    break;
+                case XMLStreamConstants.CDATA:
+                    if (lexicalHandler != null) {
+                        lexicalHandler.startCDATA();
+                    }
+                    contentHandler.characters(asyncXMLStreamReader.getTextCharacters(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
+                    if (lexicalHandler != null) {
+                        lexicalHandler.endCDATA();
+                    }
+                    break;
+                case XMLStreamConstants.SPACE:
+                    contentHandler.ignorableWhitespace(asyncXMLStreamReader.getTextCharacters(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    if (lexicalHandler != null) {
+                        lexicalHandler.comment(asyncXMLStreamReader.getTextCharacters(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    contentHandler.processingInstruction(asyncXMLStreamReader.getPITarget(), asyncXMLStreamReader.getPIData());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    fragmentDepth--;
+                    if (fragmentDepth == 0) {
+                        // end of the synthetic root
                         break;
-                    case XMLStreamConstants.END_DOCUMENT:
-                        contentHandler.endDocument();
-                        break;
-                    default:
-                        throw new UnsupportedOperationException();
-                }
+                    }
+                    if (asyncXMLStreamReader.getName().getPrefix().isEmpty()) {
+                        contentHandler.endElement(asyncXMLStreamReader.getName().getNamespaceURI(), asyncXMLStreamReader.getName().getLocalPart(), asyncXMLStreamReader.getName().getLocalPart());
+                    } else {
+                        contentHandler.endElement(asyncXMLStreamReader.getName().getNamespaceURI(), asyncXMLStreamReader.getName().getLocalPart(), asyncXMLStreamReader.getName().getPrefix() + ":" + asyncXMLStreamReader.getName().getLocalPart());
+                    }
+                    for (int i = 0; i < asyncXMLStreamReader.getNamespaceCount(); i++) {
+                        contentHandler.endPrefixMapping(asyncXMLStreamReader.getNamespacePrefix(i));
+                    }
+                    break;
+                default:
+                    throw new UnsupportedOperationException();
             }
-        } catch (SAXException | XMLStreamException e) {
-            throw new SmooksException(e);
         }
     }
 
@@ -158,10 +286,111 @@ public class SAXWriter extends Writer {
 
     @Override
     public void close() throws IOException {
+        endFragment();
+        if (asyncXMLStreamReader != null) {
+            closeFragment();
+        }
+    }
+
+    protected void startDocument() throws SAXException {
+        if (!isDocumentStarted) {
+            isDocumentStarted = true;
+            contentHandler.startDocument();
+        }
+    }
+
+    /**
+     * Opens a parser session for written text. The session is rooted in a synthetic element declaring the namespaces
+     * in scope of the element currently open so that the text can be parsed as its content.
+     */
+    protected void startFragment() throws SAXException, XMLStreamException, IOException {
+        startDocument();
+        final StringWriter fragmentRoot = new StringWriter();
+        fragmentRoot.write('<');
+        fragmentRoot.write(FRAGMENT_ROOT);
+        if (!openElements.isEmpty()) {
+            for (Map.Entry<String, String> namespace : getInScopeNamespaces(openElements.peek()).entrySet()) {
+                fragmentRoot.write(' ');
+                fragmentRoot.write(namespace.getKey().isEmpty() ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ":" + namespace.getKey());
+                fragmentRoot.write("=\"");
+                XmlUtils.encodeAttributeValue(namespace.getValue(), fragmentRoot);
+                fragmentRoot.write('"');
+            }
+        }
+        fragmentRoot.write('>');
+
+        final byte[] fragmentRootBytes = fragmentRoot.toString().getBytes(charset);
+        asyncXMLStreamReader = ASYNC_XML_INPUT_FACTORY.createAsyncForByteArray();
+        asyncXMLStreamReader.getInputFeeder().feedInput(fragmentRootBytes, 0, fragmentRootBytes.length);
+        while (asyncXMLStreamReader.next() != AsyncXMLStreamReader.EVENT_INCOMPLETE) {
+            // skip past the start of the document and the synthetic root
+        }
+        fragmentDepth = 1;
+    }
+
+    /**
+     * Closes the parser session unless written text left an element open, in which case the session carries on so that
+     * the text closing the element can be matched. The synthetic root is ended first so that text still buffered by
+     * the parser is fired, and so that text ending in an incomplete tag is reported rather than dropped.
+     */
+    protected void endFragment() throws IOException {
+        if (asyncXMLStreamReader != null && fragmentDepth <= 1) {
+            try {
+                final byte[] fragmentRootEndBytes = ("</" + FRAGMENT_ROOT + ">").getBytes(charset);
+                asyncXMLStreamReader.getInputFeeder().feedInput(fragmentRootEndBytes, 0, fragmentRootEndBytes.length);
+                asyncXMLStreamReader.getInputFeeder().endOfInput();
+                parseFragment();
+            } catch (XMLStreamException e) {
+                throw new SmooksException("Text written to SAXWriter is not well-formed markup", e);
+            } catch (SAXException e) {
+                throw new SmooksException(e);
+            } finally {
+                closeFragment();
+            }
+        }
+    }
+
+    private void closeFragment() throws IOException {
         try {
             asyncXMLStreamReader.close();
         } catch (XMLStreamException e) {
             throw new IOException(e);
+        } finally {
+            asyncXMLStreamReader = null;
         }
     }
-}
\ No newline at end of file
+
+    private static Map<String, String> getInScopeNamespaces(final Element element) {
+        final Map<String, String> namespaces = new LinkedHashMap<>();
+        Node node = element;
+        while (node instanceof Element) {
+            final Element ancestor = (Element) node;
+            if (ancestor.getNamespaceURI() != null) {
+                namespaces.putIfAbsent(nullToEmpty(ancestor.getPrefix()), ancestor.getNamespaceURI());
+            }
+            final NamedNodeMap attributes = ancestor.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                final Attr attribute = (Attr) attributes.item(i);
+                if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())) {
+                    namespaces.putIfAbsent(getNamespacePrefix(attribute), attribute.getValue());
+                }
+            }
+            node = ancestor.getParentNode();
+        }
+        namespaces.remove(XMLConstants.XML_NS_PREFIX);
+
+        return namespaces;
+    }
+
+    private static String getNamespacePrefix(final Attr attribute) {
+        return XMLConstants.XMLNS_ATTRIBUTE.equals(attribute.getName()) ? DEFAULT_NS_PREFIX : getLocalName(attribute);
+    }
+
+    private static String getLocalName(final Node node) {
+        return node.getLocalName() == null ? node.getNodeName() : node.getLocalName();
+    }
+
+    private static String nullToEmpty(final String string) {
+        return string == null ? "" : string;
+    }
+}
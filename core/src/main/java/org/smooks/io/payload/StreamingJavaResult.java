@@ -0,0 +1,98 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io.payload;
+
+import org.smooks.api.bean.lifecycle.BeanContextLifecycleEvent;
+import org.smooks.api.bean.lifecycle.BeanContextLifecycleObserver;
+import org.smooks.api.bean.lifecycle.BeanLifecycle;
+import org.smooks.assertion.AssertArgument;
+
+import javax.xml.transform.Result;
+import java.util.function.BiConsumer;
+
+/**
+ * Streaming Java filtration/transformation result.
+ * <p/>
+ * Unlike {@link JavaResult}, which is populated with the bean map once filtering ends, this {@link Result} hands each
+ * bean to a consumer as soon as the bean's fragment ends (i.e., on {@link BeanLifecycle#END_FRAGMENT}). Bound records
+ * can therefore be processed and discarded while the source is still being parsed:
+ * <pre>
+ * smooks.filterSource(executionContext, source, new StreamingJavaResult((beanId, bean) -&gt; process((Order) bean), "order"));
+ * </pre>
+ * The consumer is invoked on the filtering thread. The bean should not be held on to if it is going to be repopulated
+ * for the next record.
+ * <p/>
+ * Smooks core does not publish {@link BeanLifecycle#END_FRAGMENT} itself. The event comes from the bean binding
+ * visitors of the Java Binding cartridge: a <code>&lt;jb:bean&gt;</code> publishes it for its bean when the element the
+ * bean was created on ends. Without such a visitor, or a custom visitor publishing the event through
+ * {@link org.smooks.api.bean.context.BeanContext#notifyObservers(BeanContextLifecycleEvent)}, the consumer is never
+ * called.
+ */
+public class StreamingJavaResult extends FilterResult implements BeanContextLifecycleObserver {
+
+    private final BiConsumer<String, Object> beanConsumer;
+    private final String[] beanIds;
+
+    /**
+     * Public constructor.
+     *
+     * @param beanConsumer The consumer receiving the bean ID and bean of each completed bean.
+     * @param beanIds      The IDs of the beans to stream. All beans are streamed when none are supplied.
+     */
+    public StreamingJavaResult(BiConsumer<String, Object> beanConsumer, String... beanIds) {
+        AssertArgument.isNotNull(beanConsumer, "beanConsumer");
+        this.beanConsumer = beanConsumer;
+        this.beanIds = (beanIds == null ? new String[0] : beanIds);
+    }
+
+    public String[] getBeanIds() {
+        return beanIds;
+    }
+
+    @Override
+    public void onBeanLifecycleEvent(BeanContextLifecycleEvent event) {
+        if (event.getLifecycle() == BeanLifecycle.END_FRAGMENT) {
+            beanConsumer.accept(event.getBeanId().getName(), event.getBean());
+        }
+    }
+}
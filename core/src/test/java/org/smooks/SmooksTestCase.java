@@ -46,12 +46,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksException;
+import org.smooks.api.TypedKey;
+import org.smooks.api.delivery.ContentDeliveryConfig;
 import org.smooks.api.resource.visitor.dom.DOMVisitAfter;
 import org.smooks.api.resource.visitor.dom.DOMVisitBefore;
 import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
 import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
 import org.smooks.engine.DefaultApplicationContextBuilder;
 import org.smooks.engine.profile.DefaultProfileSet;
+import org.smooks.io.payload.JavaResult;
 import org.smooks.io.payload.StringResult;
 import org.smooks.io.payload.StringSource;
 import org.smooks.resource.URIResourceLocator;
@@ -64,6 +67,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
@@ -138,6 +143,72 @@ public class SmooksTestCase {
 		assertEquals("classpath:/org/smooks/somethingelse.xml", resourceLocator.getBaseURI().resolve("somethingelse.xml").toString());
     }
 
+	@Test
+    public void test_warmUp() {
+        Smooks smooks = new Smooks();
+        TestSAXVisitorBefore visitor = new TestSAXVisitorBefore();
+        smooks.addVisitor(visitor, "c");
+
+        smooks.warmUp();
+        ContentDeliveryConfig contentDeliveryConfig = smooks.createExecutionContext().getContentDeliveryRuntime().getContentDeliveryConfig();
+        assertSame(contentDeliveryConfig, smooks.createExecutionContext().getContentDeliveryRuntime().getContentDeliveryConfig());
+        assertEquals(0, visitor.callCount);
+
+        smooks.filterSource(new StringSource("<a><c/></a>"));
+        assertEquals(1, visitor.callCount);
+    }
+
+	@Test
+    public void test_acquireExecutionContext() {
+        Smooks smooks = new Smooks();
+        TypedKey<String> typedKey = TypedKey.of();
+        smooks.addVisitor((BeforeVisitor) (element, executionContext) -> {
+            assertNull(executionContext.get(typedKey));
+            assertNull(executionContext.getBeanContext().getBean("a"));
+            executionContext.put(typedKey, element.getAttribute("v"));
+            executionContext.getBeanContext().addBean("a", element.getAttribute("v"));
+        }, "a");
+
+        ExecutionContext executionContext = smooks.acquireExecutionContext();
+        JavaResult javaResult = new JavaResult();
+        smooks.filterSource(executionContext, new StringSource("<a v=\"1\"/>"), javaResult);
+        assertEquals("1", executionContext.get(typedKey));
+        smooks.releaseExecutionContext(executionContext);
+
+        assertNull(executionContext.get(typedKey));
+        assertEquals("1", javaResult.getBean("a"));
+
+        ExecutionContext recycledExecutionContext = smooks.acquireExecutionContext();
+        assertSame(executionContext, recycledExecutionContext);
+        assertNotSame(recycledExecutionContext, smooks.acquireExecutionContext());
+
+        javaResult = new JavaResult();
+        smooks.filterSource(recycledExecutionContext, new StringSource("<a v=\"2\"/>"), javaResult);
+        assertEquals("2", recycledExecutionContext.get(typedKey));
+        assertEquals("2", javaResult.getBean("a"));
+        smooks.releaseExecutionContext(recycledExecutionContext);
+    }
+
+	@Test
+    public void test_acquireExecutionContext_afterClose() throws InterruptedException {
+        Smooks smooks = new Smooks();
+        ExecutionContext[] executionContexts = new ExecutionContext[1];
+        Thread thread = new Thread(() -> {
+            executionContexts[0] = smooks.acquireExecutionContext();
+            smooks.releaseExecutionContext(executionContexts[0]);
+        });
+        thread.start();
+        thread.join();
+
+        assertSame(executionContexts[0], smooks.acquireExecutionContext());
+        smooks.releaseExecutionContext(executionContexts[0]);
+
+        smooks.close();
+        assertNotSame(executionContexts[0], smooks.acquireExecutionContext());
+        smooks.releaseExecutionContext(executionContexts[0]);
+        assertNotSame(executionContexts[0], smooks.acquireExecutionContext());
+    }
+
     private static class TestDOMVisitorBefore implements DOMVisitBefore {
         private int callCount;
 
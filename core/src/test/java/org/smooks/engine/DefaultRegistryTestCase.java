@@ -44,6 +44,7 @@ package org.smooks.engine;
 
 import org.junit.jupiter.api.Test;
 import org.smooks.api.Registry;
+import org.smooks.engine.lookup.InstanceLookup;
 import org.smooks.engine.lookup.converter.SourceTargetTypeConverterFactoryLookup;
 import org.smooks.engine.profile.DefaultProfileStore;
 import org.smooks.engine.resource.config.loader.xml.XmlResourceConfigLoader;
@@ -52,9 +53,12 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class DefaultRegistryTestCase {
 
@@ -84,4 +88,23 @@ public class DefaultRegistryTestCase {
         Registry registry = new DefaultRegistry(getClass().getClassLoader(), new XmlResourceConfigLoader(), new DefaultProfileStore());
         assertNotNull(registry.lookup(new SourceTargetTypeConverterFactoryLookup<>(BigDecimal.class, String.class)));
     }
+
+    @Test
+    public void testLookupInstanceLookupTracksRegistrations() {
+        Registry registry = new DefaultRegistry(getClass().getClassLoader(), new XmlResourceConfigLoader(), new DefaultProfileStore());
+        registry.registerObject("foo", new StringBuilder("foo"));
+
+        Map<Object, CharSequence> charSequences = registry.lookup(new InstanceLookup<>(CharSequence.class));
+        assertEquals(1, charSequences.size());
+        assertSame(charSequences, registry.lookup(new InstanceLookup<>(CharSequence.class)));
+
+        registry.registerObject("bar", "bar");
+        assertEquals(1, charSequences.size());
+        assertEquals(2, registry.lookup(new InstanceLookup<>(CharSequence.class)).size());
+
+        registry.deRegisterObject("foo");
+        Map<Object, CharSequence> remainingCharSequences = registry.lookup(new InstanceLookup<>(CharSequence.class));
+        assertEquals(1, remainingCharSequences.size());
+        assertEquals("bar", remainingCharSequences.get("bar"));
+    }
 }
@@ -50,6 +50,7 @@ import org.smooks.api.bean.context.BeanIdStore;
 import org.smooks.testkit.MockExecutionContext;
 import org.smooks.api.bean.lifecycle.BeanContextLifecycleEvent;
 import org.smooks.api.bean.lifecycle.BeanContextLifecycleObserver;
+import org.smooks.api.bean.lifecycle.BeanLifecycle;
 import org.smooks.api.bean.repository.BeanId;
 
 import java.util.HashMap;
@@ -149,6 +150,37 @@ public class BeanContextTestCase {
 		assertTrue(fired, "The exception did not fire");
 	}
 
+	@Test
+	public void test_bean_observer() {
+		BeanId beanId1 = getBeanIdStore().register("bean1");
+		BeanId beanId2 = getBeanIdStore().register("bean2");
+		BeanContext beanContext = getBeanContext();
+
+		MockRepositoryBeanLifecycleObserver addObserver = new MockRepositoryBeanLifecycleObserver();
+		MockRepositoryBeanLifecycleObserver removeObserver = new MockRepositoryBeanLifecycleObserver();
+		assertFalse(beanContext.hasObservers(beanId1, BeanLifecycle.ADD));
+		beanContext.addObserver(beanId1, BeanLifecycle.ADD, addObserver);
+		beanContext.addObserver(beanId1, BeanLifecycle.REMOVE, removeObserver);
+		assertTrue(beanContext.hasObservers(beanId1, BeanLifecycle.ADD));
+		assertFalse(beanContext.hasObservers(beanId2, BeanLifecycle.ADD));
+
+		beanContext.addBean(beanId2, new MyGoodBean(), null);
+		assertFalse(addObserver.isFired());
+
+		beanContext.addBean(beanId1, new MyGoodBean(), null);
+		assertTrue(addObserver.isFired());
+		assertFalse(removeObserver.isFired());
+
+		beanContext.removeBean(beanId1, null);
+		assertTrue(removeObserver.isFired());
+
+		addObserver.reset();
+		beanContext.removeObserver(beanId1, BeanLifecycle.ADD, addObserver);
+		assertFalse(beanContext.hasObservers(beanId1, BeanLifecycle.ADD));
+		beanContext.addBean(beanId1, new MyGoodBean(), null);
+		assertFalse(addObserver.isFired());
+	}
+
 	/**
 	 * Test adding and replacing a bean
 	 */
@@ -0,0 +1,167 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.engine.resource.reader.NullSourceXMLReader;
+import org.xml.sax.XMLReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ElasticReaderPoolTestCase {
+
+    @Test
+    public void testBorrowXMLReaderReturnsReaderReturnedByThread() {
+        ElasticReaderPool readerPool = new ElasticReaderPool(5, 1, TimeUnit.MINUTES);
+        assertNull(readerPool.borrowXMLReader());
+
+        XMLReader xmlReader = new NullSourceXMLReader();
+        readerPool.onXMLReaderCreated(xmlReader);
+        readerPool.returnXMLReader(xmlReader);
+        assertSame(xmlReader, readerPool.borrowXMLReader());
+
+        Map<String, String> properties = readerPool.getProperties();
+        assertEquals("1", properties.get("hits"));
+        assertEquals("1", properties.get("misses"));
+        assertEquals("1", properties.get("creations"));
+        assertEquals("0", properties.get("pooledReaders"));
+    }
+
+    @Test
+    public void testReturnXMLReaderGrowsUpToMaxReaderPoolSizeThenDiscards() {
+        ElasticReaderPool readerPool = new ElasticReaderPool(20, 1, TimeUnit.MINUTES);
+        for (int i = 0; i < 25; i++) {
+            readerPool.returnXMLReader(new NullSourceXMLReader());
+        }
+
+        Map<String, String> properties = readerPool.getProperties();
+        assertEquals("20", properties.get("readerPoolSize"));
+        assertEquals("20", properties.get("pooledReaders"));
+        assertEquals("5", properties.get("discards"));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(NullSourceXMLReader.class, readerPool.borrowXMLReader().getClass());
+        }
+        assertNull(readerPool.borrowXMLReader());
+    }
+
+    @Test
+    public void testReturnXMLReaderGivenConcurrentGrowthKeepsEveryReader() throws InterruptedException {
+        ElasticReaderPool readerPool = new ElasticReaderPool(-1, 1, TimeUnit.MINUTES);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                List<XMLReader> xmlReaders = new ArrayList<>();
+                for (int round = 0; round < 200; round++) {
+                    for (int j = 0; j < 8; j++) {
+                        XMLReader xmlReader = readerPool.borrowXMLReader();
+                        if (xmlReader == null) {
+                            xmlReader = new NullSourceXMLReader();
+                            readerPool.onXMLReaderCreated(xmlReader);
+                        }
+                        xmlReaders.add(xmlReader);
+                    }
+                    xmlReaders.forEach(readerPool::returnXMLReader);
+                    xmlReaders.clear();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // every reader created is back in the pool, none is stranded in slots replaced by a concurrent grow
+        Map<String, String> properties = readerPool.getProperties();
+        assertEquals("0", properties.get("discards"));
+        assertEquals(properties.get("creations"), properties.get("pooledReaders"));
+    }
+
+    @Test
+    public void testReturnXMLReaderEvictsIdleReaders() throws InterruptedException {
+        ElasticReaderPool readerPool = new ElasticReaderPool(-1, 200, TimeUnit.MILLISECONDS);
+        readerPool.returnXMLReader(new NullSourceXMLReader());
+        readerPool.returnXMLReader(new NullSourceXMLReader());
+        Thread.sleep(400);
+
+        XMLReader xmlReader = new NullSourceXMLReader();
+        readerPool.returnXMLReader(xmlReader);
+
+        Map<String, String> properties = readerPool.getProperties();
+        assertEquals("2", properties.get("evictions"));
+        assertEquals("1", properties.get("pooledReaders"));
+        assertSame(xmlReader, readerPool.borrowXMLReader());
+    }
+
+    @Test
+    public void testBorrowXMLReaderEvictsIdleReaders() throws InterruptedException {
+        ElasticReaderPool readerPool = new ElasticReaderPool(-1, 200, TimeUnit.MILLISECONDS);
+        readerPool.returnXMLReader(new NullSourceXMLReader());
+        readerPool.returnXMLReader(new NullSourceXMLReader());
+        Thread.sleep(400);
+
+        assertNull(readerPool.borrowXMLReader());
+
+        Map<String, String> properties = readerPool.getProperties();
+        assertEquals("2", properties.get("evictions"));
+        assertEquals("0", properties.get("pooledReaders"));
+        assertEquals("1", properties.get("misses"));
+    }
+
+    @Test
+    public void testZeroMaxReaderPoolSizeDiscardsReaders() {
+        ElasticReaderPool readerPool = new ElasticReaderPool(0, 1, TimeUnit.MINUTES);
+        readerPool.returnXMLReader(new NullSourceXMLReader());
+
+        assertNull(readerPool.borrowXMLReader());
+        assertEquals("1", readerPool.getProperties().get("discards"));
+    }
+}
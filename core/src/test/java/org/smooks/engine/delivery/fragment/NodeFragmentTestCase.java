@@ -43,7 +43,9 @@
 package org.smooks.engine.delivery.fragment;
 
 import org.junit.jupiter.api.Test;
+import org.smooks.engine.delivery.sax.ng.org.apache.xerces.jaxp.DocumentBuilderFactoryImpl;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -85,4 +87,69 @@ public class NodeFragmentTestCase {
 
         assertNotEquals(barNodeFragment, fooNodeFragment);
     }
+
+    @Test
+    public void testReserveAndRelease() throws ParserConfigurationException {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element element = document.createElement("a");
+        document.appendChild(element);
+        Object fooToken = new Object();
+        Object barToken = new Object();
+
+        assertTrue(new NodeFragment(element).reserve(1, fooToken));
+        assertTrue(new NodeFragment(element).reserve(1, fooToken));
+        assertFalse(new NodeFragment(element).reserve(1, barToken));
+        assertTrue(new NodeFragment(element).reserve(2, barToken));
+
+        assertFalse(new NodeFragment(element).release(1, barToken));
+        assertTrue(new NodeFragment(element).release(1, fooToken));
+        assertTrue(new NodeFragment(element).reserve(1, barToken));
+    }
+
+    @Test
+    public void testReserveGivenInheritableReservation() throws ParserConfigurationException {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element parent = document.createElement("a");
+        Element child = document.createElement("b");
+        Element sibling = document.createElement("c");
+        document.appendChild(parent);
+        parent.appendChild(child);
+        Object fooToken = new Object();
+        Object barToken = new Object();
+
+        assertTrue(new NodeFragment(parent, true).reserve(1, fooToken));
+        assertTrue(new NodeFragment(parent).reserve(2, fooToken));
+        parent.appendChild(sibling);
+
+        assertFalse(new NodeFragment(child).reserve(1, barToken));
+        assertTrue(new NodeFragment(child).reserve(1, fooToken));
+        assertTrue(new NodeFragment(child).reserve(2, barToken));
+        assertFalse(new NodeFragment(sibling).reserve(1, barToken));
+    }
+
+    @Test
+    public void testUserDataIsCopiedOnImportAndClone() throws ParserConfigurationException {
+        Document document = new DocumentBuilderFactoryImpl().newDocumentBuilder().newDocument();
+        Element element = document.createElement("a");
+        document.appendChild(element);
+        Object fooToken = new Object();
+        Object userData = new Object();
+        NodeFragment nodeFragment = new NodeFragment(element);
+        String id = nodeFragment.getId();
+        assertTrue(nodeFragment.reserve(1, fooToken));
+        element.setUserData("foo", userData, NodeFragment.COPY_USER_DATA_HANDLER);
+
+        Element importedElement = (Element) new DocumentBuilderFactoryImpl().newDocumentBuilder().newDocument().importNode(element, true);
+        Element clonedElement = (Element) element.cloneNode(true);
+        for (Element copy : new Element[]{importedElement, clonedElement}) {
+            assertEquals(id, new NodeFragment(copy).getId());
+            assertFalse(new NodeFragment(copy).reserve(1, new Object()));
+            assertTrue(new NodeFragment(copy).release(1, fooToken));
+            assertTrue(new NodeFragment(copy).reserve(1, fooToken));
+            assertSame(userData, copy.getUserData("foo"));
+        }
+
+        assertSame(id, element.setUserData(NodeFragment.ID_USER_DATA_KEY, null, null));
+        assertNull(element.getUserData(NodeFragment.ID_USER_DATA_KEY));
+    }
 }
@@ -0,0 +1,130 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.interceptor;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.Smooks;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.SmooksException;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ElementVisitor;
+import org.smooks.engine.delivery.DefaultContentHandlerBinding;
+import org.smooks.engine.delivery.event.BasicExecutionEventListener;
+import org.smooks.engine.lookup.InterceptorVisitorChainFactoryLookup;
+import org.smooks.engine.resource.config.DefaultResourceConfig;
+import org.smooks.support.XmlUtils;
+import org.w3c.dom.Element;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InterceptorVisitorChainFactoryTestCase {
+
+    @Test
+    public void testCreateInterceptorChainFusesSystemInterceptors() throws Exception {
+        Smooks smooks = new Smooks();
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        InterceptorVisitorChainFactory interceptorVisitorChainFactory = smooks.getApplicationContext().getRegistry().lookup(new InterceptorVisitorChainFactoryLookup());
+
+        List<String> visits = new ArrayList<>();
+        ContentHandlerBinding<Visitor> interceptorChain = interceptorVisitorChainFactory.createInterceptorChain(new DefaultContentHandlerBinding<>((AfterVisitor) (element, ec) -> visits.add(element.getTagName()), new DefaultResourceConfig("a", new Properties())));
+        assertTrue(interceptorChain.getContentHandler() instanceof FusedInterceptorVisitor);
+
+        FusedInterceptorVisitor fusedInterceptorVisitor = (FusedInterceptorVisitor) interceptorChain.getContentHandler();
+        assertTrue(fusedInterceptorVisitor.getVisitorBinding().getContentHandler() instanceof ExceptionInterceptor);
+
+        Element element = XmlUtils.parseStream(new StringReader("<a/>")).getDocumentElement();
+        fusedInterceptorVisitor.visitBefore(element, executionContext);
+        fusedInterceptorVisitor.visitAfter(element, executionContext);
+        assertEquals(1, visits.size());
+
+        BasicExecutionEventListener executionEventListener = new BasicExecutionEventListener();
+        executionContext.getContentDeliveryRuntime().addExecutionEventListener(executionEventListener);
+        fusedInterceptorVisitor.visitAfter(element, executionContext);
+        assertEquals(2, visits.size());
+        assertFalse(executionEventListener.getEvents().isEmpty());
+    }
+
+    @Test
+    public void testCreateInterceptorChainGivenFusedVisitorException() throws Exception {
+        Smooks smooks = new Smooks();
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        InterceptorVisitorChainFactory interceptorVisitorChainFactory = smooks.getApplicationContext().getRegistry().lookup(new InterceptorVisitorChainFactoryLookup());
+
+        ContentHandlerBinding<Visitor> interceptorChain = interceptorVisitorChainFactory.createInterceptorChain(new DefaultContentHandlerBinding<>(new ElementVisitor() {
+            @Override
+            public void visitBefore(Element element, ExecutionContext executionContext) {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public void visitAfter(Element element, ExecutionContext executionContext) {
+
+            }
+
+            @Override
+            public void visitChildText(org.w3c.dom.CharacterData characterData, ExecutionContext executionContext) {
+
+            }
+
+            @Override
+            public void visitChildElement(Element childElement, ExecutionContext executionContext) {
+
+            }
+        }, new DefaultResourceConfig("a", new Properties())));
+
+        Element element = XmlUtils.parseStream(new StringReader("<a/>")).getDocumentElement();
+        SmooksException smooksException = assertThrows(SmooksException.class, () -> ((FusedInterceptorVisitor) interceptorChain.getContentHandler()).visitBefore(element, executionContext));
+        assertTrue(smooksException.getCause() instanceof IllegalStateException);
+        assertTrue(executionContext.getTerminationError() instanceof IllegalStateException);
+    }
+}
@@ -45,21 +45,42 @@ package org.smooks.engine.delivery.sax.ng;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
 import org.smooks.Smooks;
+import org.smooks.StreamFilterType;
 import org.smooks.api.ExecutionContext;
+import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
+import org.smooks.engine.delivery.sax.ng.terminate.TerminateVisitor;
 import org.smooks.engine.report.FlatReportGenerator;
+import org.smooks.io.DomBuilder;
+import org.smooks.io.FlushPolicy;
+import org.smooks.io.SAXWriter;
+import org.smooks.io.Stream;
+import org.smooks.support.DomUtils;
 import org.smooks.support.StreamUtils;
+import org.smooks.support.XmlUtils;
 import org.smooks.testkit.TextUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.smooks.testkit.Assertions.compareCharStreams;
 
@@ -255,6 +276,145 @@ public class SaxNgFilterTestCase {
         assertNotNull(MaxNodeDepthVisitor.element);
     }
 
+    @Test
+    public void test_lazy_element_stack() {
+        assertEquals(filterWithElementStack(false), filterWithElementStack(true));
+        assertEquals(Arrays.asList("d < c[d] < b[x=1] < a", "d < c[d] < b[x=1] < a", "g < f[g] < e[] < a"), filterWithElementStack(true));
+    }
+
+    private List<String> filterWithElementStack(boolean lazyElementStack) {
+        List<String> visits = new ArrayList<>();
+        BeforeVisitor beforeVisitor = (element, executionContext) -> {
+            StringBuilder visit = new StringBuilder(element.getNodeName());
+            for (Node parent = element.getParentNode(); parent instanceof Element; parent = parent.getParentNode()) {
+                visit.append(" < ").append(parent.getNodeName());
+                if (parent.getParentNode() instanceof Element) {
+                    visit.append('[').append(parent == element.getParentNode() ? DomUtils.getName((Element) parent.getFirstChild()) : DomUtils.getAttributeValue((Element) parent, "x") == null ? "" : "x=" + DomUtils.getAttributeValue((Element) parent, "x")).append(']');
+                }
+            }
+            visits.add(visit.toString());
+        };
+
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX_NG).setLazyElementStack(lazyElementStack));
+        smooks.addVisitor(beforeVisitor, "c/d");
+        smooks.addVisitor(beforeVisitor, "b[@x = '1']/c/d");
+        smooks.addVisitor(beforeVisitor, "e//g");
+        smooks.filterSource(smooks.createExecutionContext(), new StreamSource(new StringReader("<a><b x='1'><c>text<d/></c></b><e><x/><f><g/></f></e></a>")));
+
+        return visits;
+    }
+
+    @Test
+    public void test_passthrough_serialization() {
+        for (boolean rewriteEntities : new boolean[]{true, false}) {
+            for (boolean defaultSerializationOn : new boolean[]{true, false}) {
+                assertEquals(filterWithPassthroughSerialization(false, rewriteEntities, defaultSerializationOn), filterWithPassthroughSerialization(true, rewriteEntities, defaultSerializationOn));
+            }
+        }
+        assertEquals("<a b=\"&quot;q&quot;\" xmlns:n=\"urn:n\" z=\"1\"><!-- c --><b x=\"1\"><c>t &amp; u<![CDATA[<x>]]><d p=\"1\"/></c><e/></b><n:f n:y=\"2\"> </n:f></a>", filterWithPassthroughSerialization(true, true, true));
+    }
+
+    private String filterWithPassthroughSerialization(boolean passthroughSerialization, boolean rewriteEntities, boolean defaultSerializationOn) {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX_NG).setLazyElementStack(true).setPassthroughSerialization(passthroughSerialization).setRewriteEntities(rewriteEntities).setDefaultSerializationOn(defaultSerializationOn));
+        smooks.addVisitor((BeforeVisitor) (element, executionContext) -> element.setAttribute("p", ((Element) element.getParentNode().getParentNode()).getAttribute("x")), "c/d");
+        StringWriter writer = new StringWriter();
+        smooks.filterSource(smooks.createExecutionContext(), new StreamSource(new StringReader("<a z='1' b='&quot;q&quot;' xmlns:n='urn:n'><!-- c --><b x='1'><c>t &amp; u<![CDATA[<x>]]><d/></c><e/></b><n:f n:y='2'> </n:f></a>")), new StreamResult(writer));
+
+        return writer.toString();
+    }
+
+    @Test
+    public void test_passthrough_serialization_given_terminate() {
+        assertEquals("<a><b>hello</b>", filterWithPassthroughSerializationAndTerminate(false));
+        assertEquals("<a><b>hello</b>", filterWithPassthroughSerializationAndTerminate(true));
+    }
+
+    private String filterWithPassthroughSerializationAndTerminate(boolean passthroughSerialization) {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX_NG).setLazyElementStack(true).setPassthroughSerialization(passthroughSerialization));
+        smooks.addVisitor(new TerminateVisitor(), "c");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        smooks.filterSource(smooks.createExecutionContext(), new StreamSource(new StringReader("<a><b>hello</b><c/><d/></a>")), new StreamResult(outputStream));
+
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void test_flush_policy() {
+        assertTrue(filterWithFlushPolicy(FlushPolicy.ELEMENT) > 1);
+        assertEquals(1, filterWithFlushPolicy(FlushPolicy.DOCUMENT));
+        assertEquals(0, filterWithFlushPolicy(FlushPolicy.EXPLICIT));
+    }
+
+    @Test
+    public void test_flush_policy_given_sax_writer() throws Exception {
+        List<Writer> streamWriters = new ArrayList<>();
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX_NG).setFlushPolicy(FlushPolicy.DOCUMENT).setCloseResult(false));
+        smooks.addVisitor((BeforeVisitor) (element, executionContext) -> streamWriters.add(Stream.out(executionContext)), "b");
+
+        DomBuilder domBuilder = new DomBuilder(DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument());
+        SAXWriter saxWriter = new SAXWriter(domBuilder, StandardCharsets.UTF_8);
+        smooks.filterSource(smooks.createExecutionContext(), new StreamSource(new StringReader("<a><b/></a>")), new StreamResult(saxWriter));
+        saxWriter.close();
+
+        assertSame(saxWriter, streamWriters.get(0));
+        assertEquals("b", domBuilder.getDocument().getDocumentElement().getFirstChild().getNodeName());
+    }
+
+    @Test
+    public void test_flush_policy_given_terminate() {
+        for (FlushPolicy flushPolicy : FlushPolicy.values()) {
+            Smooks smooks = new Smooks();
+            smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX_NG).setFlushPolicy(flushPolicy).setFlushThreshold(1024));
+            smooks.addVisitor(new TerminateVisitor(), "c");
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            smooks.filterSource(smooks.createExecutionContext(), new StreamSource(new StringReader("<a><b>hello</b><c/><d/></a>")), new StreamResult(outputStream));
+
+            assertEquals("<a><b>hello</b>", new String(outputStream.toByteArray(), StandardCharsets.UTF_8), flushPolicy.toString());
+        }
+    }
+
+    private int filterWithFlushPolicy(FlushPolicy flushPolicy) {
+        AtomicInteger flushCount = new AtomicInteger();
+        StringWriter writer = new StringWriter() {
+            @Override
+            public void flush() {
+                flushCount.incrementAndGet();
+            }
+        };
+
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX_NG).setFlushPolicy(flushPolicy).setCloseResult(false));
+        smooks.addVisitor((BeforeVisitor) (element, executionContext) -> element.setAttribute("x", "1"), "b");
+        smooks.filterSource(smooks.createExecutionContext(), new StreamSource(new StringReader("<a><b/><b/><c/></a>")), new StreamResult(writer));
+        assertEquals("<a><b x=\"1\"/><b x=\"1\"/><c/></a>", writer.toString());
+
+        return flushCount.get();
+    }
+
+    @Test
+    public void test_dom_result() throws Exception {
+        String input = "<a xmlns='urn:a' xmlns:b='urn:b'><b:c b:x='1' y=\"2 &amp; 3\">text &lt; <![CDATA[<cdata>]]><!-- comment --><?pi data?></b:c><d>M\u00e9xico</d></a>";
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX_NG));
+
+        DOMResult domResult = new DOMResult();
+        smooks.filterSource(smooks.createExecutionContext(), new StreamSource(new StringReader(input)), domResult);
+
+        StringWriter streamResult = new StringWriter();
+        smooks.filterSource(smooks.createExecutionContext(), new StreamSource(new StringReader(input)), new StreamResult(streamResult));
+
+        Document document = (Document) domResult.getNode();
+        Document expectedDocument = XmlUtils.parseStream(new StringReader(streamResult.toString()));
+        assertEquals(XmlUtils.serialize(expectedDocument), XmlUtils.serialize(document));
+        assertTrue(expectedDocument.getDocumentElement().isEqualNode(document.getDocumentElement()));
+        assertEquals("urn:b", document.getDocumentElement().getFirstChild().getNamespaceURI());
+        assertEquals("2 & 3", ((Element) document.getDocumentElement().getFirstChild()).getAttribute("y"));
+    }
+
     @Test
     public void test_visitAfterAndChildren() throws IOException, SAXException {
         Smooks smooks = new Smooks(getClass().getResourceAsStream("smooks-config-05.xml"));
@@ -0,0 +1,156 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.resource.config.ResourceConfig;
+import org.smooks.api.resource.config.xpath.SelectorStep;
+import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.resource.config.DefaultResourceConfig;
+import org.smooks.engine.resource.config.xpath.step.ElementSelectorStep;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SelectorAutomatonTestCase {
+
+    private static final String XML = "<a xmlns:x=\"urn:x\">" +
+            "<b><c/><d><c/><x:c/></d></b>" +
+            "<x:b><c><b><c/></b></c></x:b>" +
+            "<c attr=\"1\"><d><d><c/></d></d></c>" +
+            "</a>";
+
+    private static final String[] SELECTORS = {"a", "b", "c", "*", "#document", "a/b", "b/c", "/a/b/c", "/b", "a/*/c",
+            "a//c", "b//c", "//c", "/a//d/c", "x:c", "x:*", "x:b/c", "x:b//c", "#document/b", "d/d/c", "c[@attr]", "c[1]", "b/c/@attr"};
+
+    @Test
+    public void testTransitionMatchesNodeFragment() throws Exception {
+        final Properties namespaces = new Properties();
+        namespaces.setProperty("x", "urn:x");
+
+        final SaxNgContentDeliveryConfig saxNgContentDeliveryConfig = new SaxNgContentDeliveryConfig();
+        final List<ResourceConfig> resourceConfigs = new ArrayList<>();
+        for (String selector : SELECTORS) {
+            final ResourceConfig resourceConfig = new DefaultResourceConfig(selector, namespaces);
+            resourceConfigs.add(resourceConfig);
+            saxNgContentDeliveryConfig.getBeforeVisitorIndex().put(getIndexKey(resourceConfig), resourceConfig, (BeforeVisitor) (element, executionContext) -> {
+            });
+        }
+
+        final SelectorAutomaton selectorAutomaton = saxNgContentDeliveryConfig.getSelectorAutomaton();
+        assertTrue(selectorAutomaton.isCompiled(resourceConfigs.get(0).getSelectorPath()));
+        assertTrue(selectorAutomaton.isCompiled(resourceConfigs.get(11).getSelectorPath()));
+        assertFalse(selectorAutomaton.isCompiled(resourceConfigs.get(20).getSelectorPath()));
+        assertFalse(selectorAutomaton.isCompiled(resourceConfigs.get(21).getSelectorPath()));
+        assertFalse(selectorAutomaton.isCompiled(resourceConfigs.get(22).getSelectorPath()));
+
+        final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setNamespaceAware(true);
+        final Document document = documentBuilderFactory.newDocumentBuilder().parse(new InputSource(new StringReader(XML)));
+
+        assertTransitions(selectorAutomaton, selectorAutomaton.getDocumentState(), document.getDocumentElement(), resourceConfigs);
+    }
+
+    @Test
+    public void testTransitionIsMemoized() {
+        final SaxNgContentDeliveryConfig saxNgContentDeliveryConfig = new SaxNgContentDeliveryConfig();
+        final ResourceConfig resourceConfig = new DefaultResourceConfig("a/b", new Properties());
+        saxNgContentDeliveryConfig.getBeforeVisitorIndex().put("b", resourceConfig, (BeforeVisitor) (element, executionContext) -> {
+        });
+
+        final SelectorAutomaton selectorAutomaton = saxNgContentDeliveryConfig.getSelectorAutomaton();
+        final SelectorAutomaton.Transition aTransition = selectorAutomaton.getDocumentState().transition(new QName("a"));
+        assertSame(aTransition, selectorAutomaton.getDocumentState().transition(new QName("a")));
+
+        final SelectorAutomaton.Transition bTransition = aTransition.getState().transition(new QName("b"));
+        assertEquals(1, bTransition.getVisitorBindings().getBeforeVisitors().size());
+        assertEquals(0, bTransition.getState().transition(new QName("b")).getVisitorBindings().getBeforeVisitors().size());
+
+        // unknown names share the same transition
+        assertSame(aTransition.getState().transition(new QName("foo")), aTransition.getState().transition(new QName("bar")));
+    }
+
+    private void assertTransitions(final SelectorAutomaton selectorAutomaton, final SelectorAutomaton.State parentState, final Element element, final List<ResourceConfig> resourceConfigs) {
+        final SelectorAutomaton.Transition transition = parentState.transition(new QName(element.getNamespaceURI() == null ? "" : element.getNamespaceURI(), element.getLocalName()));
+        final List<ContentHandlerBinding<BeforeVisitor>> beforeVisitors = transition.getVisitorBindings() == null ? new ArrayList<>() : transition.getVisitorBindings().getBeforeVisitors();
+
+        for (ResourceConfig resourceConfig : resourceConfigs) {
+            if (selectorAutomaton.isCompiled(resourceConfig.getSelectorPath())) {
+                final boolean isMatch = new NodeFragment(element).isMatch(resourceConfig.getSelectorPath(), null);
+                final boolean isDispatched = beforeVisitors.stream().anyMatch(b -> b.getResourceConfig() == resourceConfig);
+                assertEquals(isMatch, isDispatched, "Selector '" + resourceConfig.getSelectorPath().getSelector() + "' on element '" + element.getTagName() + "'");
+            }
+        }
+
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                assertTransitions(selectorAutomaton, transition.getState(), (Element) child, resourceConfigs);
+            }
+        }
+    }
+
+    private String getIndexKey(final ResourceConfig resourceConfig) {
+        for (int i = resourceConfig.getSelectorPath().size(); i > 0; i--) {
+            final SelectorStep selectorStep = resourceConfig.getSelectorPath().get(i - 1);
+            if (selectorStep instanceof ElementSelectorStep) {
+                return ((ElementSelectorStep) selectorStep).getQName().getLocalPart();
+            }
+        }
+        return "*";
+    }
+}
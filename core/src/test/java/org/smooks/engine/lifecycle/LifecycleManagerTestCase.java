@@ -297,6 +297,21 @@ public class LifecycleManagerTestCase {
         }
     }
 
+    @Test
+    public void test_Initialize_Uninitialize_reuses_lifecycle_metadata() {
+        ResourceConfig resourceConfig = new DefaultResourceConfig();
+        MockApplicationContext mockApplicationContext = new MockApplicationContext();
+
+        for (int i = 0; i < 2; i++) {
+            MyContentDeliveryUnit11 cdu = new MyContentDeliveryUnit11();
+            lifecycleManager.applyPhase(cdu, new PostConstructLifecyclePhase(new Scope(mockApplicationContext.getRegistry(), resourceConfig, cdu)));
+            lifecycleManager.applyPhase(cdu, new PreDestroyLifecyclePhase());
+            assertTrue(cdu.initialised);
+            assertTrue(cdu.uninitialised);
+        }
+        assertSame(LifecycleMetadata.of(MyContentDeliveryUnit11.class), LifecycleMetadata.of(MyContentDeliveryUnit11.class));
+    }
+
     // -----------------------------------------------------------------------------------------------------------------
 
     private static class MyContentDeliveryUnit1 implements ContentHandler {
@@ -0,0 +1,142 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.memento;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.smooks.api.TypedKey;
+import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SlottedMementoCaretakerTestCase {
+
+    private final BeforeVisitor fooVisitor = (element, executionContext) -> {
+    };
+    private final BeforeVisitor barVisitor = (element, executionContext) -> {
+    };
+
+    private SlottedMementoCaretaker mementoCaretaker;
+    private NodeFragment parentFragment;
+    private NodeFragment childFragment;
+
+    @BeforeEach
+    public void beforeEach() throws ParserConfigurationException {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        parentFragment = new NodeFragment(document.appendChild(document.createElement("a")));
+        childFragment = new NodeFragment(parentFragment.unwrap().appendChild(document.createElement("b")));
+        mementoCaretaker = new SlottedMementoCaretaker();
+    }
+
+    @Test
+    public void testRestoreGivenSimpleVisitorMemento() {
+        mementoCaretaker.capture(new SimpleVisitorMemento<>(parentFragment, fooVisitor, "foo"));
+        mementoCaretaker.capture(new SimpleVisitorMemento<>(parentFragment, barVisitor, "bar"));
+        mementoCaretaker.capture(new SimpleVisitorMemento<>(childFragment, fooVisitor, "baz"));
+
+        SimpleVisitorMemento<String> memento = new SimpleVisitorMemento<>(parentFragment, fooVisitor, "");
+        mementoCaretaker.restore(memento);
+        assertEquals("foo", memento.getState());
+
+        memento = new SimpleVisitorMemento<>(new NodeFragment(parentFragment.unwrap()), barVisitor, "");
+        mementoCaretaker.restore(memento);
+        assertEquals("bar", memento.getState());
+
+        memento = new SimpleVisitorMemento<>(childFragment, fooVisitor, "");
+        mementoCaretaker.restore(memento);
+        assertEquals("baz", memento.getState());
+    }
+
+    @Test
+    public void testExistsGivenVisitorMementoTypedKeys() {
+        TypedKey<String> fooTypedKey = TypedKey.of();
+        TypedKey<String> barTypedKey = TypedKey.of();
+        mementoCaretaker.capture(new VisitorMemento<>(parentFragment, fooVisitor, fooTypedKey, "foo"));
+
+        assertTrue(mementoCaretaker.exists(new VisitorMemento<>(parentFragment, fooVisitor, fooTypedKey)));
+        assertFalse(mementoCaretaker.exists(new VisitorMemento<>(parentFragment, fooVisitor, barTypedKey)));
+        assertFalse(mementoCaretaker.exists(new VisitorMemento<>(parentFragment, barVisitor, fooTypedKey)));
+        assertFalse(mementoCaretaker.exists(new SimpleVisitorMemento<>(parentFragment, fooVisitor, "foo")));
+    }
+
+    @Test
+    public void testStashGivenTextAccumulatorMementos() {
+        mementoCaretaker.stash(new TextAccumulatorMemento(parentFragment), memento -> memento.accumulateText("foo"));
+        mementoCaretaker.stash(new TextAccumulatorMemento(parentFragment), memento -> memento.accumulateText("bar"));
+        mementoCaretaker.stash(new TextAccumulatorVisitorMemento(parentFragment, fooVisitor), memento -> {
+            memento.accumulateText("baz");
+            return memento;
+        });
+
+        TextAccumulatorMemento textAccumulatorMemento = new TextAccumulatorMemento(parentFragment);
+        mementoCaretaker.restore(textAccumulatorMemento);
+        assertEquals("foobar", textAccumulatorMemento.getText());
+
+        TextAccumulatorVisitorMemento textAccumulatorVisitorMemento = new TextAccumulatorVisitorMemento(parentFragment, fooVisitor);
+        mementoCaretaker.restore(textAccumulatorVisitorMemento);
+        assertEquals("baz", textAccumulatorVisitorMemento.getText());
+        assertFalse(mementoCaretaker.exists(new TextAccumulatorVisitorMemento(parentFragment, barVisitor)));
+    }
+
+    @Test
+    public void testForget() {
+        mementoCaretaker.capture(new SimpleVisitorMemento<>(parentFragment, fooVisitor, "foo"));
+        mementoCaretaker.capture(new SimpleVisitorMemento<>(parentFragment, barVisitor, "bar"));
+        mementoCaretaker.capture(new SimpleVisitorMemento<>(childFragment, fooVisitor, "baz"));
+
+        mementoCaretaker.forget(new SimpleVisitorMemento<>(parentFragment, barVisitor, ""));
+        assertTrue(mementoCaretaker.exists(new SimpleVisitorMemento<>(parentFragment, fooVisitor, "")));
+        assertFalse(mementoCaretaker.exists(new SimpleVisitorMemento<>(parentFragment, barVisitor, "")));
+
+        mementoCaretaker.forget(parentFragment);
+        assertFalse(mementoCaretaker.exists(new SimpleVisitorMemento<>(parentFragment, fooVisitor, "")));
+        assertTrue(mementoCaretaker.exists(new SimpleVisitorMemento<>(childFragment, fooVisitor, "")));
+    }
+}
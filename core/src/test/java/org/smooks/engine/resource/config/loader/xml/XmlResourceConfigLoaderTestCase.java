@@ -120,6 +120,18 @@ public class XmlResourceConfigLoaderTestCase {
         assertResourceConfigOK(list);
     }
 
+	@Test
+    public void test_extension_config_digester_shared() {
+        XmlResourceConfigLoader xmlResourceConfigLoaderA = new XmlResourceConfigLoader();
+        XmlResourceConfigLoader xmlResourceConfigLoaderB = new XmlResourceConfigLoader();
+
+        xmlResourceConfigLoaderA.load(getClass().getResourceAsStream("/org/smooks/filterSettings-01.xml"), "a", getClass().getClassLoader());
+        xmlResourceConfigLoaderB.load(getClass().getResourceAsStream("/org/smooks/filterSettings-01.xml"), "b", getClass().getClassLoader());
+
+        String coreNamespace = "https://www.smooks.org/xsd/smooks/smooks-core-1.6.xsd";
+        assertSame(xmlResourceConfigLoaderA.getExtendedResourceConfigLoader(coreNamespace), xmlResourceConfigLoaderB.getExtendedResourceConfigLoader(coreNamespace));
+    }
+
     private void assertProfilesOK(Smooks smooks) {
         ExecutionContext execContext;
         execContext = smooks.createExecutionContext("profileA");
@@ -50,6 +50,8 @@ import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -79,4 +81,22 @@ public class SelectorPathFactoryTestCase {
         assertEquals(1, selectorPath.getNamespaces().size());
         assertEquals("http://a", selectorPath.getNamespaces().getProperty("a"));
     }
+
+    @Test
+    public void testNewSelectorPathSharesContextUnlessPatternHasFilters() {
+        Properties namespaces = new Properties();
+        namespaces.put("a", "http://a");
+
+        JaxenPatternSelectorPath selectorPath = (JaxenPatternSelectorPath) SelectorPathFactory.newSelectorPath("x/a:y", namespaces);
+        assertSame(selectorPath.getContext(), selectorPath.getContext());
+        assertEquals("http://a", selectorPath.getContext().translateNamespacePrefixToUri("a"));
+
+        namespaces.put("b", "http://b");
+        selectorPath.setNamespaces(namespaces);
+        assertEquals("http://b", selectorPath.getContext().translateNamespacePrefixToUri("b"));
+
+        JaxenPatternSelectorPath filteredSelectorPath = (JaxenPatternSelectorPath) SelectorPathFactory.newSelectorPath("x/a:y[@z = '1']", namespaces);
+        assertNotSame(filteredSelectorPath.getContext(), filteredSelectorPath.getContext());
+        assertEquals("http://a", filteredSelectorPath.getContext().translateNamespacePrefixToUri("a"));
+    }
 }
@@ -45,6 +45,7 @@ package org.smooks.engine.resource.visitor.smooks;
 import org.junit.jupiter.api.Test;
 import org.smooks.Smooks;
 import org.smooks.api.ExecutionContext;
+import org.smooks.api.SmooksException;
 import org.smooks.io.payload.StringResult;
 import org.smooks.io.payload.StringSource;
 import org.smooks.api.Registry;
@@ -55,6 +56,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class NestedSmooksVisitorFunctionalTestCase {
 
@@ -132,6 +135,66 @@ public class NestedSmooksVisitorFunctionalTestCase {
 		assertEquals("Hello World!", outputStream.toString());
 	}
 
+	@Test
+	public void testParallelism() throws IOException, SAXException {
+		Smooks smooks = new Smooks(getClass().getResourceAsStream("parallel-nested-smooks-visitor-config.xml"));
+		StringBuilder input = new StringBuilder("<a>");
+		StringBuilder expectedOutput = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			input.append("<b id=\"").append(i).append("\"><c>").append(i).append("</c></b>");
+			expectedOutput.append("<b id=\"").append(i).append("\"><c>").append(i).append("</c></b>");
+		}
+		input.append("</a>");
+
+		for (int i = 0; i < 3; i++) {
+			StringResult stringResult = new StringResult();
+			smooks.filterSource(new StringSource(input.toString()), stringResult);
+			assertEquals(expectedOutput.toString(), stringResult.getResult());
+		}
+		smooks.close();
+	}
+
+	@Test
+	public void testParallelismGivenMalformedInput() throws IOException, SAXException {
+		Smooks smooks = new Smooks(getClass().getResourceAsStream("parallel-nested-smooks-visitor-config.xml"));
+		StringBuilder input = new StringBuilder("<a>");
+		for (int i = 0; i < 100; i++) {
+			input.append("<b id=\"").append(i).append("\"><c>").append(i).append("</c></b>");
+		}
+		input.append("</x>");
+
+		assertThrows(SmooksException.class, () -> smooks.filterSource(new StringSource(input.toString()), new StringResult()));
+		smooks.close();
+	}
+
+	@Test
+	public void testParallelismGivenDefaultSerialization() throws IOException, SAXException {
+		Smooks smooks = new Smooks(getClass().getResourceAsStream("parallel-default-serialization-nested-smooks-visitor-config.xml"));
+		SmooksException smooksException = assertThrows(SmooksException.class, () -> smooks.filterSource(new StringSource("<a><b id=\"0\"><c>0</c></b></a>"), new StringResult()));
+		assertTrue(smooksException.getMessage().contains("default serialization"));
+		smooks.close();
+	}
+
+	@Test
+	public void testParallelismGivenUnorderedOutputTo() throws IOException, SAXException {
+		Smooks smooks = new Smooks(getClass().getResourceAsStream("parallel-outputTo-nested-smooks-visitor-config.xml"));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		smooks.getApplicationContext().getRegistry().registerObject("Output Stream", outputStream);
+		StringBuilder input = new StringBuilder("<a>");
+		for (int i = 0; i < 100; i++) {
+			input.append("<b>").append(i).append("</b>");
+		}
+		input.append("</a>");
+
+		smooks.filterSource(new StringSource(input.toString()), new StringResult());
+		String output = outputStream.toString();
+		for (int i = 0; i < 100; i++) {
+			assertTrue(output.contains("<b>" + i + "</b>"));
+		}
+		assertEquals(input.length() - "<a></a>".length(), output.length());
+		smooks.close();
+	}
+
 	@Test
 	public void testNoOp() throws IOException, SAXException {
 		Smooks smooks = new Smooks(getClass().getResourceAsStream("no-op-nested-smooks-visitor-config.xml"));
@@ -78,6 +78,8 @@ import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
@@ -85,6 +87,8 @@ import java.util.concurrent.ThreadLocalRandom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class NestedSmooksVisitorTestCase {
 
@@ -112,6 +116,38 @@ public class NestedSmooksVisitorTestCase {
         assertEquals(interceptorVisitorDefinitions.get(1).getInterceptorVisitorClass(), StaticProxyInterceptor.class);
     }
 
+    @Test
+    public void testPostConstructGivenParallelismAndUnsupportedAction() {
+        NestedSmooksVisitor nestedSmooksVisitor = new NestedSmooksVisitor();
+        nestedSmooksVisitor.setAction(Optional.of(NestedSmooksVisitor.Action.REPLACE));
+        nestedSmooksVisitor.setNestedSmooks(new Smooks(new DefaultApplicationContextBuilder().withSystemResources(false).build()));
+        nestedSmooksVisitor.setApplicationContext(new DefaultApplicationContextBuilder().build());
+        nestedSmooksVisitor.setParallelism(2);
+
+        assertThrows(SmooksException.class, nestedSmooksVisitor::postConstruct);
+    }
+
+    @Test
+    public void testClearUserData() throws ParserConfigurationException {
+        org.w3c.dom.Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element a = document.createElement("a");
+        Element b = document.createElement("b");
+        a.appendChild(b);
+        NodeFragment bNodeFragment = new NodeFragment(b);
+        String id = bNodeFragment.getId();
+        bNodeFragment.reserve(1, "token");
+
+        org.w3c.dom.Document copyDocument = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element aCopy = (Element) copyDocument.importNode(a, true);
+        NestedSmooksVisitor.clearUserData(aCopy);
+
+        assertNull(aCopy.getFirstChild().getUserData(NodeFragment.ID_USER_DATA_KEY));
+        assertNull(aCopy.getFirstChild().getUserData(NodeFragment.RESERVATIONS_USER_DATA_KEY));
+        assertEquals(id, b.getUserData(NodeFragment.ID_USER_DATA_KEY));
+        assertTrue(new NodeFragment(aCopy.getFirstChild()).reserve(1, "otherToken"));
+        assertTrue(new NodeFragment(b).reserve(1, "token"));
+    }
+
     @Test
     public void testFilterSourceGivenExecutionContextContentEncoding() throws URISyntaxException, ClassNotFoundException, SAXException, DocumentException, ParserConfigurationException {
         NestedSmooksVisitor nestedSmooksVisitor = new NestedSmooksVisitor();
@@ -219,6 +255,32 @@ public class NestedSmooksVisitorTestCase {
         assertEquals(0, countDownLatch.getCount());
     }
 
+    @Test
+    public void testVisitGivenManyFragmentsRegistersSingleChildEventListener() throws DocumentException {
+        List<String> visitedElements = new ArrayList<>();
+        NestedSmooksVisitor nestedSmooksVisitor = new NestedSmooksVisitor();
+        Smooks nestedSmooks = new Smooks(new DefaultApplicationContextBuilder().withSystemResources(false).build());
+        nestedSmooks.addVisitor((BeforeVisitor) (element, executionContext) -> visitedElements.add(element.getNodeName()), "c");
+        nestedSmooksVisitor.setNestedSmooks(nestedSmooks);
+
+        List<Long> childEventDispatcherCounts = new ArrayList<>();
+        Smooks smooks = new Smooks();
+        smooks.addVisitor(nestedSmooksVisitor, "b");
+        smooks.addVisitor((BeforeVisitor) (element, executionContext) -> childEventDispatcherCounts.add(executionContext.getContentDeliveryRuntime().getExecutionEventListeners().stream().filter(executionEventListener -> executionEventListener instanceof ChildEventDispatcher).count()), "c");
+        smooks.addVisitor((AfterVisitor) (element, executionContext) -> childEventDispatcherCounts.add(executionContext.getContentDeliveryRuntime().getExecutionEventListeners().stream().filter(executionEventListener -> executionEventListener instanceof ChildEventDispatcher).count()), "a");
+
+        org.dom4j.Element a = DocumentHelper.createDocument().addElement("a");
+        a.addElement("b").addElement("c").addText("1");
+        a.addElement("b").addElement("c").addText("2");
+        a.addElement("b").addElement("c").addText("3");
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        smooks.filterSource(executionContext, new DOMSource(new DOMWriter().write(a.getDocument())), new StringResult());
+
+        assertEquals(Arrays.asList("c", "c", "c"), visitedElements);
+        assertEquals(Arrays.asList(1L, 1L, 1L, 1L), childEventDispatcherCounts);
+        assertTrue(executionContext.getContentDeliveryRuntime().getExecutionEventListeners().isEmpty());
+    }
+
     @Test
     public void testVisitAfterGivenSelectorHasAncestors() throws DocumentException {
         CountDownLatch countDownLatch = new CountDownLatch(1);
@@ -0,0 +1,129 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 - 2021 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PooledBufferedWriterTestCase {
+
+    @Test
+    public void testWriteBuffersUntilFlush() throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        PooledBufferedWriter pooledBufferedWriter = new PooledBufferedWriter(stringWriter);
+        pooledBufferedWriter.write('<');
+        pooledBufferedWriter.write("abc", 1, 2);
+        pooledBufferedWriter.write(new char[]{'d', 'e', '>'}, 0, 3);
+        pooledBufferedWriter.append(new StringBuilder("fgh"), 1, 3);
+        assertEquals("", stringWriter.toString());
+
+        pooledBufferedWriter.flush();
+        assertEquals("<bcde>gh", stringWriter.toString());
+    }
+
+    @Test
+    public void testWriteGivenMoreCharactersThanBufferSize() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        StringWriter stringWriter = new StringWriter();
+        PooledBufferedWriter pooledBufferedWriter = new PooledBufferedWriter(stringWriter);
+        for (int i = 0; i < 5000; i++) {
+            pooledBufferedWriter.write("ab");
+            pooledBufferedWriter.write(i % 10 + '0');
+            expected.append("ab").append((char) (i % 10 + '0'));
+        }
+        char[] largeText = new char[20000];
+        Arrays.fill(largeText, 'z');
+        pooledBufferedWriter.write(largeText);
+        expected.append(largeText);
+
+        pooledBufferedWriter.flush();
+        assertEquals(expected.toString(), stringWriter.toString());
+    }
+
+    @Test
+    public void testReleaseWritesOutBufferAndWritesThrough() throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        PooledBufferedWriter pooledBufferedWriter = new PooledBufferedWriter(stringWriter);
+        pooledBufferedWriter.write("foo");
+        pooledBufferedWriter.release();
+        assertEquals("foo", stringWriter.toString());
+
+        pooledBufferedWriter.write("bar");
+        assertEquals("foobar", stringWriter.toString());
+    }
+
+    @Test
+    public void testFlushGivenFlushPolicy() throws IOException {
+        assertEquals(Arrays.asList("a", "ab", "abc", "abc"), flushWithFlushPolicy(FlushPolicy.ELEMENT));
+        assertEquals(Arrays.asList("ab", "abc"), flushWithFlushPolicy(FlushPolicy.THRESHOLD));
+        assertEquals(Collections.singletonList("abc"), flushWithFlushPolicy(FlushPolicy.DOCUMENT));
+        assertEquals(Collections.emptyList(), flushWithFlushPolicy(FlushPolicy.EXPLICIT));
+    }
+
+    private List<String> flushWithFlushPolicy(FlushPolicy flushPolicy) throws IOException {
+        List<String> flushes = new ArrayList<>();
+        StringWriter stringWriter = new StringWriter() {
+            @Override
+            public void flush() {
+                flushes.add(toString());
+            }
+        };
+        PooledBufferedWriter pooledBufferedWriter = new PooledBufferedWriter(stringWriter, flushPolicy, 2);
+        for (String text : new String[]{"a", "b", "c"}) {
+            pooledBufferedWriter.write(text);
+            pooledBufferedWriter.flush();
+        }
+        pooledBufferedWriter.flushDocument();
+        assertEquals("abc", stringWriter.toString());
+
+        return flushes;
+    }
+}
@@ -43,16 +43,26 @@
 package org.smooks.io;
 
 import org.junit.jupiter.api.Test;
+import org.smooks.api.SmooksException;
+import org.smooks.engine.delivery.sax.ng.org.apache.xerces.jaxp.DocumentBuilderFactoryImpl;
+import org.smooks.support.XmlUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
 
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SAXWriterTestCase {
 
@@ -118,6 +128,69 @@ public class SAXWriterTestCase {
         assertEquals(1, countDownLatch.getCount());
     }
 
+    @Test
+    public void testWriteGivenNodesInterleavedWithText() throws IOException, ParserConfigurationException, SAXException {
+        DocumentBuilder documentBuilder = new DocumentBuilderFactoryImpl().newDocumentBuilder();
+        Document sourceDocument = documentBuilder.newDocument();
+        Element a = sourceDocument.createElementNS("urn:a", "x:a");
+        a.setAttributeNS("http://www.w3.org/2000/xmlns/", "xmlns:x", "urn:a");
+        a.setAttribute("b", "c");
+        Element d = sourceDocument.createElement("d");
+        sourceDocument.appendChild(a);
+        a.appendChild(d);
+        d.appendChild(sourceDocument.createTextNode("1 < 2"));
+
+        DomBuilder domBuilder = new DomBuilder(documentBuilder.newDocument());
+        SAXWriter saxWriter = new SAXWriter(domBuilder, StandardCharsets.UTF_8);
+        saxWriter.writeStartElement(a);
+        saxWriter.write("<x:e>text</x:e><f>");
+        saxWriter.writeStartElement(d);
+        saxWriter.writeCharacterData(d.getFirstChild());
+        saxWriter.writeEndElement(d);
+        saxWriter.write("</f>");
+        saxWriter.writeEndElement(a);
+        saxWriter.close();
+
+        Document expectedDocument = XmlUtils.parseStream(new StringReader("<x:a xmlns:x=\"urn:a\" b=\"c\"><x:e>text</x:e><f><d>1 &lt; 2</d></f></x:a>"));
+        assertTrue(expectedDocument.isEqualNode(domBuilder.getDocument()), XmlUtils.serialize(domBuilder.getDocument()));
+    }
+
+    @Test
+    public void testWriteGivenTextEndingBeforeNode() throws IOException, ParserConfigurationException, SAXException {
+        DocumentBuilder documentBuilder = new DocumentBuilderFactoryImpl().newDocumentBuilder();
+        Document sourceDocument = documentBuilder.newDocument();
+        Element a = sourceDocument.createElement("a");
+        Element d = sourceDocument.createElement("d");
+        sourceDocument.appendChild(a);
+        a.appendChild(d);
+
+        DomBuilder domBuilder = new DomBuilder(documentBuilder.newDocument());
+        SAXWriter saxWriter = new SAXWriter(domBuilder, StandardCharsets.UTF_8);
+        saxWriter.writeStartElement(a);
+        saxWriter.write("<e/>head");
+        saxWriter.writeStartElement(d);
+        saxWriter.writeEndElement(d);
+        saxWriter.write("tail");
+        saxWriter.writeEndElement(a);
+        saxWriter.close();
+
+        Document expectedDocument = XmlUtils.parseStream(new StringReader("<a><e/>head<d/>tail</a>"));
+        assertTrue(expectedDocument.isEqualNode(domBuilder.getDocument()), XmlUtils.serialize(domBuilder.getDocument()));
+    }
+
+    @Test
+    public void testWriteGivenIncompleteTagBeforeNode() throws IOException, ParserConfigurationException {
+        DocumentBuilder documentBuilder = new DocumentBuilderFactoryImpl().newDocumentBuilder();
+        Document sourceDocument = documentBuilder.newDocument();
+        Element a = sourceDocument.createElement("a");
+        sourceDocument.appendChild(a);
+
+        SAXWriter saxWriter = new SAXWriter(new DomBuilder(documentBuilder.newDocument()), StandardCharsets.UTF_8);
+        saxWriter.writeStartElement(a);
+        saxWriter.write("<foo");
+        assertThrows(SmooksException.class, () -> saxWriter.writeEndElement(a));
+    }
+
     private static class MockContentHandler implements ContentHandler {
 
         @Override
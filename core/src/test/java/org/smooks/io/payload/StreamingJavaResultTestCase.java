@@ -0,0 +1,93 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io.payload;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.Smooks;
+import org.smooks.api.bean.context.BeanContext;
+import org.smooks.api.bean.lifecycle.BeanLifecycle;
+import org.smooks.api.bean.repository.BeanId;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.engine.bean.lifecycle.DefaultBeanContextLifecycleEvent;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StreamingJavaResultTestCase {
+
+    @Test
+    public void testFilterSource() {
+        Smooks smooks = new Smooks();
+        // stands in for the Java Binding cartridge's bean creator, which is what publishes END_FRAGMENT outside of tests
+        smooks.addVisitor((AfterVisitor) (element, executionContext) -> {
+            BeanContext beanContext = executionContext.getBeanContext();
+            BeanId beanId = beanContext.getBeanId(element.getLocalName());
+            if (beanId == null) {
+                beanId = executionContext.getApplicationContext().getBeanIdStore().register(element.getLocalName());
+            }
+            beanContext.addBean(beanId, element.getAttribute("id"));
+            beanContext.notifyObservers(new DefaultBeanContextLifecycleEvent(executionContext, new NodeFragment(element), BeanLifecycle.END_FRAGMENT, beanId, element.getAttribute("id")));
+        }, "*");
+
+        List<String> streamedBeans = new ArrayList<>();
+        smooks.filterSource(new StringSource("<orders><order id=\"1\"/><item id=\"a\"/><order id=\"2\"/></orders>"), new StreamingJavaResult((beanId, bean) -> streamedBeans.add(beanId + "=" + bean), "order"));
+        assertEquals("[order=1, order=2]", streamedBeans.toString());
+
+        streamedBeans.clear();
+        smooks.filterSource(new StringSource("<orders><order id=\"1\"/><item id=\"a\"/></orders>"), new StreamingJavaResult((beanId, bean) -> streamedBeans.add(beanId + "=" + bean)));
+        assertEquals("[order=1, item=a, orders=]", streamedBeans.toString());
+    }
+
+    @Test
+    public void testFilterSourceGivenNoEndFragmentProducer() {
+        Smooks smooks = new Smooks();
+        smooks.addVisitor((AfterVisitor) (element, executionContext) -> executionContext.getBeanContext().addBean(element.getLocalName(), element.getAttribute("id")), "order");
+
+        List<String> streamedBeans = new ArrayList<>();
+        smooks.filterSource(new StringSource("<orders><order id=\"1\"/><order id=\"2\"/></orders>"), new StreamingJavaResult((beanId, bean) -> streamedBeans.add(beanId + "=" + bean), "order"));
+        assertEquals("[]", streamedBeans.toString());
+    }
+}
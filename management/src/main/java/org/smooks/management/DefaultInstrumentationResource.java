@@ -83,6 +83,13 @@ public class DefaultInstrumentationResource implements FilterLifecycle, ContentD
     @Inject
     private Boolean includeHostName;
 
+    /**
+     * Defaults to 1000 ms, so unlike earlier releases a visitor MBean no longer emits a notification on every visit.
+     * Set it to 0 to notify on every visit again.
+     */
+    @Inject
+    private Long notificationInterval = 1000L;
+
     private InstrumentationAgent instrumentationAgent;
 
     @PostConstruct
@@ -147,6 +154,11 @@ public class DefaultInstrumentationResource implements FilterLifecycle, ContentD
         return includeHostName;
     }
 
+    @Override
+    public Long getNotificationInterval() {
+        return notificationInterval;
+    }
+
     @Override
     public InstrumentationAgent getInstrumentationAgent() {
         return instrumentationAgent;
@@ -58,8 +58,6 @@ import org.w3c.dom.CharacterData;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
-import java.util.Date;
-
 public class InstrumentationInterceptor extends AbstractInterceptorVisitor implements ElementVisitor {
 
     private ManagedVisitor managedVisitor;
@@ -101,22 +99,20 @@ public class InstrumentationInterceptor extends AbstractInterceptorVisitor imple
     @Override
     public void visitChildElement(Element childElement, ExecutionContext executionContext) {
         if (visitorBinding.getContentHandler() instanceof ChildrenVisitor) {
-            managedVisitor.incrementVisitChildTextCounter();
+            managedVisitor.incrementVisitChildElementCounter();
             manageVisit(visitChildElementInvocation, childElement, executionContext);
         }
     }
 
     protected <T extends Visitor> void manageVisit(Invocation<T> invocation, Node node, ExecutionContext executionContext) {
-        long startTime = new Date().getTime();
+        long startTime = System.nanoTime();
         try {
             intercept(invocation, node, executionContext);
         } catch (RuntimeException e) {
             managedVisitor.incrementFailedVisitCounter();
             throw e;
         } finally {
-            long visitProcessingTime = new Date().getTime() - startTime;
-            managedVisitor.addTotalProcessingTime(visitProcessingTime);
-            managedVisitor.sendNotification(node, visitProcessingTime);
+            managedVisitor.recordVisit(node, System.nanoTime() - startTime);
         }
     }
 }
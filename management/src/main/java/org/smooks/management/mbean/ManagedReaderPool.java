@@ -70,6 +70,36 @@ public class ManagedReaderPool extends AbstractMBean {
         return readerPool.getProperties();
     }
 
+    @ManagedAttribute(description = "Number of borrows served by a pooled reader")
+    public long getHitCount() {
+        return getCount("hits");
+    }
+
+    @ManagedAttribute(description = "Number of borrows which found no pooled reader")
+    public long getMissCount() {
+        return getCount("misses");
+    }
+
+    @ManagedAttribute(description = "Number of readers created by borrowers because of a miss")
+    public long getCreationCount() {
+        return getCount("creations");
+    }
+
+    @ManagedAttribute(description = "Number of returned readers discarded because the pool was full")
+    public long getDiscardCount() {
+        return getCount("discards");
+    }
+
+    @ManagedAttribute(description = "Number of pooled readers evicted for being idle")
+    public long getEvictionCount() {
+        return getCount("evictions");
+    }
+
+    protected long getCount(String property) {
+        final String count = readerPool.getProperties().get(property);
+        return count == null ? -1 : Long.parseLong(count);
+    }
+
     @Override
     protected String getName() {
         if (readerPool.getClass().getAnnotation(Resource.class) != null) {
@@ -49,6 +49,7 @@ import org.smooks.api.management.InstrumentationAgent;
 import org.smooks.api.management.InstrumentationResource;
 import org.smooks.api.resource.config.ResourceConfig;
 import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.management.LatencyHistogram;
 import org.smooks.management.ModelMBeanAssembler;
 import org.smooks.management.annotation.ManagedAttribute;
 import org.smooks.management.annotation.ManagedNotification;
@@ -62,7 +63,9 @@ import javax.management.modelmbean.RequiredModelMBean;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.LongUnaryOperator;
 
 @ManagedResource
@@ -72,12 +75,15 @@ public class ManagedVisitor extends AbstractMBean {
     private static final char PATH_SEPARATOR = '/';
 
     private final AtomicLong seqNo = new AtomicLong();
-    private final AtomicLong visitBeforeCounter = new AtomicLong();
-    private final AtomicLong visitChildElementCounter = new AtomicLong();
-    private final AtomicLong visitChildTextCounter = new AtomicLong();
-    private final AtomicLong visitAfterCounter = new AtomicLong();
-    private final AtomicLong failedVisitCounter = new AtomicLong();
-    private final AtomicLong totalProcessingTime = new AtomicLong();
+    private final LongAdder visitBeforeCounter = new LongAdder();
+    private final LongAdder visitChildElementCounter = new LongAdder();
+    private final LongAdder visitChildTextCounter = new LongAdder();
+    private final LongAdder visitAfterCounter = new LongAdder();
+    private final LongAdder failedVisitCounter = new LongAdder();
+    private final LongAdder totalProcessingTime = new LongAdder();
+    private final LatencyHistogram processingTimeHistogram = new LatencyHistogram();
+    private final AtomicLong nextNotificationTime;
+    private final long notificationInterval;
 
     private final LongUnaryOperator incrementOrReset = operand -> operand == Long.MAX_VALUE ? 0 : operand + 1;
     private final ResourceConfig visitorResourceConfig;
@@ -88,6 +94,8 @@ public class ManagedVisitor extends AbstractMBean {
         super(instrumentationResource);
         this.visitorResourceConfig = visitorResourceConfig;
         this.visitor = visitor;
+        this.notificationInterval = instrumentationResource.getNotificationInterval() == null ? 0 : TimeUnit.MILLISECONDS.toNanos(instrumentationResource.getNotificationInterval());
+        this.nextNotificationTime = new AtomicLong(System.nanoTime());
 
         ModelMBeanAssembler modelMBeanAssembler = new ModelMBeanAssembler();
         ModelMBeanInfo modelMBeanInfo = modelMBeanAssembler.getModelMbeanInfo(this.getClass());
@@ -102,63 +110,101 @@ public class ManagedVisitor extends AbstractMBean {
 
     @ManagedAttribute(description = "Number of visited start events")
     public long getVisitBeforeCount() {
-        return visitBeforeCounter.get();
+        return visitBeforeCounter.sum();
     }
 
     @ManagedAttribute(description = "Number of visited child events")
     public long getVisitChildElementCount() {
-        return visitChildElementCounter.get();
+        return visitChildElementCounter.sum();
     }
 
     @ManagedAttribute(description = "Number of visited text events")
     public long getVisitChildTextCount() {
-        return visitChildTextCounter.get();
+        return visitChildTextCounter.sum();
     }
 
     @ManagedAttribute(description = "Number of visited end events")
     public long getVisitAfterCount() {
-        return visitAfterCounter.get();
+        return visitAfterCounter.sum();
     }
 
     @ManagedAttribute(description = "Total visit processing time (in milliseconds)")
     public long getTotalProcessingTime() {
-        return totalProcessingTime.get();
+        return TimeUnit.NANOSECONDS.toMillis(totalProcessingTime.sum());
+    }
+
+    @ManagedAttribute(description = "Median visit processing time (in nanoseconds)")
+    public long getProcessingTimeP50() {
+        return processingTimeHistogram.getValueAtPercentile(50);
+    }
+
+    @ManagedAttribute(description = "99th percentile visit processing time (in nanoseconds)")
+    public long getProcessingTimeP99() {
+        return processingTimeHistogram.getValueAtPercentile(99);
+    }
+
+    @ManagedAttribute(description = "Longest visit processing time (in nanoseconds)")
+    public long getProcessingTimeMax() {
+        return processingTimeHistogram.getMax();
     }
 
     @ManagedAttribute(description = "Number of failed visits")
     public long getFailedVisitCount() {
-        return failedVisitCounter.get();
+        return failedVisitCounter.sum();
     }
 
     public void incrementVisitBeforeCounter() {
-        visitBeforeCounter.updateAndGet(incrementOrReset);
+        visitBeforeCounter.increment();
     }
 
     public void incrementVisitAfterCounter() {
-        visitAfterCounter.updateAndGet(incrementOrReset);
+        visitAfterCounter.increment();
     }
 
     public void incrementVisitChildElementCounter() {
-        visitChildElementCounter.updateAndGet(incrementOrReset);
+        visitChildElementCounter.increment();
     }
 
     public void incrementVisitChildTextCounter() {
-        visitChildTextCounter.updateAndGet(incrementOrReset);
+        visitChildTextCounter.increment();
     }
 
     public void incrementFailedVisitCounter() {
-        failedVisitCounter.updateAndGet(incrementOrReset);
-    }
-
-    public void addTotalProcessingTime(long visitProcessingTime) {
-        totalProcessingTime.addAndGet(visitProcessingTime);
+        failedVisitCounter.increment();
+    }
+
+    /**
+     * Records the processing time of a visit. A notification is sent for the visit unless one has already been sent
+     * within the instrumentation resource's notification interval.
+     *
+     * @param node                visited node
+     * @param visitProcessingTime processing time of the visit (in nanoseconds)
+     */
+    public void recordVisit(Node node, long visitProcessingTime) {
+        totalProcessingTime.add(visitProcessingTime);
+        processingTimeHistogram.record(visitProcessingTime);
+
+        if (notificationInterval == 0) {
+            sendNotification(node, visitProcessingTime);
+        } else {
+            final long now = System.nanoTime();
+            final long notificationTime = nextNotificationTime.get();
+            if (now - notificationTime >= 0 && nextNotificationTime.compareAndSet(notificationTime, now + notificationInterval)) {
+                sendNotification(node, visitProcessingTime);
+            }
+        }
     }
 
+    /**
+     * @param node                visited node
+     * @param visitProcessingTime processing time of the visit (in nanoseconds)
+     */
     public void sendNotification(Node node, long visitProcessingTime) {
         Notification notification = new Notification("org.smooks.api.resource.visitor", requiredModelMBean, seqNo.updateAndGet(incrementOrReset), new Date().getTime(), "visitBefore");
         Map<String, Object> userData = new HashMap<>();
         userData.put("path", toPath(node));
-        userData.put("processingTimeMs", visitProcessingTime);
+        userData.put("processingTimeMs", TimeUnit.NANOSECONDS.toMillis(visitProcessingTime));
+        userData.put("processingTimeNs", visitProcessingTime);
         notification.setUserData(userData);
         try {
             requiredModelMBean.sendNotification(notification);
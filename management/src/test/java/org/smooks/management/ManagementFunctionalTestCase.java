@@ -67,6 +67,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ManagementFunctionalTestCase {
     @Test
@@ -76,7 +77,7 @@ public class ManagementFunctionalTestCase {
 
         Visitor fooVisitor = smooks.getApplicationContext().getRegistry().lookup("Foo");
         Map<String, Object> fooVisitorAttributes = getAttributes(new ObjectName("org.smooks:context=\"/a\",type=visitor,name=Foo@" + Integer.toHexString(fooVisitor.hashCode())), smooks.getApplicationContext().getRegistry());
-        assertEquals(7, fooVisitorAttributes.size());
+        assertEquals(10, fooVisitorAttributes.size());
         assertEquals("/a", fooVisitorAttributes.get("Selector"));
         assertEquals(1L, fooVisitorAttributes.get("VisitBeforeCount"));
         assertEquals(0L, fooVisitorAttributes.get("VisitAfterCount"));
@@ -86,7 +87,7 @@ public class ManagementFunctionalTestCase {
 
         Visitor quuzVisitor = smooks.getApplicationContext().getRegistry().lookup("Quuz");
         Map<String, Object> quuzVisitorAttributes = getAttributes(new ObjectName("org.smooks:context=\"/a/b\",type=visitor,name=Quuz@" + Integer.toHexString(quuzVisitor.hashCode())), smooks.getApplicationContext().getRegistry());
-        assertEquals(7, quuzVisitorAttributes.size());
+        assertEquals(10, quuzVisitorAttributes.size());
         assertEquals("/a/b", quuzVisitorAttributes.get("Selector"));
         assertEquals(0L, quuzVisitorAttributes.get("VisitBeforeCount"));
         assertEquals(1L, quuzVisitorAttributes.get("VisitAfterCount"));
@@ -96,13 +97,16 @@ public class ManagementFunctionalTestCase {
 
         Visitor barVisitor = smooks.getApplicationContext().getRegistry().lookup("Bar");
         Map<String, Object> barVisitorAttributes = getAttributes(new ObjectName("org.smooks:context=\"/a/b\",type=visitor,name=Bar@" + Integer.toHexString(barVisitor.hashCode())), smooks.getApplicationContext().getRegistry());
-        assertEquals(7, barVisitorAttributes.size());
+        assertEquals(10, barVisitorAttributes.size());
         assertEquals("/a/b", barVisitorAttributes.get("Selector"));
         assertEquals(1L, barVisitorAttributes.get("VisitBeforeCount"));
         assertEquals(1L, barVisitorAttributes.get("VisitAfterCount"));
         assertEquals(0L, barVisitorAttributes.get("VisitChildElementCount"));
         assertEquals(0L, barVisitorAttributes.get("FailedVisitCount"));
         assertEquals(1L, barVisitorAttributes.get("VisitChildTextCount"));
+        assertTrue((Long) barVisitorAttributes.get("ProcessingTimeMax") > 0);
+        assertTrue((Long) barVisitorAttributes.get("ProcessingTimeP50") <= (Long) barVisitorAttributes.get("ProcessingTimeP99"));
+        assertTrue((Long) barVisitorAttributes.get("ProcessingTimeP99") <= (Long) barVisitorAttributes.get("ProcessingTimeMax"));
     }
 
     protected Map<String, Object> getAttributes(ObjectName objectName, Registry registry) throws ReflectionException, InstanceNotFoundException, IntrospectionException, AttributeNotFoundException, MBeanException {